@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS person_associated_username ON Person (associated_username);
+
+CREATE INDEX IF NOT EXISTS event_associated_username ON Event (associated_username);
+
+CREATE INDEX IF NOT EXISTS event_person_id ON Event (person_id);
+
+CREATE INDEX IF NOT EXISTS auth_token_associated_username ON AuthToken (associated_username);
@@ -0,0 +1,250 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.sqlite.SQLiteErrorCode;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of database connections. Connections are opened lazily, up to the pool's
+ * maximum size, and are reused once they are released back to the pool. Each connection is a
+ * <code>PooledConnection</code>, which keeps a <code>StatementCache</code> for as long as it is
+ * open.
+ */
+public class ConnectionPool {
+	private final @NotNull String databaseUrl;
+	private final int maxSize;
+	private final long checkoutTimeoutMillis;
+	private final @NotNull List<String> pragmas;
+	
+	private final @NotNull Semaphore permits;
+	private final @NotNull ConcurrentLinkedDeque<Connection> idleConnections = new ConcurrentLinkedDeque<>();
+	private volatile boolean closed = false;
+	
+	// Metrics
+	private final @NotNull AtomicInteger activeCount = new AtomicInteger(0);
+	private final @NotNull LongAdder checkoutCount = new LongAdder();
+	private final @NotNull LongAdder timeoutCount = new LongAdder();
+	private final @NotNull LongAdder totalWaitNanos = new LongAdder();
+	
+	/**
+	 * Creates a <code>ConnectionPool</code> object.
+	 *
+	 * @param databaseUrl The JDBC URL of the database.
+	 * @param maxSize The maximum number of connections that may be leased at once. Must be positive.
+	 * @param checkoutTimeoutMillis The number of milliseconds a caller may wait for a free connection
+	 *                              before giving up.
+	 */
+	public ConnectionPool(@NotNull String databaseUrl, int maxSize, long checkoutTimeoutMillis) {
+		this(databaseUrl, maxSize, checkoutTimeoutMillis, Collections.emptyList());
+	}
+	
+	/**
+	 * Creates a <code>ConnectionPool</code> object whose connections are configured with the
+	 * given pragmas as they are opened.
+	 *
+	 * @param databaseUrl The JDBC URL of the database.
+	 * @param maxSize The maximum number of connections that may be leased at once. Must be positive.
+	 * @param checkoutTimeoutMillis The number of milliseconds a caller may wait for a free connection
+	 *                              before giving up.
+	 * @param pragmas Pragma assignments (such as <code>"journal_mode=WAL"</code>) to run on each
+	 *                new connection.
+	 */
+	public ConnectionPool(
+		@NotNull String databaseUrl,
+		int maxSize,
+		long checkoutTimeoutMillis,
+		@NotNull List<String> pragmas
+	) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be positive");
+		}
+		if (checkoutTimeoutMillis < 0) {
+			throw new IllegalArgumentException("Checkout timeout must be positive or 0");
+		}
+		this.databaseUrl = databaseUrl;
+		this.maxSize = maxSize;
+		this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+		this.pragmas = pragmas;
+		this.permits = new Semaphore(maxSize, true);
+	}
+	
+	
+	
+	
+	/**
+	 * Leases a connection from the pool, waiting up to the pool's checkout timeout for one to
+	 * become free. The caller must return the connection using <code>release</code>.
+	 *
+	 * @return A database connection in auto-commit mode.
+	 * @throws DataAccessException An exception if no connection became free in time, or if a
+	 * new connection could not be opened.
+	 */
+	public @NotNull Connection checkout() throws DataAccessException {
+		long start = System.nanoTime();
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataAccessException(
+				SQLiteErrorCode.SQLITE_INTERRUPT,
+				"Interrupted while waiting for a database connection"
+			);
+		} finally {
+			totalWaitNanos.add(System.nanoTime() - start);
+		}
+		
+		if (!acquired) {
+			timeoutCount.increment();
+			throw new DataAccessException(
+				SQLiteErrorCode.SQLITE_BUSY,
+				"Timed out after " + checkoutTimeoutMillis + " ms waiting for a database connection"
+			);
+		}
+		
+		try {
+			Connection conn = idleConnections.pollFirst();
+			if (conn != null && conn.isClosed()) {
+				closeQuietly(conn);
+				conn = null;
+			}
+			if (conn == null) {
+				conn = newConnection();
+			}
+			activeCount.incrementAndGet();
+			checkoutCount.increment();
+			return conn;
+			
+		} catch (SQLException e) {
+			permits.release();
+			throw new DataAccessException(e, "Unable to open connection to database: " + e.getMessage());
+		}
+	}
+	
+	private @NotNull Connection newConnection() throws SQLException {
+		Connection conn = DriverManager.getConnection(databaseUrl);
+		try (Statement stmt = conn.createStatement()) {
+			for (String pragma : pragmas) {
+				stmt.execute("PRAGMA " + pragma);
+			}
+		} catch (SQLException e) {
+			conn.close();
+			throw e;
+		}
+		return new PooledConnection(conn, StatementCache.DEFAULT_MAX_SIZE);
+	}
+	
+	/**
+	 * Returns a leased connection to the pool. Any transaction still open on the connection
+	 * should be committed or rolled back before this is called.
+	 *
+	 * @param conn The connection to return, or <code>null</code> if the connection was lost.
+	 */
+	public void release(@Nullable Connection conn) {
+		try {
+			if (conn != null && !conn.isClosed() && !closed) {
+				conn.setAutoCommit(true);
+				idleConnections.offerFirst(conn);
+				if (closed) {
+					// The pool closed while we were returning the connection.
+					closeIdleConnections();
+				}
+			} else {
+				// The pool is closed, or the connection was lost. Close it and its statements.
+				closeQuietly(conn);
+			}
+		} catch (SQLException e) {
+			// The connection is no good to us anymore. Drop it.
+			closeQuietly(conn);
+		} finally {
+			activeCount.decrementAndGet();
+			permits.release();
+		}
+	}
+	
+	/**
+	 * Closes every idle connection in the pool. Connections that are currently leased are closed
+	 * when they are released, rather than returned to the pool.
+	 */
+	public void close() {
+		closed = true;
+		closeIdleConnections();
+	}
+	
+	private void closeIdleConnections() {
+		Connection conn;
+		while ((conn = idleConnections.pollFirst()) != null) {
+			closeQuietly(conn);
+		}
+	}
+	
+	private void closeQuietly(@Nullable Connection conn) {
+		if (conn == null) {
+			return;
+		}
+		try {
+			conn.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	
+	
+	
+	// ** Metrics
+	
+	/**
+	 * @return The maximum number of connections that may be leased at once.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	/**
+	 * @return The number of connections currently leased.
+	 */
+	public int getActiveCount() {
+		return activeCount.get();
+	}
+	
+	/**
+	 * @return The number of open connections waiting to be leased.
+	 */
+	public int getIdleCount() {
+		return idleConnections.size();
+	}
+	
+	/**
+	 * @return The number of successful checkouts since the pool was created.
+	 */
+	public long getCheckoutCount() {
+		return checkoutCount.sum();
+	}
+	
+	/**
+	 * @return The number of checkouts that timed out since the pool was created.
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+	
+	/**
+	 * @return The total time, in nanoseconds, that callers have spent waiting for a connection.
+	 */
+	public long getTotalWaitNanos() {
+		return totalWaitNanos.sum();
+	}
+}
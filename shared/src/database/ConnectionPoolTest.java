@@ -0,0 +1,54 @@
+package database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+	private ConnectionPool pool;
+	
+	@BeforeEach
+	void setUp() {
+		pool = new ConnectionPool("jdbc:sqlite::memory:", 2, 0);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+	
+	@Test
+	void testRelease_returnsConnectionToPool() throws DataAccessException, SQLException {
+		Connection conn = pool.checkout();
+		pool.release(conn);
+		assertFalse(conn.isClosed());
+		assertEquals(1, pool.getIdleCount());
+		assertSame(conn, pool.checkout());
+	}
+	
+	@Test
+	void testClose_closesIdleConnections() throws DataAccessException, SQLException {
+		Connection conn = pool.checkout();
+		pool.release(conn);
+		pool.close();
+		assertTrue(conn.isClosed());
+		assertEquals(0, pool.getIdleCount());
+	}
+	
+	@Test
+	void testRelease_closesConnectionLeasedBeforeClose() throws DataAccessException, SQLException {
+		Connection conn = pool.checkout();
+		pool.close();
+		assertFalse(conn.isClosed(), "A leased connection should stay open until it is released");
+		
+		pool.release(conn);
+		assertTrue(conn.isClosed());
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(0, pool.getActiveCount());
+	}
+}
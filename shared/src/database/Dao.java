@@ -7,18 +7,43 @@ import org.sqlite.SQLiteErrorCode;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Objects that extend this class manage the reading and writing of records in the database.
  */
 public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
+	/**
+	 * The number of records to send to SQLite in a single batch.
+	 */
+	public static final int BATCH_SIZE = 500;
+	
 	protected @NotNull Connection connection;
+	private @Nullable StatementCache statements;
 	
 	public Dao(@NotNull Connection connection) {
 		this.connection = connection;
 	}
 	
+	/**
+	 * @return The cache from which this DAO leases the statements it runs on its connection.
+	 */
+	protected @NotNull StatementCache statements() {
+		if (statements == null) {
+			statements = StatementCache.forConnection(connection);
+		}
+		return statements;
+	}
+	
+	/**
+	 * @return The statistics to which this DAO reports the time taken by each statement.
+	 */
+	protected @NotNull QueryStatistics statistics() {
+		return QueryStatistics.getShared();
+	}
+	
 	
 	
 	
@@ -32,15 +57,177 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	
 	
 	
+	/**
+	 * The names of the columns in which records are stored, in the order that
+	 * <code>bindRecord</code> binds their values.
+	 *
+	 * @return A list of column names.
+	 */
+	protected abstract @NotNull List<String> columns();
+	
+	
+	
+	
+	/**
+	 * The SQL strings that this DAO runs. Build these once per DAO type, from
+	 * <code>table()</code> and <code>columns()</code>, and keep them in a static field.
+	 *
+	 * @return The table's SQL strings.
+	 */
+	protected abstract @NotNull TableSql sql();
+	
+	
+	
+	
+	/**
+	 * Binds the values of the given record to the parameters of the given statement. Parameters
+	 * are numbered from 1, in the same order as the columns returned by <code>columns()</code>.
+	 * Use <code>TableSql.indexOf</code> to find each column's number once, rather than on each call.
+	 *
+	 * @param stmt The statement whose parameters to set.
+	 * @param record The record whose values to bind.
+	 * @throws SQLException An exception if a value could not be bound.
+	 */
+	protected abstract void bindRecord(@NotNull PreparedStatement stmt, @NotNull T record) throws SQLException;
+	
+	
+	
+	
+	/**
+	 * Describes a bound parameter for the slow-query log. Override this to keep secret values
+	 * out of the log.
+	 *
+	 * @param column The column to which the value is compared or written.
+	 * @param value The bound value.
+	 * @return A description of the parameter.
+	 */
+	protected @NotNull String describeParameter(@NotNull String column, @NotNull String value) {
+		return column + "=" + value;
+	}
+	
+	
+	
+	
 	/**
 	 * Adds a new record to the database.
 	 *
 	 * @param record The data to write.
 	 * @throws DataAccessException An exception if the write fails.
 	 */
-	public abstract void insert(@NotNull T record) throws DataAccessException;
+	public void insert(@NotNull T record) throws DataAccessException {
+		String sql = sql().insert();
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			PreparedStatement stmt = lease.getStatement();
+			bindRecord(stmt, record);
+			int rows = stmt.executeUpdate();
+			statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, rows,
+				describeParameter(table().getPrimaryKey(), record.getId())
+			);
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
+		}
+	}
 	
 	
+	/**
+	 * Adds many new records to the database using a single prepared statement, sending them to
+	 * SQLite in batches.
+	 *
+	 * @param records The data to write.
+	 * @return The number of records written.
+	 * @throws DataAccessException An exception if the write fails. If any record duplicates
+	 * another record's ID, then the whole write fails.
+	 */
+	public int insertAll(@NotNull Collection<T> records) throws DataAccessException {
+		try {
+			return sum(executeBatch(sql().insert(), records, false));
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Adds many new records to the database in batches. Records whose ID is already in the
+	 * database are skipped.
+	 *
+	 * @param records The data to write.
+	 * @return The number of new records written to the database.
+	 * @throws DataAccessException An exception if the write fails.
+	 */
+	public int insertAllIfNotExists(@NotNull Collection<T> records) throws DataAccessException {
+		try {
+			return sum(executeBatch(sql().insertIfNotExists(), records, false));
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Binds each of the given records to the given statement, and executes them in batches.
+	 *
+	 * @param sql The statement to execute for each record.
+	 * @param records The records to bind.
+	 * @param bindId Whether to bind each record's ID again after its columns.
+	 * @return The number of rows changed by each record, in iteration order.
+	 * @throws SQLException An exception if the write fails.
+	 */
+	private @NotNull int[] executeBatch(
+		@NotNull String sql,
+		@NotNull Collection<T> records,
+		boolean bindId
+	) throws SQLException {
+		int[] updateCounts = new int[records.size()];
+		if (records.isEmpty()) {
+			return updateCounts;
+		}
+		
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			PreparedStatement stmt = lease.getStatement();
+			int written = 0;
+			int pending = 0;
+			for (T record : records) {
+				bindRecord(stmt, record);
+				if (bindId) {
+					stmt.setString(columns().size() + 1, record.getId());
+				}
+				stmt.addBatch();
+				pending += 1;
+				
+				if (pending == BATCH_SIZE) {
+					int[] batchCounts = stmt.executeBatch();
+					System.arraycopy(batchCounts, 0, updateCounts, written, batchCounts.length);
+					written += pending;
+					pending = 0;
+				}
+			}
+			if (pending > 0) {
+				int[] batchCounts = stmt.executeBatch();
+				System.arraycopy(batchCounts, 0, updateCounts, written, batchCounts.length);
+			}
+		}
+		statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, sum(updateCounts),
+			records.size() + " records"
+		);
+		
+		return updateCounts;
+	}
+	
+	private static int sum(@NotNull int[] updateCounts) {
+		int total = 0;
+		for (int count : updateCounts) {
+			if (count > 0) {
+				total += count;
+			}
+		}
+		return total;
+	}
 	
 	
 	
@@ -74,14 +261,47 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	
 	
 	/**
-	 * Removes the stored record, and replaces it with the given record.
+	 * Writes the given record to the database, replacing the stored record with the same ID
+	 * if there is one.
+	 *
+	 * @param record The record to write.
+	 * @return <code>true</code> if the record was new, or <code>false</code> if it replaced
+	 * a stored record.
+	 * @throws DataAccessException An exception if the write fails.
+	 */
+	public boolean update(@NotNull T record) throws DataAccessException {
+		return updateAll(Collections.singletonList(record)) == 1;
+	}
+	
+	
+	/**
+	 * Writes the given records to the database in batches, replacing any stored records with
+	 * the same IDs. New records are inserted with an <code>ON CONFLICT DO NOTHING</code>
+	 * clause, and only those that conflicted are then written with an <code>UPDATE</code>.
 	 *
-	 * @param record The record to update.
+	 * @param records The records to write.
+	 * @return The number of records that were new. The rest replaced stored records.
 	 * @throws DataAccessException An exception if the write fails.
 	 */
-	public void update(@NotNull T record) throws DataAccessException {
-		delete(record.getId());
-		insert(record);
+	public int updateAll(@NotNull Collection<T> records) throws DataAccessException {
+		try {
+			int[] inserted = executeBatch(sql().insertIfNotExists(), records, false);
+			
+			List<T> conflicts = new ArrayList<>();
+			int idx = 0;
+			for (T record : records) {
+				if (inserted[idx] <= 0) {
+					conflicts.add(record);
+				}
+				idx += 1;
+			}
+			
+			executeBatch(sql().update(), conflicts, true);
+			return records.size() - conflicts.size();
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Error encountered while updating records: " + e.getMessage());
+		}
 	}
 	
 	
@@ -103,20 +323,24 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 		List<T> results = new ArrayList<>();
 		
 		ResultSet rs = null;
-		String sql = "SELECT * FROM " +
-			table().getName() +
-			" WHERE " +
-			column +
-			" = ?;";
+		String sql = sql().selectWhere(column);
 		
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+		long start = System.nanoTime();
+		long mappingNanos = 0;
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			PreparedStatement stmt = lease.getStatement();
 			stmt.setString(1, value);
 			rs = stmt.executeQuery();
 			
 			while (rs.next()) {
+				long mappingStart = System.nanoTime();
 				@NotNull T result = recordFromQueryResult(rs);
+				mappingNanos += System.nanoTime() - mappingStart;
 				results.add(result);
 			}
+			statistics().recordStatement(sql, System.nanoTime() - start, mappingNanos, 0, results.size(),
+				describeParameter(column, value)
+			);
 		} catch (SQLException e) {
 			e.printStackTrace();
 			throw new DataAccessException(e, "Error encountered while finding record: " + e.getMessage());
@@ -157,15 +381,16 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	 * @throws DataAccessException An exception if the read fails.
 	 */
 	public int count() throws DataAccessException {
-		String sql = "SELECT COUNT(DISTINCT " +
-			table().getPrimaryKey() +
-			") FROM " +
-			table().getName();
+		String sql = sql().count();
 		
-		try (Statement stmt = connection.createStatement()) {
-			ResultSet rs = stmt.executeQuery(sql);
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql);
+			 ResultSet rs = lease.getStatement().executeQuery()
+		) {
 			rs.next();
-			return rs.getInt(1);
+			int count = rs.getInt(1);
+			statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, 1, "none");
+			return count;
 			
 		} catch (SQLException e) {
 			throw new DataAccessException(
@@ -182,7 +407,9 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	
 	
 	/**
-	 * Builds an instance of the model type from the given SQL query result set.
+	 * Builds an instance of the model type from the given SQL query result set. The result's
+	 * columns are those returned by <code>columns()</code>, in the same order, so values should
+	 * be read by index, numbered from 1, rather than by label.
 	 *
 	 * @param rs The result of a <code>SELECT</code> query.
 	 * @return An instance of <code>T</code>.
@@ -199,19 +426,20 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	 * an <code>SQLIntegrityConstraintViolationException</code> is thrown.
 	 *
 	 * @param rs The SQL result set.
-	 * @param columnLabel The column label where the string is stored.
+	 * @param columnIndex The index of the column where the string is stored, numbered from 1 in
+	 *                    the order of <code>columns()</code>.
 	 * @return The non-<code>null</code> value at the given column.
 	 * @throws SQLException An exception if there was a problem retrieving the value from the result set, or if the returned value was <code>null</code>.
 	 */
 	protected @NotNull String getNotNullString(
 		@NotNull ResultSet rs,
-		@NotNull String columnLabel
+		int columnIndex
 	) throws SQLException {
-		String value = rs.getString(columnLabel);
+		String value = rs.getString(columnIndex);
 		if (value == null) {
 			throw new SQLIntegrityConstraintViolationException(
 				"No valid string for " +
-					columnLabel +
+					columns().get(columnIndex - 1) +
 					" found"
 			);
 		}
@@ -220,6 +448,29 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	
 	
 	
+	/**
+	 * Gets a floating-point number from the given result set, or <code>null</code> if the
+	 * column is <code>NULL</code>.
+	 *
+	 * @param rs The SQL result set.
+	 * @param columnIndex The index of the column where the number is stored, numbered from 1 in
+	 *                    the order of <code>columns()</code>.
+	 * @return The value at the given column.
+	 * @throws SQLException An exception if there was a problem retrieving the value from the result set.
+	 */
+	protected @Nullable Double getNullableDouble(
+		@NotNull ResultSet rs,
+		int columnIndex
+	) throws SQLException {
+		double value = rs.getDouble(columnIndex);
+		if (rs.wasNull()) {
+			return null;
+		}
+		return value;
+	}
+	
+	
+	
 	
 	/**
 	 * Attempts to delete from the database a record with the given <code>id</code>.
@@ -228,15 +479,16 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	 * @throws DataAccessException An exception if the write fails.
 	 */
 	public void delete(@NotNull String id) throws DataAccessException {
-		String sql = "DELETE FROM " +
-			table().getName() +
-			" WHERE " +
-			table().getPrimaryKey() +
-			" = ?;";
+		String sql = sql().delete();
 		
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			PreparedStatement stmt = lease.getStatement();
 			stmt.setString(1, id);
-			stmt.executeUpdate();
+			int rows = stmt.executeUpdate();
+			statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, rows,
+				describeParameter(table().getPrimaryKey(), id)
+			);
 			
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -246,16 +498,50 @@ public abstract class Dao<T extends ModelData, Table extends IDatabaseTable> {
 	
 	
 	
+	/**
+	 * Attempts to delete from the database every record which has the given <code>value</code>
+	 * for the given <code>column</code>, using a single statement.
+	 *
+	 * @param column The table column by which to filter records.
+	 * @param value The value which the record should have at the specified <code>column</code> to be deleted.
+	 * @return The number of records deleted.
+	 * @throws DataAccessException An exception if the write fails.
+	 */
+	protected int deleteMultiple(
+		@NotNull String column,
+		@NotNull String value
+	) throws DataAccessException {
+		String sql = sql().deleteWhere(column);
+		
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			PreparedStatement stmt = lease.getStatement();
+			stmt.setString(1, value);
+			int rows = stmt.executeUpdate();
+			statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, rows,
+				describeParameter(column, value)
+			);
+			return rows;
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Error encountered while deleting records: " + e.getMessage());
+		}
+	}
+	
+	
+	
 	/**
 	 * Attempts to clear all data from the table.
 	 *
 	 * @throws DataAccessException An exception if the write fails.
 	 */
 	public void clearAll() throws DataAccessException {
-		String sql = "DELETE FROM " + table().getName();
+		String sql = sql().clearAll();
 		
-		try (Statement stmt = connection.createStatement()) {
-			stmt.executeUpdate(sql);
+		long start = System.nanoTime();
+		try (StatementCache.Lease lease = statements().lease(sql)) {
+			int rows = lease.getStatement().executeUpdate();
+			statistics().recordStatement(sql, System.nanoTime() - start, 0, 0, rows, "none");
 			
 		} catch (SQLException e) {
 			throw new DataAccessException(
@@ -7,6 +7,12 @@ import org.sqlite.SQLiteErrorCode;
 import java.io.File;
 import java.io.IOException;
 import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.*;
 
 /**
@@ -14,11 +20,16 @@ import java.util.logging.*;
  */
 public class Database<Table extends IDatabaseTable> {
 	private static final String CREATE_TABLES_FILE = "CreateTables.txt";
+	private static final String MIGRATIONS_DIRECTORY = "migrations";
 	public static final String MAIN_DATABASE_NAME = "familymap.sqlite";
 	public static final String TEST_DATABASE_NAME = "familymap_tests.sqlite";
+	public static final int DEFAULT_POOL_SIZE = 8;
+	public static final long DEFAULT_CHECKOUT_TIMEOUT_MILLIS = 5000;
 	
 	private final @NotNull String databaseName;
-	private @Nullable Connection conn;
+	private final @NotNull ConnectionPool pool;
+	private final @Nullable ConnectionPool readPool;
+	private final @NotNull ThreadLocal<Connection> leasedConnection = new ThreadLocal<>();
 	private final Table[] databaseTables;
 	private @Nullable Logger logger;
 	
@@ -27,8 +38,50 @@ public class Database<Table extends IDatabaseTable> {
 	}
 	
 	public Database(@NotNull String databaseName, Table[] databaseTables) {
+		this(databaseName, databaseTables, DEFAULT_POOL_SIZE, DEFAULT_CHECKOUT_TIMEOUT_MILLIS);
+	}
+	
+	public Database(
+		@NotNull String databaseName,
+		Table[] databaseTables,
+		int poolSize,
+		long checkoutTimeoutMillis
+	) {
+		this(databaseName, databaseTables, poolSize, checkoutTimeoutMillis, false);
+	}
+	
+	/**
+	 * Creates a <code>Database</code> object.
+	 *
+	 * @param databaseName The path to the database file.
+	 * @param databaseTables The tables that make up the database schema.
+	 * @param poolSize The maximum number of connections that may be open at once. When
+	 *                 <code>writeAheadLogging</code> is enabled, this is the number of read
+	 *                 connections.
+	 * @param checkoutTimeoutMillis The number of milliseconds to wait for a free connection before
+	 *                              failing a transaction.
+	 * @param writeAheadLogging Whether to open the database in WAL mode. In this mode, read-only
+	 *                          transactions run on their own pool of connections, and all other
+	 *                          transactions share a single writer connection, so reads never
+	 *                          wait behind writes.
+	 */
+	public Database(
+		@NotNull String databaseName,
+		Table[] databaseTables,
+		int poolSize,
+		long checkoutTimeoutMillis,
+		boolean writeAheadLogging
+	) {
 		this.databaseName = databaseName;
 		this.databaseTables = databaseTables;
+		if (writeAheadLogging) {
+			List<String> pragmas = walPragmas(checkoutTimeoutMillis);
+			this.pool = new ConnectionPool(this.databaseUrl(), 1, checkoutTimeoutMillis, pragmas);
+			this.readPool = new ConnectionPool(this.databaseUrl(), poolSize, checkoutTimeoutMillis, pragmas);
+		} else {
+			this.pool = new ConnectionPool(this.databaseUrl(), poolSize, checkoutTimeoutMillis);
+			this.readPool = null;
+		}
 		
 		try (Connection conn = DriverManager.getConnection(this.databaseUrl())) {
 			// Create tables if they don't exist
@@ -37,15 +90,126 @@ public class Database<Table extends IDatabaseTable> {
 			Statement stmt = conn.createStatement();
 			stmt.executeUpdate(sql);
 			
+			// Bring older databases up to date
+			migrate(conn);
+			
 		} catch (IOException e) {
 			e.printStackTrace();
-			getLogger().log(Level.SEVERE, "Error while reading CreateTables file: " + e.getMessage(), e);
+			getLogger().log(Level.SEVERE, "Error while reading schema files: " + e.getMessage(), e);
 		} catch (SQLException e) {
 			e.printStackTrace();
 			getLogger().log(Level.SEVERE, "Error while preparing database tables: " + e.getMessage(), e);
 		}
 	}
 	
+	/**
+	 * Builds the pragmas applied to every connection when write-ahead logging is enabled.
+	 *
+	 * @param busyTimeoutMillis The number of milliseconds a connection waits for a lock held by
+	 *                          another connection. This matches the checkout timeout, so that a
+	 *                          transaction waits about as long for the lock as for a connection.
+	 * @return The pragma assignments.
+	 */
+	static @NotNull List<String> walPragmas(long busyTimeoutMillis) {
+		return Arrays.asList(
+			"journal_mode=WAL",
+			"synchronous=NORMAL",
+			"busy_timeout=" + busyTimeoutMillis,
+			"mmap_size=268435456", // 256 MiB
+			"cache_size=-16000" // 16 MB
+		);
+	}
+	
+	/**
+	 * Applies every migration in the migrations directory that is newer than the database's
+	 * schema version. Migration files are named <code>&lt;version&gt;_&lt;description&gt;.sql</code>,
+	 * and are applied in order of version, each in its own transaction. The schema version is
+	 * stored in SQLite's <code>user_version</code> pragma.
+	 *
+	 * @param conn A connection in auto-commit mode.
+	 * @throws IOException An exception if a migration file could not be read.
+	 * @throws SQLException An exception if a migration failed. Migrations before the failed one
+	 * stay applied.
+	 */
+	private void migrate(@NotNull Connection conn) throws IOException, SQLException {
+		int currentVersion = schemaVersion(conn);
+		
+		for (Map.Entry<Integer, File> migration : loadMigrations().entrySet()) {
+			int version = migration.getKey();
+			if (version <= currentVersion) {
+				continue;
+			}
+			
+			String sql = FileHelpers.stringFromFile(migration.getValue());
+			getLogger().info("Migrating database schema to version " + version + ": " + migration.getValue().getName());
+			
+			conn.setAutoCommit(false);
+			try (Statement stmt = conn.createStatement()) {
+				stmt.executeUpdate(sql);
+				stmt.executeUpdate("PRAGMA user_version = " + version);
+				conn.commit();
+				
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+				
+			} finally {
+				conn.setAutoCommit(true);
+			}
+			currentVersion = version;
+		}
+	}
+	
+	private static int schemaVersion(@NotNull Connection conn) throws SQLException {
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("PRAGMA user_version")
+		) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+	
+	/**
+	 * @return The migration files in the migrations directory, keyed by version.
+	 */
+	private @NotNull SortedMap<Integer, File> loadMigrations() {
+		SortedMap<Integer, File> migrations = new TreeMap<>();
+		File[] files = new File(MIGRATIONS_DIRECTORY).getAbsoluteFile().listFiles();
+		if (files == null) {
+			return migrations;
+		}
+		
+		for (File file : files) {
+			String name = file.getName();
+			int separator = name.indexOf('_');
+			if (!name.endsWith(".sql") || separator < 1) {
+				continue;
+			}
+			try {
+				migrations.put(Integer.parseInt(name.substring(0, separator)), file);
+			} catch (NumberFormatException e) {
+				getLogger().warning("Skipping migration with no version number: " + name);
+			}
+		}
+		return migrations;
+	}
+	
+	/**
+	 * @return The version of the database schema, as recorded by the last migration applied.
+	 * @throws DataAccessException An exception if the version could not be read.
+	 */
+	public int getSchemaVersion() throws DataAccessException {
+		AtomicInteger version = new AtomicInteger(0);
+		runReadTransaction(conn -> {
+			try {
+				version.set(schemaVersion(conn));
+			} catch (SQLException e) {
+				throw new DataAccessException(e, "Unable to read schema version: " + e.getMessage());
+			}
+			return false;
+		});
+		return version.get();
+	}
+	
 	private @NotNull Logger getLogger() {
 		if (this.logger == null) {
 			// Lazy-load the logger if it doesn't exist yet.
@@ -67,49 +231,77 @@ public class Database<Table extends IDatabaseTable> {
 	}
 	
 	private @NotNull String databaseUrl() {
+		//The Structure for this Connection is driver:language:path
+		//The path assumes you start in the root of your project unless given a non-relative path
 		return "jdbc:sqlite:" + this.databaseName;
 	}
 	
 	/**
-	 * Opens a new database connection. If there is already an open connection, an exception is thrown.
+	 * @return The pool that supplies this database's connections. Useful for reading pool metrics.
+	 */
+	public @NotNull ConnectionPool getConnectionPool() {
+		return pool;
+	}
+	
+	/**
+	 * @return The pool that supplies connections to read-only transactions. This is the same as
+	 * <code>getConnectionPool()</code> unless write-ahead logging is enabled.
+	 */
+	public @NotNull ConnectionPool getReadConnectionPool() {
+		if (readPool == null) {
+			return pool;
+		}
+		return readPool;
+	}
+	
+	/**
+	 * @return <code>true</code> if read-only transactions have a connection pool of their own.
+	 */
+	public boolean isWriteAheadLogging() {
+		return readPool != null;
+	}
+	
+	/**
+	 * Leases a connection from the pool to the calling thread. If the calling thread already has
+	 * an open connection, an exception is thrown.
 	 *
 	 * Whenever we want to make a change to our database we will have to open a connection and use
 	 * Statements created by that connection to initiate transactions
 	 *
 	 * @return A new database connection to use to perform access-related tasks.
-	 * @throws DataAccessException An exception if there was an issue opening a connection.
+	 * @throws DataAccessException An exception if there was an issue opening a connection, or
+	 * if no pooled connection became free before the checkout timeout.
 	 */
 	public @NotNull Connection openConnection() throws DataAccessException {
-		if (conn != null) {
+		if (leasedConnection.get() != null) {
 			throw new DataAccessException(
 				SQLiteErrorCode.SQLITE_BUSY,
 				"There is already an active connection. Close it first."
 			);
 		}
+		
+		Connection conn = pool.checkout();
 		try {
-			//The Structure for this Connection is driver:language:path
-			//The path assumes you start in the root of your project unless given a non-relative path
-			final String CONNECTION_URL = this.databaseUrl();
-			
-			// Open a database connection to the file given in the path
-			conn = DriverManager.getConnection(CONNECTION_URL);
-			
 			// Start a transaction
 			conn.setAutoCommit(false);
 		} catch (SQLException e) {
+			pool.release(conn);
 			e.printStackTrace();
 			throw new DataAccessException(e, "Unable to open connection to database: " + e.getMessage());
 		}
 		
+		leasedConnection.set(conn);
 		return conn;
 	}
 	
 	/**
-	 * Gets and returns the active database connection, or creates one if there is no active connection yet.
+	 * Gets and returns the calling thread's active database connection, or creates one if there
+	 * is no active connection yet.
 	 * @return A database connection to use to perform access-related tasks.
 	 * @throws DataAccessException An exception if there was an issue opening a connection.
 	 */
 	public @NotNull Connection getConnection() throws DataAccessException {
+		Connection conn = leasedConnection.get();
 		if (conn == null) {
 			return openConnection();
 		} else {
@@ -118,24 +310,27 @@ public class Database<Table extends IDatabaseTable> {
 	}
 	
 	/**
-	 * Closes the active database connection.
+	 * Ends the calling thread's active transaction and returns its connection to the pool.
 	 *
 	 * When we are done manipulating the database it is important to close the connection. This
 	 * will End the transaction and allow us to either commit our changes to the database or
 	 * rollback any changes that were made before we encountered a potential error.
 	 *
-	 * IMPORTANT: IF YOU FAIL TO CLOSE A CONNECTION AND TRY TO REOPEN THE DATABASE THIS WILL
-	 * CAUSE THE DATABASE TO LOCK. YOUR CODE MUST ALWAYS INCLUDE A CLOSURE OF THE DATABASE NO
-	 * MATTER WHAT ERRORS OR PROBLEMS YOU ENCOUNTER.
+	 * IMPORTANT: IF YOU FAIL TO CLOSE A CONNECTION, IT IS NEVER RETURNED TO THE POOL, AND OTHER
+	 * CALLERS WILL EVENTUALLY TIME OUT WAITING FOR ONE. YOUR CODE MUST ALWAYS INCLUDE A CLOSURE OF
+	 * THE DATABASE NO MATTER WHAT ERRORS OR PROBLEMS YOU ENCOUNTER.
 	 *
 	 * @param commit Whether changes made during this connection should be saved.
 	 * @throws DataAccessException An exception if there was an issue closing the connection.
 	 */
 	public void closeConnection(boolean commit) throws DataAccessException {
+		Connection conn = leasedConnection.get();
 		if (conn == null) {
 			// No connection? We must already have been closed.
 			return;
 		}
+		leasedConnection.remove();
+		
 		try {
 			if (commit) {
 				// Commit the changes to the database
@@ -146,10 +341,47 @@ public class Database<Table extends IDatabaseTable> {
 				conn.rollback();
 			}
 			
-			conn.close();
-			conn = null;
 		} catch (SQLException e) {
+			if (commit) {
+				// A failed commit leaves the transaction open, and the pool would commit whatever
+				// is left of it when it resets the connection. Throw the changes away instead.
+				abandonTransaction(conn, e);
+			}
 			throw new DataAccessException(e, "Unable to close database connection: " + e.getMessage());
+			
+		} finally {
+			pool.release(conn);
+		}
+	}
+	
+	/**
+	 * Rolls back the transaction open on the given connection. If even that fails, the connection
+	 * is closed, so that the pool drops it rather than reusing it with the transaction open.
+	 *
+	 * @param conn The connection whose transaction to end.
+	 * @param cause The failure that ended the transaction early. Any failure to roll back is added
+	 *              to it as a suppressed exception.
+	 */
+	private static void abandonTransaction(@NotNull Connection conn, @NotNull SQLException cause) {
+		try {
+			conn.rollback();
+		} catch (SQLException rollbackFailure) {
+			cause.addSuppressed(rollbackFailure);
+			try {
+				conn.close();
+			} catch (SQLException closeFailure) {
+				cause.addSuppressed(closeFailure);
+			}
+		}
+	}
+	
+	/**
+	 * Closes every idle pooled connection. Call this when the database is no longer needed.
+	 */
+	public void close() {
+		pool.close();
+		if (readPool != null) {
+			readPool.close();
 		}
 	}
 	
@@ -170,11 +402,52 @@ public class Database<Table extends IDatabaseTable> {
 	 */
 	public void runTransaction(@NotNull DatabaseTransaction transaction) throws DataAccessException {
 		Connection conn = this.openConnection();
+		long start = System.nanoTime();
 		boolean commit = false;
 		try {
 			commit = transaction.run(conn);
 		} finally {
-			this.closeConnection(commit);
+			try {
+				this.closeConnection(commit);
+			} finally {
+				QueryStatistics.getShared().recordTransaction(false, System.nanoTime() - start);
+			}
+		}
+	}
+	
+	/**
+	 * Runs the given function in a read-only database transaction. The transaction is always
+	 * rolled back when the function returns, so the function's return value is ignored.
+	 *
+	 * When write-ahead logging is enabled, the transaction runs on a read connection, so it does
+	 * not wait for any write transaction to finish. Read transactions do not count as the calling
+	 * thread's active connection, so they may be run while a write transaction is open.
+	 *
+	 * @param transaction The database transaction. This runnable receives a database connection
+	 *                    that is open for the duration of the runtime of
+	 *                    <code>runReadTransaction</code>.
+	 *
+	 * @throws DataAccessException An exception if a database error occurs in the transaction body.
+	 */
+	public void runReadTransaction(@NotNull DatabaseTransaction transaction) throws DataAccessException {
+		ConnectionPool readers = getReadConnectionPool();
+		Connection conn = readers.checkout();
+		long start = System.nanoTime();
+		try {
+			conn.setAutoCommit(false);
+			transaction.run(conn);
+			
+		} catch (SQLException e) {
+			throw new DataAccessException(e, "Unable to open connection to database: " + e.getMessage());
+			
+		} finally {
+			try {
+				conn.rollback();
+			} catch (SQLException e) {
+				getLogger().log(Level.WARNING, "Unable to end read transaction: " + e.getMessage(), e);
+			}
+			readers.release(conn);
+			QueryStatistics.getShared().recordTransaction(true, System.nanoTime() - start);
 		}
 	}
 	
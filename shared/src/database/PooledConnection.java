@@ -0,0 +1,358 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * A connection opened by a <code>ConnectionPool</code>. The connection owns the
+ * <code>StatementCache</code> from which DAOs lease its statements, and closes the cached
+ * statements when it is closed. Every other call is passed to the underlying connection.
+ */
+public final class PooledConnection implements Connection {
+	private final @NotNull Connection connection;
+	private final @NotNull StatementCache statements;
+	
+	/**
+	 * Creates a <code>PooledConnection</code> object.
+	 *
+	 * @param connection The underlying database connection.
+	 * @param maxStatements The maximum number of idle statements to keep for the connection.
+	 */
+	PooledConnection(@NotNull Connection connection, int maxStatements) {
+		this.connection = connection;
+		this.statements = new StatementCache(connection, maxStatements);
+	}
+	
+	/**
+	 * @return The cache of the connection's compiled statements.
+	 */
+	public @NotNull StatementCache getStatementCache() {
+		return statements;
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		statements.clear();
+		connection.close();
+	}
+	
+	@Override
+	public boolean isClosed() throws SQLException {
+		return connection.isClosed();
+	}
+	
+	
+	
+	
+	// ** Transactions
+	
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws SQLException {
+		connection.setAutoCommit(autoCommit);
+	}
+	
+	@Override
+	public boolean getAutoCommit() throws SQLException {
+		return connection.getAutoCommit();
+	}
+	
+	@Override
+	public void commit() throws SQLException {
+		connection.commit();
+	}
+	
+	@Override
+	public void rollback() throws SQLException {
+		connection.rollback();
+	}
+	
+	@Override
+	public void rollback(Savepoint savepoint) throws SQLException {
+		connection.rollback(savepoint);
+	}
+	
+	@Override
+	public Savepoint setSavepoint() throws SQLException {
+		return connection.setSavepoint();
+	}
+	
+	@Override
+	public Savepoint setSavepoint(String name) throws SQLException {
+		return connection.setSavepoint(name);
+	}
+	
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		connection.releaseSavepoint(savepoint);
+	}
+	
+	@Override
+	public void setTransactionIsolation(int level) throws SQLException {
+		connection.setTransactionIsolation(level);
+	}
+	
+	@Override
+	public int getTransactionIsolation() throws SQLException {
+		return connection.getTransactionIsolation();
+	}
+	
+	
+	
+	
+	// ** Statements
+	
+	@Override
+	public Statement createStatement() throws SQLException {
+		return connection.createStatement();
+	}
+	
+	@Override
+	public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+		return connection.createStatement(resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public Statement createStatement(
+		int resultSetType,
+		int resultSetConcurrency,
+		int resultSetHoldability
+	) throws SQLException {
+		return connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return connection.prepareStatement(sql);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(
+		String sql,
+		int resultSetType,
+		int resultSetConcurrency
+	) throws SQLException {
+		return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(
+		String sql,
+		int resultSetType,
+		int resultSetConcurrency,
+		int resultSetHoldability
+	) throws SQLException {
+		return connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		return connection.prepareStatement(sql, autoGeneratedKeys);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+		return connection.prepareStatement(sql, columnIndexes);
+	}
+	
+	@Override
+	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+		return connection.prepareStatement(sql, columnNames);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(String sql) throws SQLException {
+		return connection.prepareCall(sql);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(
+		String sql,
+		int resultSetType,
+		int resultSetConcurrency
+	) throws SQLException {
+		return connection.prepareCall(sql, resultSetType, resultSetConcurrency);
+	}
+	
+	@Override
+	public CallableStatement prepareCall(
+		String sql,
+		int resultSetType,
+		int resultSetConcurrency,
+		int resultSetHoldability
+	) throws SQLException {
+		return connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+	
+	@Override
+	public String nativeSQL(String sql) throws SQLException {
+		return connection.nativeSQL(sql);
+	}
+	
+	
+	
+	
+	// ** Connection Properties
+	
+	@Override
+	public DatabaseMetaData getMetaData() throws SQLException {
+		return connection.getMetaData();
+	}
+	
+	@Override
+	public void setReadOnly(boolean readOnly) throws SQLException {
+		connection.setReadOnly(readOnly);
+	}
+	
+	@Override
+	public boolean isReadOnly() throws SQLException {
+		return connection.isReadOnly();
+	}
+	
+	@Override
+	public void setCatalog(String catalog) throws SQLException {
+		connection.setCatalog(catalog);
+	}
+	
+	@Override
+	public String getCatalog() throws SQLException {
+		return connection.getCatalog();
+	}
+	
+	@Override
+	public void setSchema(String schema) throws SQLException {
+		connection.setSchema(schema);
+	}
+	
+	@Override
+	public String getSchema() throws SQLException {
+		return connection.getSchema();
+	}
+	
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return connection.getWarnings();
+	}
+	
+	@Override
+	public void clearWarnings() throws SQLException {
+		connection.clearWarnings();
+	}
+	
+	@Override
+	public Map<String, Class<?>> getTypeMap() throws SQLException {
+		return connection.getTypeMap();
+	}
+	
+	@Override
+	public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+		connection.setTypeMap(map);
+	}
+	
+	@Override
+	public void setHoldability(int holdability) throws SQLException {
+		connection.setHoldability(holdability);
+	}
+	
+	@Override
+	public int getHoldability() throws SQLException {
+		return connection.getHoldability();
+	}
+	
+	@Override
+	public boolean isValid(int timeout) throws SQLException {
+		return connection.isValid(timeout);
+	}
+	
+	@Override
+	public void setClientInfo(String name, String value) throws SQLClientInfoException {
+		connection.setClientInfo(name, value);
+	}
+	
+	@Override
+	public void setClientInfo(Properties properties) throws SQLClientInfoException {
+		connection.setClientInfo(properties);
+	}
+	
+	@Override
+	public String getClientInfo(String name) throws SQLException {
+		return connection.getClientInfo(name);
+	}
+	
+	@Override
+	public Properties getClientInfo() throws SQLException {
+		return connection.getClientInfo();
+	}
+	
+	@Override
+	public void abort(Executor executor) throws SQLException {
+		statements.clear();
+		connection.abort(executor);
+	}
+	
+	@Override
+	public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+		connection.setNetworkTimeout(executor, milliseconds);
+	}
+	
+	@Override
+	public int getNetworkTimeout() throws SQLException {
+		return connection.getNetworkTimeout();
+	}
+	
+	
+	
+	
+	// ** Data Types
+	
+	@Override
+	public Clob createClob() throws SQLException {
+		return connection.createClob();
+	}
+	
+	@Override
+	public Blob createBlob() throws SQLException {
+		return connection.createBlob();
+	}
+	
+	@Override
+	public NClob createNClob() throws SQLException {
+		return connection.createNClob();
+	}
+	
+	@Override
+	public SQLXML createSQLXML() throws SQLException {
+		return connection.createSQLXML();
+	}
+	
+	@Override
+	public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+		return connection.createArrayOf(typeName, elements);
+	}
+	
+	@Override
+	public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+		return connection.createStruct(typeName, attributes);
+	}
+	
+	
+	
+	
+	// ** Wrapper
+	
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return iface.cast(this);
+		}
+		return connection.unwrap(iface);
+	}
+	
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || connection.isWrapperFor(iface);
+	}
+}
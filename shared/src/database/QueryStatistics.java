@@ -0,0 +1,194 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Timings of the SQL statements and transactions run against the database, grouped by the
+ * statement's SQL string. Statements and transactions that take longer than the slow-query
+ * threshold are logged.
+ *
+ * Time spent in a statement is split into the time spent building model objects from result
+ * rows, the time spent by the caller consuming those objects (such as writing them to a client),
+ * and the rest, which is spent in SQLite.
+ */
+public class QueryStatistics {
+	public static final long DEFAULT_SLOW_QUERY_MILLIS = 100;
+	
+	private static final @NotNull QueryStatistics shared = new QueryStatistics();
+	
+	private final @NotNull ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+	private final @NotNull Shape readTransactions = new Shape();
+	private final @NotNull Shape writeTransactions = new Shape();
+	private volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_QUERY_MILLIS);
+	private volatile @NotNull Logger logger = Logger.getLogger(QueryStatistics.class.getName());
+	
+	/**
+	 * The timings of every statement with the same SQL string.
+	 */
+	public static final class Shape {
+		private final @NotNull LongAdder executions = new LongAdder();
+		private final @NotNull LongAdder rows = new LongAdder();
+		private final @NotNull LongAdder totalNanos = new LongAdder();
+		private final @NotNull LongAdder mappingNanos = new LongAdder();
+		private final @NotNull LongAdder consumerNanos = new LongAdder();
+		private final @NotNull LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		
+		private void record(long nanos, long mapping, long consumer, long rowCount) {
+			executions.increment();
+			rows.add(rowCount);
+			totalNanos.add(nanos);
+			mappingNanos.add(mapping);
+			consumerNanos.add(consumer);
+			maxNanos.accumulate(nanos);
+		}
+		
+		/**
+		 * @return The number of times the statement was run.
+		 */
+		public long getExecutions() {
+			return executions.sum();
+		}
+		
+		/**
+		 * @return The number of rows the statement read or changed, across every run.
+		 */
+		public long getRows() {
+			return rows.sum();
+		}
+		
+		/**
+		 * @return The total time, in nanoseconds, spent running the statement.
+		 */
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+		
+		/**
+		 * @return The part of the total time spent building model objects from result rows.
+		 */
+		public long getMappingNanos() {
+			return mappingNanos.sum();
+		}
+		
+		/**
+		 * @return The part of the total time spent by callers consuming each model object.
+		 */
+		public long getConsumerNanos() {
+			return consumerNanos.sum();
+		}
+		
+		/**
+		 * @return The part of the total time spent in SQLite.
+		 */
+		public long getDatabaseNanos() {
+			return getTotalNanos() - getMappingNanos() - getConsumerNanos();
+		}
+		
+		/**
+		 * @return The longest time, in nanoseconds, that a single run took.
+		 */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+	}
+	
+	/**
+	 * @return The statistics that every <code>Dao</code> and <code>Database</code> report to.
+	 */
+	public static @NotNull QueryStatistics getShared() {
+		return shared;
+	}
+	
+	/**
+	 * Sets how long a statement or transaction may take before it is logged.
+	 *
+	 * @param millis The threshold in milliseconds, or a negative number to log nothing.
+	 */
+	public void setSlowQueryThresholdMillis(long millis) {
+		this.slowQueryNanos = millis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+	
+	public void setLogger(@NotNull Logger logger) {
+		this.logger = logger;
+	}
+	
+	/**
+	 * Records one run of a statement.
+	 *
+	 * @param sql The statement's SQL string, with placeholders for its parameters.
+	 * @param nanos The time the statement took, including mapping and consuming its results.
+	 * @param mappingNanos The part of <code>nanos</code> spent building model objects.
+	 * @param consumerNanos The part of <code>nanos</code> spent by the caller consuming them.
+	 * @param rows The number of rows read or changed.
+	 * @param parameters A description of the statement's bound parameters, which is logged if
+	 *                   the statement was slow.
+	 */
+	public void recordStatement(
+		@NotNull String sql,
+		long nanos,
+		long mappingNanos,
+		long consumerNanos,
+		long rows,
+		@NotNull String parameters
+	) {
+		shapes.computeIfAbsent(sql, key -> new Shape())
+			.record(nanos, mappingNanos, consumerNanos, rows);
+		
+		if (nanos >= slowQueryNanos) {
+			logger.log(Level.WARNING, "Slow query took {0} ms ({1} rows, {2} ms mapping, {3} ms consuming): {4} with {5}",
+				new Object[] { millis(nanos), rows, millis(mappingNanos), millis(consumerNanos), sql, parameters }
+			);
+		}
+	}
+	
+	/**
+	 * Records one transaction, from the moment its connection was leased until it was committed
+	 * or rolled back.
+	 *
+	 * @param readOnly Whether the transaction was read-only.
+	 * @param nanos The time the transaction took.
+	 */
+	public void recordTransaction(boolean readOnly, long nanos) {
+		(readOnly ? readTransactions : writeTransactions).record(nanos, 0, 0, 0);
+		
+		if (nanos >= slowQueryNanos) {
+			logger.log(Level.WARNING, "Slow {0} transaction took {1} ms",
+				new Object[] { readOnly ? "read" : "write", millis(nanos) }
+			);
+		}
+	}
+	
+	/**
+	 * @return The timings of each statement, keyed by SQL string, in alphabetical order.
+	 */
+	public @NotNull Map<String, Shape> getStatements() {
+		return new TreeMap<>(shapes);
+	}
+	
+	/**
+	 * @return The timings of read-only transactions. Only executions and times are counted.
+	 */
+	public @NotNull Shape getReadTransactions() {
+		return readTransactions;
+	}
+	
+	/**
+	 * @return The timings of write transactions. Only executions and times are counted.
+	 */
+	public @NotNull Shape getWriteTransactions() {
+		return writeTransactions;
+	}
+	
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+}
@@ -0,0 +1,87 @@
+package database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatisticsTest {
+	private static final String SQL = "SELECT * FROM Person WHERE id = ?;";
+	
+	private QueryStatistics statistics;
+	private List<LogRecord> logged;
+	
+	@BeforeEach
+	void setUp() {
+		statistics = new QueryStatistics();
+		logged = new ArrayList<>();
+		
+		Logger logger = Logger.getAnonymousLogger();
+		logger.setUseParentHandlers(false);
+		logger.addHandler(new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				logged.add(record);
+			}
+			
+			@Override
+			public void flush() {}
+			
+			@Override
+			public void close() {}
+		});
+		statistics.setLogger(logger);
+	}
+	
+	@Test
+	void testRecordStatement_groupsBySql() {
+		statistics.recordStatement(SQL, 1_000, 200, 300, 1, "id=a");
+		statistics.recordStatement(SQL, 3_000, 400, 0, 2, "id=b");
+		
+		QueryStatistics.Shape shape = statistics.getStatements().get(SQL);
+		assertNotNull(shape);
+		assertEquals(2, shape.getExecutions());
+		assertEquals(3, shape.getRows());
+		assertEquals(4_000, shape.getTotalNanos());
+		assertEquals(600, shape.getMappingNanos());
+		assertEquals(300, shape.getConsumerNanos());
+		assertEquals(3_100, shape.getDatabaseNanos());
+		assertEquals(3_000, shape.getMaxNanos());
+	}
+	
+	@Test
+	void testRecordStatement_logsSlowStatementsWithParameters() {
+		statistics.setSlowQueryThresholdMillis(1);
+		statistics.recordStatement(SQL, 500_000, 0, 0, 1, "id=fast");
+		assertTrue(logged.isEmpty());
+		
+		statistics.recordStatement(SQL, 2_000_000, 0, 0, 1, "id=slow");
+		assertEquals(1, logged.size());
+		assertEquals(SQL, logged.get(0).getParameters()[4]);
+		assertEquals("id=slow", logged.get(0).getParameters()[5]);
+	}
+	
+	@Test
+	void testSetSlowQueryThreshold_negativeDisablesLogging() {
+		statistics.setSlowQueryThresholdMillis(-1);
+		statistics.recordStatement(SQL, Long.MAX_VALUE / 2, 0, 0, 1, "id=a");
+		statistics.recordTransaction(false, Long.MAX_VALUE / 2);
+		assertTrue(logged.isEmpty());
+	}
+	
+	@Test
+	void testRecordTransaction_separatesReadsFromWrites() {
+		statistics.recordTransaction(true, 10);
+		statistics.recordTransaction(false, 20);
+		statistics.recordTransaction(false, 30);
+		assertEquals(1, statistics.getReadTransactions().getExecutions());
+		assertEquals(2, statistics.getWriteTransactions().getExecutions());
+		assertEquals(50, statistics.getWriteTransactions().getTotalNanos());
+	}
+}
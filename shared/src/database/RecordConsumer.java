@@ -0,0 +1,15 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Receives records one at a time as they are read from the database.
+ *
+ * @param <T> The type of record.
+ */
+@FunctionalInterface
+public interface RecordConsumer<T> {
+	public void accept(@NotNull T record) throws IOException;
+}
@@ -0,0 +1,161 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The compiled statements of one database connection, keyed by SQL string, so that statements
+ * run again and again need only be prepared once.
+ *
+ * Each connection opened by a <code>ConnectionPool</code> owns a cache, and closes the cache's
+ * statements along with itself. Connections that did not come from a pool get no cache, and
+ * their statements are closed as soon as they are released.
+ */
+public class StatementCache {
+	public static final int DEFAULT_MAX_SIZE = 64;
+	
+	private final @NotNull Connection connection;
+	private final int maxSize;
+	private final @NotNull LinkedHashMap<String, PreparedStatement> idleStatements;
+	
+	/**
+	 * A statement leased from a <code>StatementCache</code>. Close the lease, rather than the
+	 * statement, to return the statement to the cache.
+	 */
+	public final class Lease implements AutoCloseable {
+		private final @NotNull String sql;
+		private final @NotNull PreparedStatement statement;
+		
+		private Lease(@NotNull String sql, @NotNull PreparedStatement statement) {
+			this.sql = sql;
+			this.statement = statement;
+		}
+		
+		public @NotNull PreparedStatement getStatement() {
+			return statement;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			release(sql, statement);
+		}
+	}
+	
+	/**
+	 * Creates a <code>StatementCache</code> object.
+	 *
+	 * @param connection The connection on which to prepare statements.
+	 * @param maxSize The maximum number of idle statements to keep. The least recently used
+	 *                statements are closed to make room for new ones. If this is 0, then no
+	 *                statements are kept.
+	 */
+	public StatementCache(@NotNull Connection connection, int maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException("Cache size must be positive or 0");
+		}
+		this.connection = connection;
+		this.maxSize = maxSize;
+		this.idleStatements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() <= StatementCache.this.maxSize) {
+					return false;
+				}
+				closeQuietly(eldest.getValue());
+				return true;
+			}
+		};
+	}
+	
+	/**
+	 * Gets the cache owned by the given connection. If the connection did not come from a
+	 * <code>ConnectionPool</code>, then the returned cache keeps no statements.
+	 *
+	 * @param connection The connection whose statements to cache.
+	 * @return The connection's statement cache.
+	 */
+	public static @NotNull StatementCache forConnection(@NotNull Connection connection) {
+		if (connection instanceof PooledConnection) {
+			return ((PooledConnection) connection).getStatementCache();
+		}
+		return new StatementCache(connection, 0);
+	}
+	
+	/**
+	 * Leases a prepared statement for the given SQL string, preparing a new statement only if
+	 * there is no idle one in the cache. If the statement is already leased, then a separate
+	 * statement is prepared, so leases may be nested.
+	 *
+	 * @param sql The SQL string to prepare.
+	 * @return A lease on the statement. Close it to return the statement.
+	 * @throws SQLException An exception if the statement could not be prepared.
+	 */
+	public @NotNull Lease lease(@NotNull String sql) throws SQLException {
+		PreparedStatement statement;
+		synchronized (idleStatements) {
+			statement = idleStatements.remove(sql);
+		}
+		if (statement == null || statement.isClosed()) {
+			statement = connection.prepareStatement(sql);
+		}
+		return new Lease(sql, statement);
+	}
+	
+	private void release(@NotNull String sql, @NotNull PreparedStatement statement) throws SQLException {
+		if (maxSize == 0 || statement.isClosed()) {
+			statement.close();
+			return;
+		}
+		try {
+			statement.clearBatch();
+		} catch (SQLException e) {
+			statement.close();
+			throw e;
+		}
+		
+		PreparedStatement displaced;
+		synchronized (idleStatements) {
+			displaced = idleStatements.putIfAbsent(sql, statement);
+		}
+		if (displaced != null) {
+			// A nested lease already returned an identical statement.
+			statement.close();
+		}
+	}
+	
+	/**
+	 * @return The number of idle statements in the cache.
+	 */
+	public int getSize() {
+		synchronized (idleStatements) {
+			return idleStatements.size();
+		}
+	}
+	
+	/**
+	 * Closes every idle statement in the cache.
+	 */
+	public void clear() {
+		synchronized (idleStatements) {
+			Iterator<PreparedStatement> statements = idleStatements.values().iterator();
+			while (statements.hasNext()) {
+				closeQuietly(statements.next());
+				statements.remove();
+			}
+		}
+	}
+	
+	private static void closeQuietly(@NotNull PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+	private static final String SQL = "SELECT 1";
+	
+	private ConnectionPool pool;
+	private Connection conn;
+	
+	@BeforeEach
+	void setUp() throws DataAccessException {
+		pool = new ConnectionPool("jdbc:sqlite::memory:", 1, 0);
+		conn = pool.checkout();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		pool.release(conn);
+		pool.close();
+	}
+	
+	@Test
+	void testLease_reusesReleasedStatement() throws SQLException {
+		StatementCache cache = StatementCache.forConnection(conn);
+		assertSame(cache, StatementCache.forConnection(conn));
+		
+		PreparedStatement first;
+		try (StatementCache.Lease lease = cache.lease(SQL)) {
+			first = lease.getStatement();
+		}
+		assertEquals(1, cache.getSize());
+		try (StatementCache.Lease lease = cache.lease(SQL)) {
+			assertSame(first, lease.getStatement());
+		}
+	}
+	
+	@Test
+	void testForConnection_returnsCacheOwnedByPooledConnection() {
+		assertTrue(conn instanceof PooledConnection);
+		assertSame(((PooledConnection) conn).getStatementCache(), StatementCache.forConnection(conn));
+	}
+	
+	@Test
+	void testLease_preparesSeparateStatementWhenNested() throws SQLException {
+		StatementCache cache = StatementCache.forConnection(conn);
+		try (StatementCache.Lease outer = cache.lease(SQL);
+			 StatementCache.Lease inner = cache.lease(SQL)
+		) {
+			assertNotSame(outer.getStatement(), inner.getStatement());
+		}
+		assertEquals(1, cache.getSize());
+	}
+	
+	@Test
+	void testRelease_closesStatementsOfUnpooledConnections() throws SQLException {
+		Connection unpooled = DriverManager.getConnection("jdbc:sqlite::memory:");
+		try {
+			StatementCache cache = StatementCache.forConnection(unpooled);
+			PreparedStatement statement;
+			try (StatementCache.Lease lease = cache.lease(SQL)) {
+				statement = lease.getStatement();
+			}
+			assertTrue(statement.isClosed());
+			assertEquals(0, cache.getSize());
+		} finally {
+			unpooled.close();
+		}
+	}
+	
+	@Test
+	void testClose_closesCachedStatements() throws SQLException {
+		PreparedStatement statement;
+		try (StatementCache.Lease lease = StatementCache.forConnection(conn).lease(SQL)) {
+			statement = lease.getStatement();
+		}
+		pool.release(conn);
+		pool.close();
+		assertTrue(statement.isClosed());
+		conn = null;
+	}
+}
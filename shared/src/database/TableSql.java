@@ -0,0 +1,165 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SQL strings that a <code>Dao</code> runs against one table, and the index of each column
+ * in them. Each DAO type builds one of these when its class is loaded, so that the strings, which
+ * also key the <code>StatementCache</code>, are not rebuilt for every query.
+ */
+public final class TableSql {
+	private final @NotNull String tableName;
+	private final @NotNull String columnList;
+	private final @NotNull Map<String, Integer> columnIndexes;
+	
+	private final @NotNull String insert;
+	private final @NotNull String insertIfNotExists;
+	private final @NotNull String update;
+	private final @NotNull String count;
+	private final @NotNull String delete;
+	private final @NotNull String clearAll;
+	
+	// Statements that filter on a column, keyed by column
+	private final @NotNull Map<String, String> selectWhere = new ConcurrentHashMap<>();
+	private final @NotNull Map<String, String> deleteWhere = new ConcurrentHashMap<>();
+	
+	/**
+	 * Creates a <code>TableSql</code> object.
+	 *
+	 * @param table The table that the statements read and write.
+	 * @param columns The names of the table's columns, in the order that a DAO binds them.
+	 */
+	public TableSql(@NotNull IDatabaseTable table, @NotNull List<String> columns) {
+		this.tableName = table.getName();
+		this.columnList = String.join(", ", columns);
+		
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int idx = 0; idx < columns.size(); idx++) {
+			columnIndexes.put(columns.get(idx), idx + 1);
+		}
+		this.columnIndexes = Collections.unmodifiableMap(columnIndexes);
+		
+		StringBuilder insert = new StringBuilder("INSERT INTO ")
+			.append(tableName)
+			.append(" (")
+			.append(columnList)
+			.append(") VALUES(");
+		for (int idx = 0; idx < columns.size(); idx++) {
+			if (idx > 0) {
+				insert.append(",");
+			}
+			insert.append("?");
+		}
+		insert.append(")");
+		this.insert = insert.toString();
+		this.insertIfNotExists = insert + " ON CONFLICT(" + table.getPrimaryKey() + ") DO NOTHING";
+		
+		StringBuilder update = new StringBuilder("UPDATE ")
+			.append(tableName)
+			.append(" SET ");
+		for (int idx = 0; idx < columns.size(); idx++) {
+			if (idx > 0) {
+				update.append(", ");
+			}
+			update.append(columns.get(idx)).append(" = ?");
+		}
+		this.update = update.append(" WHERE ")
+			.append(table.getPrimaryKey())
+			.append(" = ?")
+			.toString();
+		
+		this.count = "SELECT COUNT(DISTINCT " + table.getPrimaryKey() + ") FROM " + tableName;
+		this.delete = "DELETE FROM " + tableName + " WHERE " + table.getPrimaryKey() + " = ?;";
+		this.clearAll = "DELETE FROM " + tableName;
+	}
+	
+	/**
+	 * Finds the position of the given column in the statements' column lists. This is the index
+	 * of the column's parameter in an <code>INSERT</code> or <code>UPDATE</code>, and of its
+	 * value in a <code>SELECT</code> result.
+	 *
+	 * @param column The name of the column.
+	 * @return The column's index, numbered from 1.
+	 * @throws IllegalArgumentException If the table has no such column.
+	 */
+	public int indexOf(@NotNull String column) {
+		Integer index = columnIndexes.get(column);
+		if (index == null) {
+			throw new IllegalArgumentException("No such column: " + column);
+		}
+		return index;
+	}
+	
+	/**
+	 * @return An <code>INSERT</code> statement for the table's columns.
+	 */
+	public @NotNull String insert() {
+		return insert;
+	}
+	
+	/**
+	 * @return An <code>INSERT</code> statement that skips records whose primary key is already
+	 * in the table.
+	 */
+	public @NotNull String insertIfNotExists() {
+		return insertIfNotExists;
+	}
+	
+	/**
+	 * @return An <code>UPDATE</code> statement that overwrites every column of the record with a
+	 * matching primary key. Columns are bound in the same order as an <code>INSERT</code>, and the
+	 * primary key is bound once more after them.
+	 */
+	public @NotNull String update() {
+		return update;
+	}
+	
+	/**
+	 * @return A statement that counts the records in the table.
+	 */
+	public @NotNull String count() {
+		return count;
+	}
+	
+	/**
+	 * @return A <code>DELETE</code> statement for the record with a given primary key.
+	 */
+	public @NotNull String delete() {
+		return delete;
+	}
+	
+	/**
+	 * @return A <code>DELETE</code> statement for every record in the table.
+	 */
+	public @NotNull String clearAll() {
+		return clearAll;
+	}
+	
+	/**
+	 * @param column The column by which to filter records.
+	 * @return A <code>SELECT</code> statement that reads the table's columns, in order, from each
+	 * record with a given value in the given column.
+	 */
+	public @NotNull String selectWhere(@NotNull String column) {
+		return selectWhere.computeIfAbsent(column, key ->
+			"SELECT " + columnList + " FROM " + tableName + " WHERE " + key + " = ?;"
+		);
+	}
+	
+	/**
+	 * @param column The column by which to filter records.
+	 * @return A <code>DELETE</code> statement for every record with a given value in the given
+	 * column.
+	 */
+	public @NotNull String deleteWhere(@NotNull String column) {
+		return deleteWhere.computeIfAbsent(column, key ->
+			"DELETE FROM " + tableName + " WHERE " + key + " = ?;"
+		);
+	}
+}
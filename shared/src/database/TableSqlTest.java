@@ -0,0 +1,45 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableSqlTest {
+	private static final IDatabaseTable TABLE = new IDatabaseTable() {
+		@Override
+		public @NotNull String getName() {
+			return "Thing";
+		}
+		
+		@Override
+		public @NotNull String getPrimaryKey() {
+			return "id";
+		}
+	};
+	
+	private final TableSql sql = new TableSql(TABLE, Arrays.asList("id", "name", "owner"));
+	
+	@Test
+	void testIndexOf_numbersColumnsFromOne() {
+		assertEquals(1, sql.indexOf("id"));
+		assertEquals(3, sql.indexOf("owner"));
+		assertThrows(IllegalArgumentException.class, () -> sql.indexOf("missing"));
+	}
+	
+	@Test
+	void testStatements_listColumnsInOrder() {
+		assertEquals("INSERT INTO Thing (id, name, owner) VALUES(?,?,?)", sql.insert());
+		assertEquals("INSERT INTO Thing (id, name, owner) VALUES(?,?,?) ON CONFLICT(id) DO NOTHING", sql.insertIfNotExists());
+		assertEquals("UPDATE Thing SET id = ?, name = ?, owner = ? WHERE id = ?", sql.update());
+		assertEquals("SELECT id, name, owner FROM Thing WHERE owner = ?;", sql.selectWhere("owner"));
+	}
+	
+	@Test
+	void testSelectWhere_reusesStringForSameColumn() {
+		assertSame(sql.selectWhere("owner"), sql.selectWhere("owner"));
+		assertSame(sql.deleteWhere("owner"), sql.deleteWhere("owner"));
+	}
+}
@@ -0,0 +1,31 @@
+package model;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import transport.JSONEncoder;
+
+import java.io.IOException;
+
+public class EventCoder extends JSONEncoder<Event> {
+	
+	public EventCoder() {
+		super(Event.class);
+	}
+	
+	@Override
+	protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull Event event) throws IOException {
+		out.beginObject();
+		out.name("eventID").value(event.getEventID());
+		out.name("associatedUsername").value(event.getAssociatedUsername());
+		out.name("personID").value(event.getPersonID());
+		out.name("latitude").value(event.getLatitude());
+		out.name("longitude").value(event.getLongitude());
+		out.name("country").value(event.getCountry());
+		out.name("city").value(event.getCity());
+		out.name("eventType").value(event.getEventType());
+		out.name("year").value(event.getYear());
+		out.endObject();
+	}
+	
+}
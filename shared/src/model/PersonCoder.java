@@ -0,0 +1,30 @@
+package model;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import transport.JSONEncoder;
+
+import java.io.IOException;
+
+public class PersonCoder extends JSONEncoder<Person> {
+	
+	public PersonCoder() {
+		super(Person.class);
+	}
+	
+	@Override
+	protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull Person person) throws IOException {
+		out.beginObject();
+		out.name("personID").value(person.getPersonID());
+		out.name("associatedUsername").value(person.getAssociatedUsername());
+		out.name("firstName").value(person.getFirstName());
+		out.name("lastName").value(person.getLastName());
+		out.name("gender").value(person.getGender().getValue());
+		out.name("fatherID").value(person.getFatherID());
+		out.name("motherID").value(person.getMotherID());
+		out.name("spouseID").value(person.getSpouseID());
+		out.endObject();
+	}
+	
+}
@@ -0,0 +1,29 @@
+package model;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import transport.JSONEncoder;
+
+import java.io.IOException;
+
+public class UserCoder extends JSONEncoder<User> {
+	
+	public UserCoder() {
+		super(User.class);
+	}
+	
+	@Override
+	protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull User user) throws IOException {
+		out.beginObject();
+		out.name("userName").value(user.getUserName());
+		out.name("password").value(user.getPassword());
+		out.name("email").value(user.getEmail());
+		out.name("firstName").value(user.getFirstName());
+		out.name("lastName").value(user.getLastName());
+		out.name("gender").value(user.getGender().getValue());
+		out.name("personID").value(user.getPersonID());
+		out.endObject();
+	}
+	
+}
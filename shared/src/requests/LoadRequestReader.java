@@ -0,0 +1,105 @@
+package requests;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import model.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import transport.JSONSerialization;
+import transport.MissingKeyException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the entries of a <code>LoadRequest</code> payload one at a time, without holding the
+ * whole payload in memory.
+ */
+public class LoadRequestReader implements Closeable {
+	private final @NotNull JsonReader reader;
+	private @Nullable Class<? extends JSONSerialization> currentType = null;
+	private boolean started = false;
+	private boolean finished = false;
+	
+	/**
+	 * Creates a <code>LoadRequestReader</code> object.
+	 *
+	 * @param in The source of the JSON payload.
+	 */
+	public LoadRequestReader(@NotNull Reader in) {
+		this.reader = new JsonReader(in);
+	}
+	
+	/**
+	 * Reads the next entry from the payload. Entries are returned in the order they appear.
+	 *
+	 * @return The next <code>User</code>, <code>Person</code> or <code>Event</code>, or
+	 * <code>null</code> once the whole payload has been read.
+	 * @throws IOException An exception if the payload could not be read.
+	 * @throws JsonParseException An exception if the payload is not valid JSON, or is not shaped
+	 * like a <code>LoadRequest</code>.
+	 * @throws MissingKeyException An exception if an entry is missing a required value.
+	 */
+	public @Nullable ModelData next() throws IOException, JsonParseException, MissingKeyException {
+		if (finished) {
+			return null;
+		}
+		
+		try {
+			if (!started) {
+				reader.beginObject();
+				started = true;
+			}
+			
+			while (true) {
+				if (currentType != null) {
+					if (reader.hasNext()) {
+						return (ModelData) JSONSerialization.readJson(reader, currentType);
+					}
+					reader.endArray();
+					currentType = null;
+				}
+				
+				if (!reader.hasNext()) {
+					reader.endObject();
+					finished = true;
+					return null;
+				}
+				
+				Class<? extends JSONSerialization> type = typeForKey(reader.nextName());
+				if (type == null || reader.peek() == JsonToken.NULL) {
+					reader.skipValue();
+					continue;
+				}
+				reader.beginArray();
+				currentType = type;
+			}
+			
+		} catch (MalformedJsonException | EOFException | IllegalStateException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+	
+	private static @Nullable Class<? extends JSONSerialization> typeForKey(@NotNull String key) {
+		switch (key) {
+			case "users":
+				return User.class;
+			case "persons":
+				return Person.class;
+			case "events":
+				return Event.class;
+			default:
+				return null;
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
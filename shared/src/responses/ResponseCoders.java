@@ -0,0 +1,128 @@
+package responses;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import transport.JSONEncoder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written JSON encoders for the response types.
+ */
+public final class ResponseCoders {
+	private ResponseCoders() {}
+	
+	/**
+	 * @return An encoder for each response type.
+	 */
+	public static @NotNull List<JSONEncoder<?>> all() {
+		return Collections.unmodifiableList(Arrays.asList(
+			new MessageResponseCoder(),
+			new LoginResponseCoder(),
+			new FetchSinglePersonResponseCoder(),
+			new FetchSingleEventResponseCoder(),
+			new FetchMultipleItemsResponseCoder()
+		));
+	}
+	
+	public static class MessageResponseCoder extends JSONEncoder<MessageResponse> {
+		public MessageResponseCoder() {
+			super(MessageResponse.class);
+		}
+		
+		@Override
+		protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull MessageResponse response) throws IOException {
+			out.beginObject();
+			out.name("message").value(response.getMessage());
+			out.name("success").value(response.isSuccessful());
+			out.endObject();
+		}
+	}
+	
+	public static class LoginResponseCoder extends JSONEncoder<LoginResponse> {
+		public LoginResponseCoder() {
+			super(LoginResponse.class);
+		}
+		
+		@Override
+		protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull LoginResponse response) throws IOException {
+			out.beginObject();
+			out.name("authToken").value(response.getAuthToken());
+			out.name("userName").value(response.getUserName());
+			out.name("personID").value(response.getPersonID());
+			out.name("success").value(response.isSuccessful());
+			out.endObject();
+		}
+	}
+	
+	public static class FetchSinglePersonResponseCoder extends JSONEncoder<FetchSinglePersonResponse> {
+		public FetchSinglePersonResponseCoder() {
+			super(FetchSinglePersonResponse.class);
+		}
+		
+		@Override
+		protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull FetchSinglePersonResponse response) throws IOException {
+			out.beginObject();
+			out.name("associatedUsername").value(response.getAssociatedUsername());
+			out.name("personID").value(response.getPersonID());
+			out.name("firstName").value(response.getFirstName());
+			out.name("lastName").value(response.getLastName());
+			out.name("gender").value(response.getGender().getValue());
+			out.name("fatherID").value(response.getFatherID());
+			out.name("motherID").value(response.getMotherID());
+			out.name("spouseID").value(response.getSpouseID());
+			out.name("success").value(response.isSuccessful());
+			out.endObject();
+		}
+	}
+	
+	public static class FetchSingleEventResponseCoder extends JSONEncoder<FetchSingleEventResponse> {
+		public FetchSingleEventResponseCoder() {
+			super(FetchSingleEventResponse.class);
+		}
+		
+		@Override
+		protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull FetchSingleEventResponse response) throws IOException {
+			out.beginObject();
+			out.name("associatedUsername").value(response.getAssociatedUsername());
+			out.name("eventID").value(response.getEventID());
+			out.name("personID").value(response.getPersonID());
+			out.name("latitude").value(response.getLatitude());
+			out.name("longitude").value(response.getLongitude());
+			out.name("country").value(response.getCountry());
+			out.name("city").value(response.getCity());
+			out.name("eventType").value(response.getEventType());
+			out.name("year").value(response.getYear());
+			out.name("success").value(response.isSuccessful());
+			out.endObject();
+		}
+	}
+	
+	@SuppressWarnings("rawtypes")
+	public static class FetchMultipleItemsResponseCoder extends JSONEncoder<FetchMultipleItemsResponse> {
+		public FetchMultipleItemsResponseCoder() {
+			super(FetchMultipleItemsResponse.class);
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		protected void write(@NotNull Gson gson, @NotNull JsonWriter out, @NotNull FetchMultipleItemsResponse response) throws IOException {
+			out.beginObject();
+			out.name("data").beginArray();
+			for (Object item : response.getData()) {
+				if (item == null) {
+					out.nullValue();
+				} else {
+					gson.toJson(item, item.getClass(), out);
+				}
+			}
+			out.endArray();
+			out.name("success").value(response.isSuccessful());
+			out.endObject();
+		}
+	}
+}
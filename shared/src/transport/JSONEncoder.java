@@ -0,0 +1,65 @@
+package transport;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Writes objects of type <code>T</code> and its subclasses as JSON by hand, so that encoding
+ * them does not need reflection. Decoding is left to Gson's default adapter.
+ *
+ * Implementations must write the same keys, in the same order, that Gson would write for the
+ * object's fields: subclass fields first, then those of each superclass.
+ *
+ * @param <T> The type of object to encode.
+ */
+public abstract class JSONEncoder<T> implements TypeAdapterFactory {
+	private final @NotNull Class<T> type;
+	
+	protected JSONEncoder(@NotNull Class<T> type) {
+		this.type = type;
+	}
+	
+	/**
+	 * Writes the given <code>value</code> as a JSON object.
+	 *
+	 * @param gson The serializer, for writing nested values.
+	 * @param out The writer that receives the JSON.
+	 * @param value The object to write.
+	 * @throws IOException An exception if there was a problem writing to the writer.
+	 */
+	protected abstract void write(
+		@NotNull Gson gson,
+		@NotNull JsonWriter out,
+		@NotNull T value
+	) throws IOException;
+	
+	@Override
+	public <R> TypeAdapter<R> create(Gson gson, TypeToken<R> typeToken) {
+		if (!type.isAssignableFrom(typeToken.getRawType())) {
+			return null;
+		}
+		TypeAdapter<R> delegate = gson.getDelegateAdapter(this, typeToken);
+		return new TypeAdapter<R>() {
+			@Override
+			public void write(JsonWriter out, R value) throws IOException {
+				if (value == null) {
+					out.nullValue();
+					return;
+				}
+				JSONEncoder.this.write(gson, out, type.cast(value));
+			}
+			
+			@Override
+			public R read(JsonReader in) throws IOException {
+				return delegate.read(in);
+			}
+		};
+	}
+}
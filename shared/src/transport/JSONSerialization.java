@@ -1,9 +1,15 @@
 package transport;
 
+import model.EventCoder;
 import model.Gender;
 import model.GenderCoder;
+import model.PersonCoder;
+import model.UserCoder;
 import org.jetbrains.annotations.NotNull;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import responses.ResponseCoders;
 
 /**
  * Objects that inherit from this type can be easily converted into a JSON string.
@@ -11,11 +17,27 @@ import com.google.gson.*;
  * This class also includes a static <code>fromJson</code> helper to instantiate objects of arbitrary types from JSON data.
  */
 public abstract class JSONSerialization implements HTTPSerialization {
-	private static @NotNull Gson getGson() {
-		return new GsonBuilder()
+	/**
+	 * The serializer shared by every caller. <code>Gson</code> instances are thread-safe, and
+	 * building one is far more expensive than using it.
+	 */
+	private static final @NotNull Gson GSON = createGson();
+	
+	private static @NotNull Gson createGson() {
+		GsonBuilder builder = new GsonBuilder()
 			.registerTypeAdapter(Gender.class, new GenderCoder())
-			.serializeNulls()
-			.create();
+			.registerTypeAdapterFactory(new PersonCoder())
+			.registerTypeAdapterFactory(new EventCoder())
+			.registerTypeAdapterFactory(new UserCoder())
+			.serializeNulls();
+		for (JSONEncoder<?> encoder : ResponseCoders.all()) {
+			builder.registerTypeAdapterFactory(encoder);
+		}
+		return builder.create();
+	}
+	
+	private static @NotNull Gson getGson() {
+		return GSON;
 	}
 	
 	/**
@@ -26,6 +48,18 @@ public abstract class JSONSerialization implements HTTPSerialization {
 		return gson.toJson(this);
 	}
 	
+	/**
+	 * Writes the JSON representation of the given <code>value</code> to the given
+	 * <code>writer</code>, using the same settings as <code>toJson</code>.
+	 *
+	 * @param value The object to write.
+	 * @param writer The writer that receives the JSON.
+	 * @throws JsonIOException An exception if there was a problem writing to the writer.
+	 */
+	public static void writeJson(@NotNull Object value, @NotNull JsonWriter writer) throws JsonIOException {
+		getGson().toJson(value, value.getClass(), writer);
+	}
+	
 	@Override
 	public @NotNull String serialize() {
 		return toJson();
@@ -60,6 +94,29 @@ public abstract class JSONSerialization implements HTTPSerialization {
 		return result;
 	}
 	
+	/**
+	 * Reads an instance of <code>T</code> from the next value of the given JSON reader.
+	 *
+	 * @param reader The reader, positioned at the start of an object.
+	 * @param typeOfT The type of object to instantiate.
+	 * @param <T> The type of object that will be instantiated.
+	 * @return A new instance of the given object type initialized with the values specified by the JSON fields.
+	 * @throws JsonParseException An exception if there was a problem parsing the JSON payload.
+	 * @throws MissingKeyException An exception if a value in the payload was found to be
+	 * <code>null</code>, but should not have been.
+	 */
+	public static <T extends JSONSerialization> @NotNull T readJson(
+		@NotNull JsonReader reader,
+		@NotNull Class<T> typeOfT
+	) throws JsonParseException, MissingKeyException {
+		T result = getGson().fromJson(reader, typeOfT);
+		if (result == null) {
+			throw new JsonSyntaxException("Expected an object, but found null");
+		}
+		result.assertCorrectDeserialization();
+		return result;
+	}
+	
 	/**
 	 * Called by <code>JSONSerialization</code> after the object is initialized by deserializing a
 	 * JSON string. Throw an exception if any of the instance's values are <code>null</code> where
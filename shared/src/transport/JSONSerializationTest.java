@@ -0,0 +1,111 @@
+package transport;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import responses.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JSONSerializationTest {
+	/** Serializes objects the way <code>JSONSerialization</code> did before it had encoders. */
+	private Gson reflectiveGson;
+	private Person testPerson;
+	private Event testEvent;
+	
+	@BeforeEach
+	void setUp() {
+		reflectiveGson = new GsonBuilder()
+			.registerTypeAdapter(Gender.class, new GenderCoder())
+			.serializeNulls()
+			.create();
+		testPerson = new Person(
+			"person_a",
+			"test_user",
+			"Jöhn \"Quoted\"",
+			"Cena",
+			Gender.MALE,
+			"some_father",
+			null,
+			null
+		);
+		testEvent = new Event(
+			"event_a",
+			"test_user",
+			testPerson.getId(),
+			40.5,
+			null,
+			"United States",
+			null,
+			"birth",
+			1990
+		);
+	}
+	
+	private void assertMatchesReflectiveJson(JSONSerialization value) {
+		assertEquals(reflectiveGson.toJson(value), value.toJson());
+	}
+	
+	@Test
+	void testToJson_matchesReflectiveJsonForModels() {
+		assertMatchesReflectiveJson(testPerson);
+		assertMatchesReflectiveJson(testEvent);
+		assertMatchesReflectiveJson(new User(
+			"test_user",
+			"Pa$$w0rd",
+			"test.user@example.com",
+			"Test",
+			"User",
+			Gender.FEMALE,
+			null
+		));
+	}
+	
+	@Test
+	void testToJson_matchesReflectiveJsonForResponses() {
+		assertMatchesReflectiveJson(new MessageResponse("Hello\nthere", false));
+		assertMatchesReflectiveJson(new LoginResponse("token", "test_user", "person_a"));
+		assertMatchesReflectiveJson(new RegisterResponse("token", "test_user", "person_a"));
+		assertMatchesReflectiveJson(new FetchSinglePersonResponse(
+			testPerson.getAssociatedUsername(),
+			testPerson.getPersonID(),
+			testPerson.getFirstName(),
+			testPerson.getLastName(),
+			testPerson.getGender(),
+			testPerson.getFatherID(),
+			testPerson.getMotherID(),
+			testPerson.getSpouseID()
+		));
+		assertMatchesReflectiveJson(new FetchSingleEventResponse(
+			testEvent.getAssociatedUsername(),
+			testEvent.getEventID(),
+			testEvent.getPersonID(),
+			testEvent.getLatitude(),
+			testEvent.getLongitude(),
+			testEvent.getCountry(),
+			testEvent.getCity(),
+			testEvent.getEventType(),
+			testEvent.getYear()
+		));
+		assertMatchesReflectiveJson(new FetchMultiplePersonsResponse(Arrays.asList(testPerson, testPerson)));
+		assertMatchesReflectiveJson(new FetchMultipleEventsResponse(Arrays.asList(testEvent, null)));
+	}
+	
+	@Test
+	void testFromJson_readsEncodedModels() throws MissingKeyException {
+		assertEquals(testPerson, JSONSerialization.fromJson(testPerson.toJson(), Person.class));
+		assertEquals(testEvent, JSONSerialization.fromJson(testEvent.toJson(), Event.class));
+	}
+	
+	@Test
+	void testFromJson_stillReportsMissingKeys() {
+		assertThrows(
+			MissingKeyException.class,
+			() -> JSONSerialization.fromJson("{\"personID\":\"person_a\"}", Person.class)
+		);
+	}
+}
@@ -0,0 +1,21 @@
+package transport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Objects that inherit from this type can write their transportable representation directly
+ * to a stream, without first building it in memory.
+ */
+public interface StreamingSerialization extends HTTPSerialization {
+	/**
+	 * Writes the same payload that <code>serialize()</code> returns to the given stream, encoded
+	 * as UTF-8. The stream is flushed but not closed.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException An exception if the payload could not be produced or written.
+	 */
+	public void writeTo(@NotNull OutputStream out) throws IOException;
+}
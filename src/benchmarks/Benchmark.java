@@ -0,0 +1,90 @@
+package benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single operation to measure, along with the work that prepares for it and cleans up after
+ * it. <code>BenchmarkRunner</code> calls <code>setUp</code> once, then calls
+ * <code>operation</code> repeatedly, then calls <code>tearDown</code> once.
+ */
+public final class Benchmark {
+	
+	/**
+	 * A step of a benchmark.
+	 */
+	@FunctionalInterface
+	public interface Action {
+		void run() throws Exception;
+	}
+	
+	private static final Action NOTHING = () -> {};
+	
+	private final @NotNull String name;
+	private final @NotNull Map<String, String> params;
+	private final @NotNull Action setUp;
+	private final @NotNull Action operation;
+	private final @NotNull Action tearDown;
+	
+	/**
+	 * Creates a <code>Benchmark</code> object.
+	 *
+	 * @param name The benchmark's fully qualified name, such as
+	 *             <code>"benchmarks.DaoBenchmarks.find"</code>.
+	 * @param params The parameters that distinguish this benchmark from others of the same name.
+	 * @param setUp Prepares state for the operation. Not measured.
+	 * @param operation The operation to measure.
+	 * @param tearDown Releases the state made by <code>setUp</code>. Not measured.
+	 */
+	public Benchmark(
+		@NotNull String name,
+		@NotNull Map<String, String> params,
+		@NotNull Action setUp,
+		@NotNull Action operation,
+		@NotNull Action tearDown
+	) {
+		this.name = name;
+		this.params = Collections.unmodifiableMap(new LinkedHashMap<>(params));
+		this.setUp = setUp;
+		this.operation = operation;
+		this.tearDown = tearDown;
+	}
+	
+	/**
+	 * Creates a <code>Benchmark</code> with no parameters and no setup.
+	 *
+	 * @param name The benchmark's fully qualified name.
+	 * @param operation The operation to measure.
+	 */
+	public Benchmark(@NotNull String name, @NotNull Action operation) {
+		this(name, Collections.emptyMap(), NOTHING, operation, NOTHING);
+	}
+	
+	public @NotNull String getName() {
+		return name;
+	}
+	
+	public @NotNull Map<String, String> getParams() {
+		return params;
+	}
+	
+	public void setUp() throws Exception {
+		setUp.run();
+	}
+	
+	public void runOperation() throws Exception {
+		operation.run();
+	}
+	
+	public void tearDown() throws Exception {
+		tearDown.run();
+	}
+	
+	@Override
+	public String toString() {
+		return params.isEmpty() ? name : name + " " + params;
+	}
+}
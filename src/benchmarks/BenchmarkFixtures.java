@@ -0,0 +1,98 @@
+package benchmarks;
+
+import dao.DatabaseTable;
+import dao.UserDao;
+import database.DataAccessException;
+import database.Database;
+import model.Event;
+import model.Gender;
+import model.Person;
+import model.User;
+import org.jetbrains.annotations.NotNull;
+import utilities.NameGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by the benchmark suites.
+ */
+final class BenchmarkFixtures {
+	static final String USER_NAME = "bench_user";
+	static final String PASSWORD = "Pa$$w0rd";
+	
+	/**
+	 * Holds results of measured operations, so the JIT cannot skip the work that made them.
+	 */
+	static volatile Object sink;
+	
+	private BenchmarkFixtures() {}
+	
+	/**
+	 * Opens the benchmark database and removes all of its data.
+	 */
+	static @NotNull Database<DatabaseTable> emptyDatabase() throws DataAccessException {
+		Database<DatabaseTable> db = new Database<>(BenchmarkRunner.DATABASE_NAME, DatabaseTable.values());
+		db.clearTables();
+		return db;
+	}
+	
+	static @NotNull User user() {
+		return new User(
+			USER_NAME,
+			PASSWORD,
+			"bench.user@example.com",
+			"Bench",
+			"User",
+			Gender.FEMALE,
+			null
+		);
+	}
+	
+	/**
+	 * Adds the benchmark user to the given database.
+	 */
+	static void insertUser(@NotNull Database<DatabaseTable> db) throws DataAccessException {
+		db.runTransaction(conn -> {
+			new UserDao(conn).insert(user());
+			return true;
+		});
+	}
+	
+	/**
+	 * Creates persons that belong to the benchmark user.
+	 */
+	static @NotNull List<Person> persons(int count) {
+		List<Person> persons = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			persons.add(new Person(
+				NameGenerator.newObjectIdentifier(),
+				USER_NAME,
+				"First" + i,
+				"Last",
+				i % 2 == 0 ? Gender.MALE : Gender.FEMALE,
+				null,
+				null,
+				null
+			));
+		}
+		return persons;
+	}
+	
+	/**
+	 * Creates an event for the given person.
+	 */
+	static @NotNull Event event(@NotNull Person person, int index) {
+		return new Event(
+			NameGenerator.newObjectIdentifier(),
+			USER_NAME,
+			person.getId(),
+			40.0 + index % 90,
+			-111.0 + index % 180,
+			"United States",
+			"Provo",
+			"birth",
+			1900 + index % 120
+		);
+	}
+}
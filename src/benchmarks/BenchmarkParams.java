@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Parameter values given to the benchmark runner, such as <code>-p generations=1,4</code>.
+ */
+public final class BenchmarkParams {
+	private final @NotNull Map<String, List<String>> values = new HashMap<>();
+	
+	/**
+	 * Sets the values of a parameter from a command-line argument.
+	 *
+	 * @param argument An argument of the form <code>name=value1,value2</code>.
+	 * @throws IllegalArgumentException An exception if the argument has no <code>=</code>.
+	 */
+	public void parse(@NotNull String argument) {
+		int separator = argument.indexOf('=');
+		if (separator < 1) {
+			throw new IllegalArgumentException("Expected a parameter like name=value1,value2 but got '" + argument + "'");
+		}
+		values.put(
+			argument.substring(0, separator),
+			Arrays.asList(argument.substring(separator + 1).split(","))
+		);
+	}
+	
+	/**
+	 * @param name The parameter's name.
+	 * @param defaults The values to use if none were given.
+	 * @return The integer values of the named parameter.
+	 */
+	public @NotNull List<Integer> getInts(@NotNull String name, @NotNull Integer... defaults) {
+		List<String> given = values.get(name);
+		if (given == null) {
+			return Arrays.asList(defaults);
+		}
+		List<Integer> result = new ArrayList<>();
+		for (String value : given) {
+			result.add(Integer.parseInt(value.trim()));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,182 @@
+package benchmarks;
+
+import com.google.gson.GsonBuilder;
+import database.QueryStatistics;
+import org.jetbrains.annotations.NotNull;
+import server.Server;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the server's benchmarks and writes their results as JSON, in the same layout that
+ * JMH uses, so that results from different releases can be compared with the same tools.
+ *
+ * Each benchmark measures the average time of one operation. An iteration runs the operation
+ * repeatedly for a fixed time, and always at least once.
+ *
+ * Usage:
+ * <pre>
+ * java benchmarks.BenchmarkRunner [options] [name regex]
+ *   -wi &lt;count&gt;        Warmup iterations (default 3)
+ *   -i &lt;count&gt;         Measurement iterations (default 5)
+ *   -r &lt;seconds&gt;       Time per iteration (default 1)
+ *   -p name=v1,v2      Parameter values, such as -p generations=1,4,10
+ *   -rff &lt;file&gt;       Result file (default benchmark-results.json)
+ * </pre>
+ * Run it from the project directory, so the database schema files can be found.
+ */
+public class BenchmarkRunner {
+	/** The database file used by benchmarks that need one. It is cleared freely. */
+	public static final String DATABASE_NAME = "familymap_benchmarks.sqlite";
+	
+	private static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+	
+	/**
+	 * The z-score of a 99.9% confidence interval. Scores are reported with the half-width of
+	 * that interval, as JMH does.
+	 */
+	private static final double CONFIDENCE_Z = 3.291;
+	
+	private static final List<BenchmarkSuite> SUITES = Arrays.asList(
+		DaoBenchmarks::benchmarks,
+		FillBenchmarks::benchmarks,
+		LoadBenchmarks::benchmarks,
+		JSONBenchmarks::benchmarks,
+		HandlerBenchmarks::benchmarks,
+		IdGeneratorBenchmarks::benchmarks
+	);
+	
+	private int warmupIterations = 3;
+	private int measurementIterations = 5;
+	private long iterationNanos = TimeUnit.SECONDS.toNanos(1);
+	private @NotNull String resultFile = DEFAULT_RESULT_FILE;
+	private @NotNull Pattern filter = Pattern.compile(".*");
+	private final @NotNull BenchmarkParams params = new BenchmarkParams();
+	
+	public static void main(String[] args) throws Exception {
+		// Per-request logging would dominate the measurements.
+		Server.logger.setLevel(Level.WARNING);
+		QueryStatistics.getShared().setSlowQueryThresholdMillis(-1);
+		
+		BenchmarkRunner runner = new BenchmarkRunner();
+		runner.parseArguments(args);
+		runner.run();
+	}
+	
+	private void parseArguments(@NotNull String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "-wi":
+					warmupIterations = Integer.parseInt(args[++i]);
+					break;
+				case "-i":
+					measurementIterations = Integer.parseInt(args[++i]);
+					break;
+				case "-r":
+					iterationNanos = TimeUnit.MILLISECONDS.toNanos((long) (Double.parseDouble(args[++i]) * 1000));
+					break;
+				case "-p":
+					params.parse(args[++i]);
+					break;
+				case "-rff":
+					resultFile = args[++i];
+					break;
+				default:
+					filter = Pattern.compile(arg);
+			}
+		}
+		if (measurementIterations < 1) {
+			throw new IllegalArgumentException("There must be at least one measurement iteration");
+		}
+	}
+	
+	private void run() throws Exception {
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (BenchmarkSuite suite : SUITES) {
+			for (Benchmark benchmark : suite.benchmarks(params)) {
+				if (filter.matcher(benchmark.getName()).find()) {
+					results.add(measure(benchmark));
+				}
+			}
+		}
+		
+		try (Writer writer = new FileWriter(resultFile)) {
+			new GsonBuilder().setPrettyPrinting().create().toJson(results, writer);
+		}
+		System.out.println("Wrote " + results.size() + " results to " + resultFile);
+	}
+	
+	private @NotNull Map<String, Object> measure(@NotNull Benchmark benchmark) throws Exception {
+		System.out.println("# " + benchmark);
+		List<Double> scores = new ArrayList<>();
+		
+		benchmark.setUp();
+		try {
+			for (int i = 0; i < warmupIterations; i++) {
+				double score = iteration(benchmark);
+				System.out.printf("  Warmup %d: %.3f us/op%n", i + 1, score);
+			}
+			for (int i = 0; i < measurementIterations; i++) {
+				double score = iteration(benchmark);
+				System.out.printf("  Iteration %d: %.3f us/op%n", i + 1, score);
+				scores.add(score);
+			}
+		} finally {
+			benchmark.tearDown();
+		}
+		
+		double mean = 0;
+		for (double score : scores) {
+			mean += score;
+		}
+		mean /= scores.size();
+		double variance = 0;
+		for (double score : scores) {
+			variance += (score - mean) * (score - mean);
+		}
+		double error = scores.size() > 1
+			? CONFIDENCE_Z * Math.sqrt(variance / (scores.size() - 1)) / Math.sqrt(scores.size())
+			: Double.NaN;
+		System.out.printf("  Result: %.3f +/- %.3f us/op%n", mean, error);
+		
+		Map<String, Object> metric = new LinkedHashMap<>();
+		metric.put("score", mean);
+		metric.put("scoreError", Double.isNaN(error) ? "NaN" : error);
+		metric.put("scoreUnit", "us/op");
+		metric.put("rawData", Collections.singletonList(scores));
+		
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("benchmark", benchmark.getName());
+		result.put("mode", "avgt");
+		result.put("threads", 1);
+		result.put("warmupIterations", warmupIterations);
+		result.put("measurementIterations", measurementIterations);
+		result.put("params", benchmark.getParams());
+		result.put("primaryMetric", metric);
+		return result;
+	}
+	
+	/**
+	 * Runs the benchmark's operation until the iteration time has passed.
+	 *
+	 * @return The average time of one operation, in microseconds.
+	 */
+	private double iteration(@NotNull Benchmark benchmark) throws Exception {
+		long operations = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			benchmark.runOperation();
+			operations += 1;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < iterationNanos);
+		return elapsed / 1_000.0 / operations;
+	}
+}
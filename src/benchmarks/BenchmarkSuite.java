@@ -0,0 +1,19 @@
+package benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A group of related benchmarks.
+ */
+@FunctionalInterface
+public interface BenchmarkSuite {
+	/**
+	 * Creates the suite's benchmarks.
+	 *
+	 * @param params The parameter values given on the command line.
+	 * @return One benchmark for each operation and combination of parameter values.
+	 */
+	@NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params);
+}
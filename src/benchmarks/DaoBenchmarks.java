@@ -0,0 +1,85 @@
+package benchmarks;
+
+import dao.DatabaseTable;
+import dao.PersonDao;
+import database.Database;
+import model.Person;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures single and multiple record lookups through the DAOs.
+ */
+public final class DaoBenchmarks {
+	private static final String PREFIX = "benchmarks.DaoBenchmarks.";
+	
+	private DaoBenchmarks() {}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (int persons : params.getInts("persons", 31, 1023)) {
+			Map<String, String> values = Collections.singletonMap("persons", String.valueOf(persons));
+			Fixture find = new Fixture(persons);
+			benchmarks.add(new Benchmark(
+				PREFIX + "find",
+				values,
+				find::setUp,
+				find::find,
+				find::tearDown
+			));
+			Fixture findMultiple = new Fixture(persons);
+			benchmarks.add(new Benchmark(
+				PREFIX + "findMultiple",
+				values,
+				findMultiple::setUp,
+				findMultiple::findForUser,
+				findMultiple::tearDown
+			));
+		}
+		return benchmarks;
+	}
+	
+	private static final class Fixture {
+		private final int personCount;
+		private Database<DatabaseTable> db;
+		private List<Person> persons;
+		
+		Fixture(int personCount) {
+			this.personCount = personCount;
+		}
+		
+		void setUp() throws Exception {
+			db = BenchmarkFixtures.emptyDatabase();
+			BenchmarkFixtures.insertUser(db);
+			persons = BenchmarkFixtures.persons(personCount);
+			db.runTransaction(conn -> {
+				new PersonDao(conn).insertAll(persons);
+				return true;
+			});
+		}
+		
+		void find() throws Exception {
+			String id = persons.get(ThreadLocalRandom.current().nextInt(persons.size())).getId();
+			db.runReadTransaction(conn -> {
+				BenchmarkFixtures.sink = new PersonDao(conn).find(id);
+				return true;
+			});
+		}
+		
+		void findForUser() throws Exception {
+			db.runReadTransaction(conn -> {
+				BenchmarkFixtures.sink = new PersonDao(conn).findForUser(BenchmarkFixtures.USER_NAME);
+				return true;
+			});
+		}
+		
+		void tearDown() {
+			db.close();
+		}
+	}
+}
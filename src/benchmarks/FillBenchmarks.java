@@ -0,0 +1,56 @@
+package benchmarks;
+
+import dao.DatabaseTable;
+import database.Database;
+import org.jetbrains.annotations.NotNull;
+import services.FillService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures filling a user's family tree, including writing it to the database.
+ */
+public final class FillBenchmarks {
+	private static final String PREFIX = "benchmarks.FillBenchmarks.";
+	
+	private FillBenchmarks() {}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (int generations : params.getInts("generations", 1, 4, 7, 10)) {
+			Fixture fixture = new Fixture(generations);
+			benchmarks.add(new Benchmark(
+				PREFIX + "fill",
+				Collections.singletonMap("generations", String.valueOf(generations)),
+				fixture::setUp,
+				fixture::fill,
+				fixture::tearDown
+			));
+		}
+		return benchmarks;
+	}
+	
+	private static final class Fixture {
+		private final int generations;
+		private Database<DatabaseTable> db;
+		
+		Fixture(int generations) {
+			this.generations = generations;
+		}
+		
+		void setUp() throws Exception {
+			db = BenchmarkFixtures.emptyDatabase();
+			BenchmarkFixtures.insertUser(db);
+		}
+		
+		void fill() throws Exception {
+			BenchmarkFixtures.sink = new FillService(db).fill(BenchmarkFixtures.USER_NAME, generations);
+		}
+		
+		void tearDown() {
+			db.close();
+		}
+	}
+}
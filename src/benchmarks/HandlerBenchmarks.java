@@ -0,0 +1,150 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import dao.DatabaseTable;
+import database.Database;
+import handlers.FetchDataHandler;
+import handlers.LoginHandler;
+import model.Gender;
+import org.jetbrains.annotations.NotNull;
+import requests.LoginRequest;
+import requests.RegisterRequest;
+import services.RegisterResult;
+import services.RegisterService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures full HTTP round trips through the request handlers, against a server running in
+ * the same process.
+ */
+public final class HandlerBenchmarks {
+	private static final String PREFIX = "benchmarks.HandlerBenchmarks.";
+	
+	private HandlerBenchmarks() {}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		Fixture persons = new Fixture();
+		Fixture person = new Fixture();
+		Fixture login = new Fixture();
+		return Arrays.asList(
+			new Benchmark(
+				PREFIX + "fetchPersons",
+				Collections.emptyMap(),
+				persons::setUp,
+				() -> persons.get("/person"),
+				persons::tearDown
+			),
+			new Benchmark(
+				PREFIX + "fetchPerson",
+				Collections.emptyMap(),
+				person::setUp,
+				() -> person.get("/person/" + person.personID),
+				person::tearDown
+			),
+			new Benchmark(
+				PREFIX + "login",
+				Collections.emptyMap(),
+				login::setUp,
+				login::login,
+				login::tearDown
+			)
+		);
+	}
+	
+	private static final class Fixture {
+		private Database<DatabaseTable> db;
+		private HttpServer server;
+		private ExecutorService executor;
+		private String baseUrl;
+		private String authToken;
+		private String personID;
+		private byte[] loginBody;
+		
+		/**
+		 * Starts a server with the data handlers, and registers a user with a four-generation
+		 * family tree. The server is configured like the real one, except that it has only the
+		 * contexts it needs.
+		 */
+		void setUp() throws Exception {
+			// Without TCP_NODELAY, each request stalls for the delayed ACK (about 40ms), which
+			// would swamp the time spent in the handlers.
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+			db = BenchmarkFixtures.emptyDatabase();
+			RegisterResult registration = new RegisterService(db).register(new RegisterRequest(
+				BenchmarkFixtures.USER_NAME,
+				BenchmarkFixtures.PASSWORD,
+				"bench.user@example.com",
+				"Bench",
+				"User",
+				Gender.FEMALE
+			));
+			if (registration.getToken() == null) {
+				throw new IllegalStateException("Could not register: " + registration.getFailureReason());
+			}
+			authToken = registration.getToken().getId();
+			personID = registration.getPersonID();
+			loginBody = new LoginRequest(BenchmarkFixtures.USER_NAME, BenchmarkFixtures.PASSWORD)
+				.toJson()
+				.getBytes(StandardCharsets.UTF_8);
+			
+			server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			executor = Executors.newFixedThreadPool(2);
+			server.setExecutor(executor);
+			server.createContext("/user/login", new LoginHandler(db));
+			server.createContext("/person", new FetchDataHandler(db));
+			server.start();
+			baseUrl = "http://localhost:" + server.getAddress().getPort();
+		}
+		
+		void get(@NotNull String path) throws IOException {
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+			connection.setRequestProperty("Authorization", authToken);
+			BenchmarkFixtures.sink = readResponse(connection);
+		}
+		
+		void login() throws IOException {
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/user/login").openConnection();
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(loginBody);
+			}
+			BenchmarkFixtures.sink = readResponse(connection);
+		}
+		
+		private static @NotNull String readResponse(@NotNull HttpURLConnection connection) throws IOException {
+			int status = connection.getResponseCode();
+			if (status != HttpURLConnection.HTTP_OK) {
+				throw new IOException("Request failed with status " + status);
+			}
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			try (InputStream in = connection.getInputStream()) {
+				byte[] buffer = new byte[8192];
+				int count;
+				while ((count = in.read(buffer)) != -1) {
+					body.write(buffer, 0, count);
+				}
+			}
+			return new String(body.toByteArray(), StandardCharsets.UTF_8);
+		}
+		
+		void tearDown() {
+			server.stop(0);
+			executor.shutdown();
+			db.close();
+		}
+	}
+}
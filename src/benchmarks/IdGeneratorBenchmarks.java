@@ -0,0 +1,124 @@
+package benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+import utilities.IdGenerator;
+import utilities.IdStrategy;
+import utilities.NameGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures each object ID strategy, and the letter-only generator that object IDs used before,
+ * on one thread and on several threads at once.
+ */
+public final class IdGeneratorBenchmarks {
+	private static final String PREFIX = "benchmarks.IdGeneratorBenchmarks.";
+	
+	/** The number of IDs that each thread makes in one contended operation. */
+	private static final int BATCH_SIZE = 1_000;
+	
+	private IdGeneratorBenchmarks() {}
+	
+	/**
+	 * The generator that object IDs used before <code>IdStrategy</code>, kept here for comparison.
+	 */
+	private static @NotNull String legacyRandomString(int targetStringLength) {
+		int leftLimit = 97; // letter 'a'
+		int rightLimit = 122; // letter 'z'
+		Random random = new Random();
+		StringBuilder buffer = new StringBuilder(targetStringLength);
+		
+		for (int i = 0; i < targetStringLength; i++) {
+			int randomLimitedInt = leftLimit + (int)
+				(random.nextFloat() * (rightLimit - leftLimit + 1));
+			buffer.append((char) randomLimitedInt);
+		}
+		
+		return buffer.toString();
+	}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		Map<String, IdGenerator> generators = new LinkedHashMap<>();
+		generators.put("legacy", () -> legacyRandomString(NameGenerator.OBJECT_ID_LENGTH));
+		for (IdStrategy strategy : IdStrategy.values()) {
+			generators.put(strategy.getValue(), strategy.newGenerator(NameGenerator.OBJECT_ID_LENGTH));
+		}
+		List<Integer> threadCounts = params.getInts("threads", Runtime.getRuntime().availableProcessors());
+		
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (Map.Entry<String, IdGenerator> generator : generators.entrySet()) {
+			IdGenerator ids = generator.getValue();
+			benchmarks.add(new Benchmark(
+				PREFIX + "newId",
+				Collections.singletonMap("strategy", generator.getKey()),
+				() -> {},
+				() -> BenchmarkFixtures.sink = ids.newId(),
+				() -> {}
+			));
+			
+			for (int threads : threadCounts) {
+				Map<String, String> benchmarkParams = new LinkedHashMap<>();
+				benchmarkParams.put("strategy", generator.getKey());
+				benchmarkParams.put("threads", String.valueOf(threads));
+				Contended fixture = new Contended(ids, threads);
+				benchmarks.add(new Benchmark(
+					PREFIX + "newIdBatchContended",
+					benchmarkParams,
+					fixture::setUp,
+					fixture::generate,
+					fixture::tearDown
+				));
+			}
+		}
+		return benchmarks;
+	}
+	
+	/**
+	 * Makes <code>BATCH_SIZE</code> IDs on each of several threads at once, all from the same
+	 * generator.
+	 */
+	private static final class Contended {
+		private final @NotNull IdGenerator ids;
+		private final int threads;
+		private ExecutorService executor;
+		
+		Contended(@NotNull IdGenerator ids, int threads) {
+			this.ids = ids;
+			this.threads = threads;
+		}
+		
+		void setUp() {
+			executor = Executors.newFixedThreadPool(threads);
+		}
+		
+		void generate() throws Exception {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					long sink = 0;
+					for (int j = 0; j < BATCH_SIZE; j++) {
+						sink += ids.newId().charAt(0);
+					}
+					return sink;
+				}));
+			}
+			long sink = 0;
+			for (Future<Long> result : results) {
+				sink += result.get();
+			}
+			BenchmarkFixtures.sink = sink;
+		}
+		
+		void tearDown() {
+			executor.shutdown();
+		}
+	}
+}
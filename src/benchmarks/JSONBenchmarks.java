@@ -0,0 +1,83 @@
+package benchmarks;
+
+import com.google.gson.GsonBuilder;
+import model.Event;
+import model.Gender;
+import model.GenderCoder;
+import model.Person;
+import org.jetbrains.annotations.NotNull;
+import requests.LoadRequest;
+import responses.FetchMultiplePersonsResponse;
+import responses.MessageResponse;
+import transport.JSONSerialization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures converting models, requests and responses to and from JSON. The
+ * <code>Reflective</code> benchmarks encode the same responses with a new reflective
+ * <code>Gson</code> instance for each call, as responses were encoded before they shared one.
+ */
+public final class JSONBenchmarks {
+	private static final String PREFIX = "benchmarks.JSONBenchmarks.";
+	
+	/** The number of persons in a default four-generation tree. */
+	private static final int TREE_SIZE = 31;
+	
+	private JSONBenchmarks() {}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		List<Person> persons = BenchmarkFixtures.persons(TREE_SIZE);
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < persons.size(); i++) {
+			events.add(BenchmarkFixtures.event(persons.get(i), i));
+		}
+		Person person = persons.get(0);
+		FetchMultiplePersonsResponse personList = new FetchMultiplePersonsResponse(persons);
+		MessageResponse message = new MessageResponse("Successfully added 31 persons and 91 events to the database.");
+		
+		String personJson = person.toJson();
+		String loadJson = new LoadRequest(
+			Collections.singletonList(BenchmarkFixtures.user()),
+			persons,
+			events
+		).toJson();
+		
+		return Arrays.asList(
+			new Benchmark(PREFIX + "personToJson", () -> BenchmarkFixtures.sink = person.toJson()),
+			new Benchmark(PREFIX + "personListToJson", () -> BenchmarkFixtures.sink = personList.toJson()),
+			new Benchmark(
+				PREFIX + "personListToJsonReflective",
+				() -> BenchmarkFixtures.sink = reflectiveJson(personList)
+			),
+			new Benchmark(PREFIX + "messageToJson", () -> BenchmarkFixtures.sink = message.toJson()),
+			new Benchmark(
+				PREFIX + "messageToJsonReflective",
+				() -> BenchmarkFixtures.sink = reflectiveJson(message)
+			),
+			new Benchmark(
+				PREFIX + "personFromJson",
+				() -> BenchmarkFixtures.sink = JSONSerialization.fromJson(personJson, Person.class)
+			),
+			new Benchmark(
+				PREFIX + "loadRequestFromJson",
+				() -> BenchmarkFixtures.sink = JSONSerialization.fromJson(loadJson, LoadRequest.class)
+			)
+		);
+	}
+	
+	/**
+	 * Serializes the given value the way <code>JSONSerialization</code> did before it shared a
+	 * serializer, building a new reflective <code>Gson</code> instance for each call.
+	 */
+	private static @NotNull String reflectiveJson(@NotNull JSONSerialization value) {
+		return new GsonBuilder()
+			.registerTypeAdapter(Gender.class, new GenderCoder())
+			.serializeNulls()
+			.create()
+			.toJson(value);
+	}
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import com.google.gson.stream.JsonWriter;
+import dao.DatabaseTable;
+import database.Database;
+import model.Person;
+import org.jetbrains.annotations.NotNull;
+import requests.LoadRequestReader;
+import services.LoadService;
+import transport.JSONSerialization;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures streaming a <code>/load</code> payload into the database.
+ */
+public final class LoadBenchmarks {
+	private static final String PREFIX = "benchmarks.LoadBenchmarks.";
+	
+	/** The number of events in the payload for each person. */
+	private static final int EVENTS_PER_PERSON = 3;
+	
+	private LoadBenchmarks() {}
+	
+	public static @NotNull List<Benchmark> benchmarks(@NotNull BenchmarkParams params) {
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (int records : params.getInts("records", 10_000, 100_000)) {
+			Fixture fixture = new Fixture(records);
+			benchmarks.add(new Benchmark(
+				PREFIX + "load",
+				Collections.singletonMap("records", String.valueOf(records)),
+				fixture::setUp,
+				fixture::load,
+				fixture::tearDown
+			));
+		}
+		return benchmarks;
+	}
+	
+	private static final class Fixture {
+		private final int records;
+		private Database<DatabaseTable> db;
+		private File payload;
+		
+		Fixture(int records) {
+			this.records = records;
+		}
+		
+		/**
+		 * Writes a payload with one user and <code>records</code> persons and events to a
+		 * temporary file, so that large payloads need not fit in memory.
+		 */
+		void setUp() throws Exception {
+			db = BenchmarkFixtures.emptyDatabase();
+			payload = File.createTempFile("familymap-load", ".json");
+			
+			int personCount = Math.max(1, records / (EVENTS_PER_PERSON + 1));
+			int eventCount = records - personCount;
+			List<Person> persons = BenchmarkFixtures.persons(personCount);
+			
+			try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(payload),
+				StandardCharsets.UTF_8
+			)))) {
+				writer.beginObject();
+				writer.name("users").beginArray();
+				JSONSerialization.writeJson(BenchmarkFixtures.user(), writer);
+				writer.endArray();
+				writer.name("persons").beginArray();
+				for (Person person : persons) {
+					JSONSerialization.writeJson(person, writer);
+				}
+				writer.endArray();
+				writer.name("events").beginArray();
+				for (int i = 0; i < eventCount; i++) {
+					JSONSerialization.writeJson(BenchmarkFixtures.event(persons.get(i % personCount), i), writer);
+				}
+				writer.endArray();
+				writer.endObject();
+			}
+		}
+		
+		void load() throws Exception {
+			try (LoadRequestReader reader = new LoadRequestReader(new BufferedReader(new InputStreamReader(
+				new FileInputStream(payload),
+				StandardCharsets.UTF_8
+			)))) {
+				BenchmarkFixtures.sink = new LoadService(db).load(reader);
+			}
+		}
+		
+		void tearDown() throws IOException {
+			db.close();
+			Files.deleteIfExists(payload.toPath());
+		}
+	}
+}
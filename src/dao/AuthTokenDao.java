@@ -2,16 +2,27 @@ package dao;
 
 import database.Dao;
 import database.DataAccessException;
+import database.TableSql;
 import model.AuthToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.*;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * An object that manages the reading and writing of <code>AuthToken</code> records in the database.
  */
 public class AuthTokenDao extends Dao<AuthToken, DatabaseTable> {
+	private static final List<String> COLUMNS = Arrays.asList(
+		"id", "associated_username", "created_at", "is_valid"
+	);
+	private static final TableSql SQL = new TableSql(DatabaseTable.AUTH_TOKEN, COLUMNS);
+	private static final int ID = SQL.indexOf("id");
+	private static final int ASSOCIATED_USERNAME = SQL.indexOf("associated_username");
+	private static final int CREATED_AT = SQL.indexOf("created_at");
+	private static final int IS_VALID = SQL.indexOf("is_valid");
+	
 	/**
 	 * Creates an <code>AuthTokenDao</code> object.
 	 *
@@ -27,31 +38,41 @@ public class AuthTokenDao extends Dao<AuthToken, DatabaseTable> {
 	}
 	
 	@Override
-	public void insert(@NotNull AuthToken record) throws DataAccessException {
-		String sql = "INSERT INTO " +
-			table().getName() +
-			" (id, associated_username, created_at, is_valid) VALUES(?,?,?,?)";
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-			stmt.setString(1, record.getId());
-			stmt.setString(2, record.getAssociatedUsername());
-			stmt.setLong(3, record.getCreatedAt().getTime());
-			stmt.setBoolean(4, record.isValid());
-			
-			stmt.executeUpdate();
-		} catch (SQLException e) {
-			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
+	protected @NotNull List<String> columns() {
+		return COLUMNS;
+	}
+	
+	@Override
+	protected @NotNull TableSql sql() {
+		return SQL;
+	}
+	
+	@Override
+	protected @NotNull String describeParameter(@NotNull String column, @NotNull String value) {
+		if (column.equals(table().getPrimaryKey())) {
+			// Tokens are credentials, so keep them out of the log.
+			return column + "=<redacted>";
 		}
+		return super.describeParameter(column, value);
+	}
+	
+	@Override
+	protected void bindRecord(@NotNull PreparedStatement stmt, @NotNull AuthToken record) throws SQLException {
+		stmt.setString(ID, record.getId());
+		stmt.setString(ASSOCIATED_USERNAME, record.getAssociatedUsername());
+		stmt.setLong(CREATED_AT, record.getCreatedAt().getTime());
+		stmt.setBoolean(IS_VALID, record.isValid());
 	}
 	
 	@Override
 	protected @NotNull AuthToken recordFromQueryResult(ResultSet rs) throws SQLException {
-		long timestamp = rs.getLong("created_at");
+		long timestamp = rs.getLong(CREATED_AT);
 		java.util.Date createdAt = new java.util.Date(timestamp);
 		return new AuthToken(
-			getNotNullString(rs, "id"),
-			getNotNullString(rs, "associated_username"),
+			getNotNullString(rs, ID),
+			getNotNullString(rs, ASSOCIATED_USERNAME),
 			createdAt,
-			rs.getBoolean("is_valid")
+			rs.getBoolean(IS_VALID)
 		);
 	}
 	
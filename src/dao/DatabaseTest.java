@@ -2,9 +2,20 @@ package dao;
 
 import database.DataAccessException;
 import database.Database;
+import model.Gender;
+import model.User;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DatabaseTest {
@@ -16,6 +27,12 @@ class DatabaseTest {
 		db = new Database<>(Database.TEST_DATABASE_NAME, DatabaseTable.values());
 	}
 	
+	@AfterEach
+	void tearDown() throws DataAccessException {
+		db.closeConnection(false);
+		db.close();
+	}
+	
 	@Test
 	void testClearTables_clearsAllTables() throws DataAccessException {
 		// TODO: Test clearTables() and clearTablesUsingConnection()
@@ -32,4 +49,189 @@ class DatabaseTest {
 	void testRunTransaction_runsWithoutConnection() throws DataAccessException {
 		db.runTransaction(conn -> false);
 	}
+	
+	@Test
+	void testGetConnection_returnsTheSameConnectionOnOneThread() throws DataAccessException {
+		Connection first = db.getConnection();
+		assertSame(first, db.getConnection());
+		assertEquals(1, db.getConnectionPool().getActiveCount());
+	}
+	
+	@Test
+	void testCloseConnection_returnsConnectionToPool() throws DataAccessException {
+		db.openConnection();
+		db.closeConnection(false);
+		assertEquals(0, db.getConnectionPool().getActiveCount());
+		assertEquals(1, db.getConnectionPool().getIdleCount());
+		
+		db.runTransaction(conn -> false);
+		assertEquals(1, db.getConnectionPool().getIdleCount(), "The idle connection should have been reused");
+	}
+	
+	@Test
+	void testRunTransaction_runsAlongsideAnotherThreadsConnection() throws Exception {
+		CountDownLatch leased = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicReference<Exception> failure = new AtomicReference<>(null);
+		
+		Thread other = new Thread(() -> {
+			try {
+				db.runTransaction(conn -> {
+					leased.countDown();
+					try {
+						done.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return false;
+				});
+			} catch (DataAccessException e) {
+				failure.set(e);
+			}
+		});
+		other.start();
+		
+		assertTrue(leased.await(5, TimeUnit.SECONDS));
+		db.runTransaction(conn -> {
+			assertEquals(2, db.getConnectionPool().getActiveCount());
+			return false;
+		});
+		done.countDown();
+		other.join();
+		
+		assertNull(failure.get());
+	}
+	
+	@Test
+	void testOpenConnection_timesOutWhenPoolIsExhausted() throws Exception {
+		Database<DatabaseTable> tinyDb = new Database<>(
+			Database.TEST_DATABASE_NAME,
+			DatabaseTable.values(),
+			1,
+			50
+		);
+		Thread holder = new Thread(() -> {
+			try {
+				tinyDb.openConnection();
+			} catch (DataAccessException e) {
+				e.printStackTrace();
+			}
+		});
+		holder.start();
+		holder.join();
+		
+		assertThrows(DataAccessException.class, tinyDb::openConnection);
+		assertEquals(1, tinyDb.getConnectionPool().getTimeoutCount());
+	}
+	
+	@Test
+	void testRunReadTransaction_ignoresChangesInTheTransaction() throws DataAccessException {
+		db.clearTables();
+		db.runReadTransaction(conn -> {
+			new UserDao(conn).insert(new User("reader", "p", "e", "f", "l", Gender.FEMALE, null));
+			return true;
+		});
+		db.runTransaction(conn -> {
+			assertNull(new UserDao(conn).find("reader"));
+			return false;
+		});
+	}
+	
+	@Test
+	void testRunReadTransaction_doesNotWaitForWriterInWALMode() throws Exception {
+		Database<DatabaseTable> walDb = new Database<>(
+			Database.TEST_DATABASE_NAME,
+			DatabaseTable.values(),
+			2,
+			50,
+			true
+		);
+		assertTrue(walDb.isWriteAheadLogging());
+		walDb.clearTables();
+		
+		try {
+			// Hold the only writer connection with an uncommitted write
+			Connection writer = walDb.openConnection();
+			new UserDao(writer).insert(new User("writer", "p", "e", "f", "l", Gender.MALE, null));
+			
+			// Another writer has to wait
+			AtomicReference<DataAccessException> writerFailure = new AtomicReference<>(null);
+			Thread otherWriter = new Thread(() -> {
+				try {
+					walDb.runTransaction(conn -> false);
+				} catch (DataAccessException e) {
+					writerFailure.set(e);
+				}
+			});
+			otherWriter.start();
+			otherWriter.join();
+			assertNotNull(writerFailure.get(), "The second writer should have timed out");
+			
+			// Readers do not, and see the last committed state
+			AtomicReference<User> found = new AtomicReference<>(null);
+			walDb.runReadTransaction(conn -> {
+				found.set(new UserDao(conn).find("writer"));
+				return false;
+			});
+			assertNull(found.get());
+			
+		} finally {
+			walDb.closeConnection(false);
+			walDb.close();
+		}
+	}
+	
+	@Test
+	void testConstructor_setsBusyTimeoutToCheckoutTimeoutInWALMode() throws DataAccessException {
+		Database<DatabaseTable> walDb = new Database<>(
+			Database.TEST_DATABASE_NAME,
+			DatabaseTable.values(),
+			1,
+			1234,
+			true
+		);
+		
+		try {
+			AtomicReference<Integer> busyTimeout = new AtomicReference<>(null);
+			walDb.runReadTransaction(conn -> {
+				try (PreparedStatement stmt = conn.prepareStatement("PRAGMA busy_timeout");
+					 ResultSet rs = stmt.executeQuery()
+				) {
+					rs.next();
+					busyTimeout.set(rs.getInt(1));
+				} catch (SQLException e) {
+					fail(e);
+				}
+				return false;
+			});
+			assertEquals(Integer.valueOf(1234), busyTimeout.get());
+			
+		} finally {
+			walDb.close();
+		}
+	}
+	
+	@Test
+	void testConstructor_migratesSchemaToLatestVersion() throws DataAccessException {
+		assertTrue(db.getSchemaVersion() >= 1);
+	}
+	
+	@Test
+	void testFindForUser_usesAssociatedUsernameIndex() throws DataAccessException {
+		AtomicReference<String> plan = new AtomicReference<>("");
+		db.runReadTransaction(conn -> {
+			String sql = "EXPLAIN QUERY PLAN SELECT * FROM Person WHERE associated_username = ?";
+			try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+				stmt.setString(1, "someone");
+				ResultSet rs = stmt.executeQuery();
+				while (rs.next()) {
+					plan.set(plan.get() + rs.getString("detail"));
+				}
+			} catch (SQLException e) {
+				throw new DataAccessException(e, e.getMessage());
+			}
+			return false;
+		});
+		assertTrue(plan.get().contains("person_associated_username"), plan.get());
+	}
 }
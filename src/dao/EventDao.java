@@ -2,16 +2,32 @@ package dao;
 
 import database.Dao;
 import database.DataAccessException;
+import database.TableSql;
 import model.Event;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.*;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * An object that manages the reading and writing of <code>Event</code> records in the database.
  */
 public class EventDao extends Dao<Event, DatabaseTable> {
+	private static final List<String> COLUMNS = Arrays.asList(
+		"id", "associated_username", "person_id", "latitude", "longitude", "country", "city", "event_type", "year"
+	);
+	private static final TableSql SQL = new TableSql(DatabaseTable.EVENT, COLUMNS);
+	private static final int ID = SQL.indexOf("id");
+	private static final int ASSOCIATED_USERNAME = SQL.indexOf("associated_username");
+	private static final int PERSON_ID = SQL.indexOf("person_id");
+	private static final int LATITUDE = SQL.indexOf("latitude");
+	private static final int LONGITUDE = SQL.indexOf("longitude");
+	private static final int COUNTRY = SQL.indexOf("country");
+	private static final int CITY = SQL.indexOf("city");
+	private static final int EVENT_TYPE = SQL.indexOf("event_type");
+	private static final int YEAR = SQL.indexOf("year");
+	
 	/**
 	 * Creates an <code>EventDao</code> object.
 	 *
@@ -27,49 +43,51 @@ public class EventDao extends Dao<Event, DatabaseTable> {
 	}
 	
 	@Override
-	public void insert(@NotNull Event record) throws DataAccessException {
-		String sql = "INSERT INTO " +
-			table().getName() +
-			" (id, associated_username, person_id, latitude, longitude, country, city, event_type, year) VALUES(?,?,?,?,?,?,?,?,?)";
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-			stmt.setString(1, record.getId());
-			stmt.setString(2, record.getAssociatedUsername());
-			stmt.setString(3, record.getPersonID());
-			
-			if (record.getLatitude() == null) {
-				stmt.setNull(4, Types.REAL);
-			} else {
-				stmt.setDouble(4, record.getLatitude());
-			}
-			
-			if (record.getLongitude() == null) {
-				stmt.setNull(5, Types.REAL);
-			} else {
-				stmt.setDouble(5, record.getLongitude());
-			}
-			
-			stmt.setString(6, record.getCountry());
-			stmt.setString(7, record.getCity());
-			stmt.setString(8, record.getEventType());
-			stmt.setInt(9, record.getYear());
-			
-			stmt.executeUpdate();
-		} catch (SQLException e) {
-			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
+	protected @NotNull List<String> columns() {
+		return COLUMNS;
+	}
+	
+	@Override
+	protected @NotNull TableSql sql() {
+		return SQL;
+	}
+	
+	@Override
+	protected void bindRecord(@NotNull PreparedStatement stmt, @NotNull Event record) throws SQLException {
+		stmt.setString(ID, record.getId());
+		stmt.setString(ASSOCIATED_USERNAME, record.getAssociatedUsername());
+		stmt.setString(PERSON_ID, record.getPersonID());
+		
+		if (record.getLatitude() == null) {
+			stmt.setNull(LATITUDE, Types.REAL);
+		} else {
+			stmt.setDouble(LATITUDE, record.getLatitude());
 		}
+		
+		if (record.getLongitude() == null) {
+			stmt.setNull(LONGITUDE, Types.REAL);
+		} else {
+			stmt.setDouble(LONGITUDE, record.getLongitude());
+		}
+		
+		stmt.setString(COUNTRY, record.getCountry());
+		stmt.setString(CITY, record.getCity());
+		stmt.setString(EVENT_TYPE, record.getEventType());
+		stmt.setInt(YEAR, record.getYear());
 	}
 	
+	@Override
 	protected @NotNull Event recordFromQueryResult(ResultSet rs) throws SQLException {
 		return new Event(
-			getNotNullString(rs, "id"),
-			getNotNullString(rs, "associated_username"),
-			getNotNullString(rs, "person_id"),
-			(Double) rs.getObject("latitude"),
-			(Double) rs.getObject("longitude"),
-			rs.getString("country"),
-			rs.getString("city"),
-			getNotNullString(rs, "event_type"),
-			rs.getInt("year")
+			getNotNullString(rs, ID),
+			getNotNullString(rs, ASSOCIATED_USERNAME),
+			getNotNullString(rs, PERSON_ID),
+			getNullableDouble(rs, LATITUDE),
+			getNullableDouble(rs, LONGITUDE),
+			rs.getString(COUNTRY),
+			rs.getString(CITY),
+			getNotNullString(rs, EVENT_TYPE),
+			rs.getInt(YEAR)
 		);
 	}
 	
@@ -96,4 +114,15 @@ public class EventDao extends Dao<Event, DatabaseTable> {
 	public @NotNull List<Event> findForPerson(@NotNull String id) throws DataAccessException {
 		return findMultiple("person_id", id);
 	}
+	
+	/**
+	 * Attempts to delete from the database every event record associated with a user with the given <code>userName</code>.
+	 *
+	 * @param userName The ID of the user whose <code>Event</code> records should be deleted.
+	 * @return The number of records deleted.
+	 * @throws DataAccessException An exception if the write fails.
+	 */
+	public int deleteForUser(@NotNull String userName) throws DataAccessException {
+		return deleteMultiple("associated_username", userName);
+	}
 }
@@ -115,6 +115,27 @@ class EventDaoTest {
 		assertNull(eventDao.find(testEventA.getId()));
 	}
 	
+	@Test
+	void testFind_keepsMissingCoordinatesNull() throws DataAccessException {
+		Event unplaced = new Event(
+			"event_c",
+			testUser.getUserName(),
+			testEventA.getPersonID(),
+			null,
+			null,
+			null,
+			null,
+			"Birth",
+			1999
+		);
+		eventDao.insert(unplaced);
+		Event found = eventDao.find(unplaced.getId());
+		assertNotNull(found);
+		assertNull(found.getLatitude());
+		assertNull(found.getLongitude());
+		assertEquals(unplaced, found);
+	}
+	
 	// - Find Multiple
 	
 	@Test
@@ -180,6 +201,27 @@ class EventDaoTest {
 		assertNull(eventDao.find(testEventA.getId()), "SANITY FAIL: No test data was put in before delete, but it was found in the database");
 	}
 	
+	@Test
+	void testDeleteForUser_removesOnlyThatUsersRecords() throws DataAccessException {
+		eventDao.insert(testEventA);
+		eventDao.insert(testEventB);
+		eventDao.insert(new Event(
+			"someone_elses",
+			"someone_else",
+			"someone",
+			null,
+			null,
+			null,
+			null,
+			"Birth",
+			1999
+		));
+		assertEquals(2, eventDao.deleteForUser(testUser.getUserName()));
+		assertNull(eventDao.find(testEventA.getId()));
+		assertNull(eventDao.find(testEventB.getId()));
+		assertNotNull(eventDao.find("someone_elses"));
+	}
+	
 	// - Clear All
 	
 	@Test
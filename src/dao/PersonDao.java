@@ -2,17 +2,32 @@ package dao;
 
 import database.Dao;
 import database.DataAccessException;
+import database.TableSql;
 import model.Gender;
 import model.Person;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.*;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * An object that manages the reading and writing of <code>Person</code> records in the database.
  */
 public class PersonDao extends Dao<Person, DatabaseTable> {
+	private static final List<String> COLUMNS = Arrays.asList(
+		"id", "associated_username", "first_name", "last_name", "gender", "father_id", "mother_id", "spouse_id"
+	);
+	private static final TableSql SQL = new TableSql(DatabaseTable.PERSON, COLUMNS);
+	private static final int ID = SQL.indexOf("id");
+	private static final int ASSOCIATED_USERNAME = SQL.indexOf("associated_username");
+	private static final int FIRST_NAME = SQL.indexOf("first_name");
+	private static final int LAST_NAME = SQL.indexOf("last_name");
+	private static final int GENDER = SQL.indexOf("gender");
+	private static final int FATHER_ID = SQL.indexOf("father_id");
+	private static final int MOTHER_ID = SQL.indexOf("mother_id");
+	private static final int SPOUSE_ID = SQL.indexOf("spouse_id");
+	
 	/**
 	 * Creates a <code>PersonDao</code> object.
 	 *
@@ -28,43 +43,44 @@ public class PersonDao extends Dao<Person, DatabaseTable> {
 	}
 	
 	@Override
-	public void insert(@NotNull Person record) throws DataAccessException {
-		String sql = "INSERT INTO " +
-			table().getName() +
-			" (id, associated_username, first_name, last_name, gender, father_id, mother_id, spouse_id) VALUES(?,?,?,?,?,?,?,?)";
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-			stmt.setString(1, record.getId());
-			stmt.setString(2, record.getAssociatedUsername());
-			stmt.setString(3, record.getFirstName());
-			stmt.setString(4, record.getLastName());
-			stmt.setString(5, record.getGender().getValue());
-			stmt.setString(6, record.getFatherID());
-			stmt.setString(7, record.getMotherID());
-			stmt.setString(8, record.getSpouseID());
-			
-			stmt.executeUpdate();
-		} catch (SQLException e) {
-			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
-		}
+	protected @NotNull List<String> columns() {
+		return COLUMNS;
+	}
+	
+	@Override
+	protected @NotNull TableSql sql() {
+		return SQL;
+	}
+	
+	@Override
+	protected void bindRecord(@NotNull PreparedStatement stmt, @NotNull Person record) throws SQLException {
+		stmt.setString(ID, record.getId());
+		stmt.setString(ASSOCIATED_USERNAME, record.getAssociatedUsername());
+		stmt.setString(FIRST_NAME, record.getFirstName());
+		stmt.setString(LAST_NAME, record.getLastName());
+		stmt.setString(GENDER, record.getGender().getValue());
+		stmt.setString(FATHER_ID, record.getFatherID());
+		stmt.setString(MOTHER_ID, record.getMotherID());
+		stmt.setString(SPOUSE_ID, record.getSpouseID());
 	}
 	
 	@Override
 	protected @NotNull Person recordFromQueryResult(ResultSet rs) throws SQLException {
-		String genderValue = getNotNullString(rs, "gender");
+		String genderValue = getNotNullString(rs, GENDER);
 		Gender gender = Gender.fromValue(genderValue);
 		if (gender == null) {
 			throw new SQLIntegrityConstraintViolationException("No valid event_type found");
 		}
 		
 		return new Person(
-			getNotNullString(rs, "id"),
-			getNotNullString(rs, "associated_username"),
-			getNotNullString(rs, "first_name"),
-			getNotNullString(rs, "last_name"),
+			getNotNullString(rs, ID),
+			getNotNullString(rs, ASSOCIATED_USERNAME),
+			getNotNullString(rs, FIRST_NAME),
+			getNotNullString(rs, LAST_NAME),
 			gender,
-			rs.getString("father_id"),
-			rs.getString("mother_id"),
-			rs.getString("spouse_id")
+			rs.getString(FATHER_ID),
+			rs.getString(MOTHER_ID),
+			rs.getString(SPOUSE_ID)
 		);
 	}
 	
@@ -78,4 +94,15 @@ public class PersonDao extends Dao<Person, DatabaseTable> {
 	public @NotNull List<Person> findForUser(@NotNull String userName) throws DataAccessException {
 		return findMultiple("associated_username", userName);
 	}
+	
+	/**
+	 * Attempts to delete from the database every person record associated with a user with the given <code>userName</code>.
+	 *
+	 * @param userName The ID of the user whose <code>Person</code> records should be deleted.
+	 * @return The number of records deleted.
+	 * @throws DataAccessException An exception if the write fails.
+	 */
+	public int deleteForUser(@NotNull String userName) throws DataAccessException {
+		return deleteMultiple("associated_username", userName);
+	}
 }
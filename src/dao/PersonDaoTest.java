@@ -2,6 +2,7 @@ package dao;
 
 import database.DataAccessException;
 import database.Database;
+import database.QueryStatistics;
 import model.Gender;
 import model.Person;
 import model.User;
@@ -9,8 +10,10 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteErrorCode;
 
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,6 +95,55 @@ class PersonDaoTest {
 		assertThrows(DataAccessException.class, () -> personDao.insert(testPersonA));
 	}
 	
+	@Test
+	void testInsertAll_addsEveryRecord() throws DataAccessException {
+		assertEquals(2, personDao.insertAll(Arrays.asList(testPersonA, testPersonB)));
+		assertEquals(testPersonA, personDao.find(testPersonA.getId()));
+		assertEquals(testPersonB, personDao.find(testPersonB.getId()));
+	}
+	
+	@Test
+	void testInsertAll_failsOnDuplicateID() throws DataAccessException {
+		personDao.insert(testPersonA);
+		DataAccessException e = assertThrows(
+			DataAccessException.class,
+			() -> personDao.insertAll(Arrays.asList(testPersonB, testPersonA))
+		);
+		assertEquals(SQLiteErrorCode.SQLITE_CONSTRAINT, e.getErrorCode());
+	}
+	
+	@Test
+	void testInsertAllIfNotExists_skipsExtantRecords() throws DataAccessException {
+		personDao.insert(testPersonA);
+		assertEquals(1, personDao.insertAllIfNotExists(Arrays.asList(testPersonA, testPersonB)));
+		assertEquals(2, personDao.count());
+	}
+	
+	@Test
+	void testUpdateAll_replacesExtantRecords() throws DataAccessException {
+		personDao.insert(testPersonA);
+		Person renamed = new Person(
+			testPersonA.getId(),
+			testPersonA.getAssociatedUsername(),
+			"Jane",
+			testPersonA.getLastName(),
+			Gender.FEMALE,
+			null,
+			null,
+			null
+		);
+		assertEquals(1, personDao.updateAll(Arrays.asList(renamed, testPersonB)));
+		assertEquals(renamed, personDao.find(testPersonA.getId()));
+		assertEquals(testPersonB, personDao.find(testPersonB.getId()));
+	}
+	
+	@Test
+	void testUpdate_reportsWhetherRecordWasNew() throws DataAccessException {
+		assertTrue(personDao.update(testPersonA));
+		assertFalse(personDao.update(testPersonA));
+		assertEquals(1, personDao.count());
+	}
+	
 	// - Find Single
 	
 	@Test
@@ -113,6 +165,22 @@ class PersonDaoTest {
 		assertNull(personDao.find(testPersonA.getId()));
 	}
 	
+	@Test
+	void testFind_recordsStatementStatistics() throws DataAccessException {
+		personDao.insert(testPersonA);
+		String sql = "SELECT id, associated_username, first_name, last_name, gender, father_id, mother_id, spouse_id " +
+			"FROM " + DatabaseTable.PERSON.getName() + " WHERE id = ?;";
+		QueryStatistics.Shape before = QueryStatistics.getShared().getStatements().get(sql);
+		long executions = before == null ? 0 : before.getExecutions();
+		long rows = before == null ? 0 : before.getRows();
+		
+		personDao.find(testPersonA.getId());
+		QueryStatistics.Shape after = QueryStatistics.getShared().getStatements().get(sql);
+		assertNotNull(after);
+		assertEquals(executions + 1, after.getExecutions());
+		assertEquals(rows + 1, after.getRows());
+	}
+	
 	// - Find Multiple
 	
 	@Test
@@ -178,6 +246,26 @@ class PersonDaoTest {
 		assertNull(personDao.find(testPersonA.getId()), "SANITY FAIL: No test data was put in before delete, but it was found in the database");
 	}
 	
+	@Test
+	void testDeleteForUser_removesOnlyThatUsersRecords() throws DataAccessException {
+		personDao.insert(testPersonA);
+		personDao.insert(testPersonB);
+		personDao.insert(new Person(
+			"someone_elses",
+			"someone_else",
+			"Some",
+			"One",
+			Gender.MALE,
+			null,
+			null,
+			null
+		));
+		assertEquals(2, personDao.deleteForUser(testUser.getUserName()));
+		assertNull(personDao.find(testPersonA.getId()));
+		assertNull(personDao.find(testPersonB.getId()));
+		assertNotNull(personDao.find("someone_elses"));
+	}
+	
 	// - Clear All
 	
 	@Test
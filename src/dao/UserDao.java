@@ -2,16 +2,31 @@ package dao;
 
 import database.Dao;
 import database.DataAccessException;
+import database.TableSql;
 import model.Gender;
 import model.User;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * An object that manages the reading and writing of <code>User</code> records in the database.
  */
 public class UserDao extends Dao<User, DatabaseTable> {
+	private static final List<String> COLUMNS = Arrays.asList(
+		"username", "password", "email", "first_name", "last_name", "gender", "person_id"
+	);
+	private static final TableSql SQL = new TableSql(DatabaseTable.USER, COLUMNS);
+	private static final int USERNAME = SQL.indexOf("username");
+	private static final int PASSWORD = SQL.indexOf("password");
+	private static final int EMAIL = SQL.indexOf("email");
+	private static final int FIRST_NAME = SQL.indexOf("first_name");
+	private static final int LAST_NAME = SQL.indexOf("last_name");
+	private static final int GENDER = SQL.indexOf("gender");
+	private static final int PERSON_ID = SQL.indexOf("person_id");
+	
 	/**
 	 * Creates a <code>UserDao</code> object.
 	 *
@@ -27,41 +42,42 @@ public class UserDao extends Dao<User, DatabaseTable> {
 	}
 	
 	@Override
-	public void insert(@NotNull User record) throws DataAccessException {
-		String sql = "INSERT INTO " +
-			table().getName() +
-			" (username, password, email, first_name, last_name, gender, person_id) VALUES(?,?,?,?,?,?,?)";
-		try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-			stmt.setString(1, record.getId());
-			stmt.setString(2, record.getPassword());
-			stmt.setString(3, record.getEmail());
-			stmt.setString(4, record.getFirstName());
-			stmt.setString(5, record.getLastName());
-			stmt.setString(6, record.getGender().getValue());
-			stmt.setString(7, record.getPersonID());
-			
-			stmt.executeUpdate();
-		} catch (SQLException e) {
-			throw new DataAccessException(e, "Error encountered while inserting into the database: " + e.getMessage());
-		}
+	protected @NotNull List<String> columns() {
+		return COLUMNS;
+	}
+	
+	@Override
+	protected @NotNull TableSql sql() {
+		return SQL;
+	}
+	
+	@Override
+	protected void bindRecord(@NotNull PreparedStatement stmt, @NotNull User record) throws SQLException {
+		stmt.setString(USERNAME, record.getId());
+		stmt.setString(PASSWORD, record.getPassword());
+		stmt.setString(EMAIL, record.getEmail());
+		stmt.setString(FIRST_NAME, record.getFirstName());
+		stmt.setString(LAST_NAME, record.getLastName());
+		stmt.setString(GENDER, record.getGender().getValue());
+		stmt.setString(PERSON_ID, record.getPersonID());
 	}
 	
 	@Override
 	protected @NotNull User recordFromQueryResult(ResultSet rs) throws SQLException {
-		String genderValue = getNotNullString(rs, "gender");
+		String genderValue = getNotNullString(rs, GENDER);
 		Gender gender = Gender.fromValue(genderValue);
 		if (gender == null) {
 			throw new SQLIntegrityConstraintViolationException("No valid event_type found");
 		}
 		
 		return new User(
-			getNotNullString(rs, "username"),
-			getNotNullString(rs, "password"),
-			getNotNullString(rs, "email"),
-			getNotNullString(rs, "first_name"),
-			getNotNullString(rs, "last_name"),
+			getNotNullString(rs, USERNAME),
+			getNotNullString(rs, PASSWORD),
+			getNotNullString(rs, EMAIL),
+			getNotNullString(rs, FIRST_NAME),
+			getNotNullString(rs, LAST_NAME),
 			gender,
-			rs.getString("person_id")
+			rs.getString(PERSON_ID)
 		);
 	}
 }
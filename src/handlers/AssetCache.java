@@ -0,0 +1,217 @@
+package handlers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import server.Server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * An in-memory cache of the static files under a root directory. A background thread watches
+ * the directory tree, and evicts each cached file as soon as it changes on disk.
+ */
+public class AssetCache implements Closeable {
+	/**
+	 * Files larger than this are streamed from disk for each request instead of being cached.
+	 */
+	public static final long DEFAULT_MAX_ASSET_SIZE = 1024 * 1024;
+	
+	private final @NotNull Path root;
+	private final long maxAssetSize;
+	private final @NotNull ConcurrentHashMap<Path, StaticAsset> assets = new ConcurrentHashMap<>();
+	private final @Nullable WatchService watcher;
+	
+	/**
+	 * Creates an <code>AssetCache</code> object that watches the given directory for changes.
+	 *
+	 * @param root The directory that contains the files to serve.
+	 */
+	public AssetCache(@NotNull File root) {
+		this(root, DEFAULT_MAX_ASSET_SIZE);
+	}
+	
+	/**
+	 * Creates an <code>AssetCache</code> object that watches the given directory for changes.
+	 *
+	 * @param root The directory that contains the files to serve.
+	 * @param maxAssetSize The size, in bytes, of the largest file to cache.
+	 */
+	public AssetCache(@NotNull File root, long maxAssetSize) {
+		this.root = root.toPath().toAbsolutePath().normalize();
+		this.maxAssetSize = maxAssetSize;
+		this.watcher = startWatching();
+	}
+	
+	
+	
+	
+	/**
+	 * Gets the asset at the given path, reading it from disk if it is not cached.
+	 *
+	 * @param path The path of the file, relative to the root directory.
+	 * @return The file's contents.
+	 * @throws FileNotFoundException An exception if there is no regular file at the given path,
+	 * or if the path leads outside the root directory.
+	 * @throws IOException An exception if the file could not be read.
+	 */
+	public @NotNull StaticAsset get(@NotNull String path) throws IOException {
+		Path file = resolve(path);
+		StaticAsset cached = assets.get(file);
+		if (cached != null) {
+			if (watcher != null || isCurrent(cached, file)) {
+				return cached;
+			}
+			assets.remove(file, cached);
+		}
+		
+		if (!Files.isRegularFile(file)) {
+			throw new FileNotFoundException("No file at " + path);
+		}
+		if (Files.size(file) > maxAssetSize) {
+			return StaticAsset.onDisk(file.toFile());
+		}
+		
+		// The watcher's eviction of this file waits until it has been read, so a stale read is
+		// never kept.
+		try {
+			return assets.computeIfAbsent(file, key -> {
+				try {
+					return StaticAsset.fromFile(key.toFile());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Resolves the given path against the root directory.
+	 *
+	 * @throws FileNotFoundException An exception if the path leads outside the root directory.
+	 */
+	private @NotNull Path resolve(@NotNull String path) throws FileNotFoundException {
+		String relativePath = path;
+		while (relativePath.startsWith("/")) {
+			relativePath = relativePath.substring(1);
+		}
+		try {
+			Path file = root.resolve(relativePath).normalize();
+			if (!file.startsWith(root)) {
+				throw new FileNotFoundException("Callers cannot access files outside of the HTML root");
+			}
+			return file;
+		} catch (InvalidPathException e) {
+			throw new FileNotFoundException("Invalid path: " + path);
+		}
+	}
+	
+	/**
+	 * Checks a cached asset against its file. Only needed when the directory is not watched.
+	 */
+	private boolean isCurrent(@NotNull StaticAsset asset, @NotNull Path file) {
+		long lastModified = file.toFile().lastModified();
+		return asset.getLastModified() == lastModified - lastModified % 1000 &&
+			asset.getLength() == file.toFile().length();
+	}
+	
+	/**
+	 * @return The number of files in the cache.
+	 */
+	public int getSize() {
+		return assets.size();
+	}
+	
+	/**
+	 * Removes every file from the cache.
+	 */
+	public void invalidateAll() {
+		assets.clear();
+	}
+	
+	/**
+	 * Stops watching the root directory.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (watcher != null) {
+			watcher.close();
+		}
+	}
+	
+	
+	
+	
+	// ** File Watching
+	
+	private @Nullable WatchService startWatching() {
+		WatchService service;
+		try {
+			service = root.getFileSystem().newWatchService();
+			registerTree(service, root);
+		} catch (IOException e) {
+			Server.logger.warning("Cannot watch " + root + " for changes: " + e.getMessage() +
+				". Cached files will be checked against the disk on each request.");
+			return null;
+		}
+		
+		Thread thread = new Thread(() -> watch(service), "asset-watcher");
+		thread.setDaemon(true);
+		thread.start();
+		return service;
+	}
+	
+	private static void registerTree(@NotNull WatchService service, @NotNull Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+			directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+			for (Path child : children) {
+				registerTree(service, child);
+			}
+		}
+	}
+	
+	private void watch(@NotNull WatchService service) {
+		while (true) {
+			WatchKey key;
+			try {
+				key = service.take();
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			
+			Path directory = (Path) key.watchable();
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == OVERFLOW) {
+					assets.clear();
+					continue;
+				}
+				Path changed = directory.resolve((Path) event.context());
+				// Iterators skip files that are still being read, but remove() waits for the read
+				// to finish. Sweep for the files under a changed directory too.
+				assets.remove(changed);
+				assets.keySet().removeIf(file -> file.startsWith(changed));
+				
+				if (event.kind() == ENTRY_CREATE) {
+					try {
+						registerTree(service, changed);
+					} catch (IOException | ClosedWatchServiceException e) {
+						// The directory vanished, or we're shutting down. Nothing to watch.
+					}
+				}
+			}
+			key.reset();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package handlers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetCacheTest {
+	private Path root;
+	private AssetCache cache;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		root = Files.createTempDirectory("assets");
+		Files.createDirectory(root.resolve("css"));
+		Files.write(root.resolve("css/main.css"), "body { color: red; }".getBytes(StandardCharsets.UTF_8));
+		cache = new AssetCache(root.toFile());
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		cache.close();
+		try (Stream<Path> files = Files.walk(root)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+	
+	@Test
+	void testGet_servesBinaryFilesIntact() throws IOException {
+		byte[] icon = new byte[512];
+		for (int i = 0; i < icon.length; i++) {
+			icon[i] = (byte) i;
+		}
+		Files.write(root.resolve("favicon.ico"), icon);
+		
+		StaticAsset asset = cache.get("/favicon.ico");
+		assertArrayEquals(icon, asset.getContent());
+		assertEquals("image/x-icon", asset.getContentType());
+	}
+	
+	@Test
+	void testGet_cachesFiles() throws IOException {
+		StaticAsset asset = cache.get("/css/main.css");
+		assertSame(asset, cache.get("css/main.css"));
+		assertEquals(1, cache.getSize());
+		assertEquals("text/css; charset=UTF-8", asset.getContentType());
+	}
+	
+	@Test
+	void testGet_streamsLargeFilesFromDisk() throws IOException {
+		byte[] data = new byte[4096];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i * 7);
+		}
+		Files.write(root.resolve("large.png"), data);
+		
+		try (AssetCache smallCache = new AssetCache(root.toFile(), 1024)) {
+			StaticAsset asset = smallCache.get("/large.png");
+			assertFalse(asset.isInMemory());
+			assertEquals(0, smallCache.getSize());
+			assertEquals(data.length, asset.getLength());
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			asset.writeTo(out, 1000, 100);
+			assertArrayEquals(Arrays.copyOfRange(data, 1000, 1100), out.toByteArray());
+		}
+	}
+	
+	@Test
+	void testGet_rejectsPathsOutsideRoot() {
+		assertThrows(FileNotFoundException.class, () -> cache.get("/../outside.txt"));
+		assertThrows(FileNotFoundException.class, () -> cache.get("/missing.html"));
+		assertThrows(FileNotFoundException.class, () -> cache.get("/css"));
+	}
+	
+	@Test
+	void testGet_evictsChangedFiles() throws IOException, InterruptedException {
+		StaticAsset original = cache.get("/css/main.css");
+		Files.write(root.resolve("css/main.css"), "body { color: blue; }".getBytes(StandardCharsets.UTF_8));
+		
+		// The watcher evicts the file in the background.
+		StaticAsset updated = original;
+		for (int attempt = 0; attempt < 100 && updated == original; attempt++) {
+			Thread.sleep(100);
+			updated = cache.get("/css/main.css");
+		}
+		assertEquals("body { color: blue; }", new String(updated.getContent(), StandardCharsets.UTF_8));
+		assertNotEquals(original.getEntityTag(), updated.getEntityTag());
+	}
+	
+	@Test
+	void testStaticAsset_gzipsOnlyLargeText() {
+		byte[] text = new byte[StaticAsset.MIN_GZIP_SIZE * 4];
+		Arrays.fill(text, (byte) 'a');
+		assertNotNull(new StaticAsset("big.html", text, 0).getGzippedContent());
+		assertNull(new StaticAsset("small.html", "<p>hi</p>".getBytes(StandardCharsets.UTF_8), 0).getGzippedContent());
+		assertNull(new StaticAsset("photo.jpg", text, 0).getGzippedContent());
+	}
+}
@@ -0,0 +1,113 @@
+package handlers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Pattern;
+
+/**
+ * A single range of bytes requested with an HTTP <code>Range</code> header.
+ */
+public class ByteRange {
+	private static final Pattern DIGITS = Pattern.compile("\\d+");
+	
+	private final long start;
+	private final long length;
+	
+	/**
+	 * Creates a <code>ByteRange</code> object.
+	 *
+	 * @param start The offset of the first byte in the range.
+	 * @param length The number of bytes in the range.
+	 */
+	public ByteRange(long start, long length) {
+		this.start = start;
+		this.length = length;
+	}
+	
+	/**
+	 * Parses a <code>Range</code> header against a representation of the given size. Only single
+	 * ranges are supported. Headers with several ranges, or that are malformed, are ignored, and
+	 * the whole representation should be sent.
+	 *
+	 * @param header The value of the <code>Range</code> header, such as <code>"bytes=0-499"</code>.
+	 * @param size The size of the representation, in bytes.
+	 * @return The requested range, clamped to the representation's size, or <code>null</code> if
+	 * the header should be ignored.
+	 * @throws UnsatisfiableRangeException An exception if the range lies wholly beyond the end
+	 * of the representation.
+	 */
+	public static @Nullable ByteRange parse(@Nullable String header, long size) throws UnsatisfiableRangeException {
+		if (header == null) {
+			return null;
+		}
+		String spec = header.trim();
+		if (!spec.startsWith("bytes=") || spec.indexOf(',') >= 0) {
+			return null;
+		}
+		spec = spec.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			if (first.isEmpty()) {
+				// The final N bytes
+				long suffixLength = parsePosition(last);
+				if (suffixLength <= 0 || size == 0) {
+					throw new UnsatisfiableRangeException(size);
+				}
+				long length = Math.min(suffixLength, size);
+				return new ByteRange(size - length, length);
+			}
+			
+			long start = parsePosition(first);
+			long end = last.isEmpty() ? Long.MAX_VALUE : parsePosition(last);
+			if (start < 0 || end < start) {
+				return null;
+			}
+			if (start >= size) {
+				throw new UnsatisfiableRangeException(size);
+			}
+			return new ByteRange(start, Math.min(end, size - 1) - start + 1);
+			
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Reads a byte position from a <code>Range</code> header. Positions are plain decimal digits,
+	 * so signs, which <code>Long.parseLong</code> would accept, are rejected.
+	 *
+	 * @param value The text of the position.
+	 * @return The position.
+	 * @throws NumberFormatException An exception if the text is not a decimal number, or is too
+	 * large.
+	 */
+	private static long parsePosition(@NotNull String value) throws NumberFormatException {
+		if (!DIGITS.matcher(value).matches()) {
+			throw new NumberFormatException("Not a byte position: " + value);
+		}
+		return Long.parseLong(value);
+	}
+	
+	public long getStart() {
+		return start;
+	}
+	
+	public long getLength() {
+		return length;
+	}
+	
+	/**
+	 * @param size The size of the whole representation, in bytes.
+	 * @return The value of a <code>Content-Range</code> header for this range.
+	 */
+	public @NotNull String contentRange(long size) {
+		return "bytes " + start + "-" + (start + length - 1) + "/" + size;
+	}
+}
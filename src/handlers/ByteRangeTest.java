@@ -0,0 +1,59 @@
+package handlers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+	@Test
+	void testParse_readsClosedAndOpenRanges() throws UnsatisfiableRangeException {
+		ByteRange range = ByteRange.parse("bytes=10-19", 100);
+		assertNotNull(range);
+		assertEquals(10, range.getStart());
+		assertEquals(10, range.getLength());
+		assertEquals("bytes 10-19/100", range.contentRange(100));
+		
+		range = ByteRange.parse("bytes=90-", 100);
+		assertNotNull(range);
+		assertEquals(90, range.getStart());
+		assertEquals(10, range.getLength());
+		
+		range = ByteRange.parse("bytes=90-500", 100);
+		assertNotNull(range);
+		assertEquals(10, range.getLength(), "The range should be clamped to the size");
+	}
+	
+	@Test
+	void testParse_readsSuffixRanges() throws UnsatisfiableRangeException {
+		ByteRange range = ByteRange.parse("bytes=-30", 100);
+		assertNotNull(range);
+		assertEquals(70, range.getStart());
+		assertEquals(30, range.getLength());
+		
+		range = ByteRange.parse("bytes=-500", 100);
+		assertNotNull(range);
+		assertEquals(0, range.getStart());
+		assertEquals(100, range.getLength());
+	}
+	
+	@Test
+	void testParse_ignoresUnsupportedHeaders() throws UnsatisfiableRangeException {
+		assertNull(ByteRange.parse(null, 100));
+		assertNull(ByteRange.parse("bytes=0-9,20-29", 100));
+		assertNull(ByteRange.parse("items=0-9", 100));
+		assertNull(ByteRange.parse("bytes=9-0", 100));
+		assertNull(ByteRange.parse("bytes=a-b", 100));
+		assertNull(ByteRange.parse("bytes=--5", 100));
+		assertNull(ByteRange.parse("bytes=-+5", 100));
+		assertNull(ByteRange.parse("bytes=+5-", 100));
+		assertNull(ByteRange.parse("bytes=5-+9", 100));
+		assertNull(ByteRange.parse("bytes=-", 100));
+	}
+	
+	@Test
+	void testParse_rejectsRangesBeyondTheEnd() {
+		UnsatisfiableRangeException e = assertThrows(UnsatisfiableRangeException.class, () -> ByteRange.parse("bytes=100-", 100));
+		assertEquals(100, e.getSize());
+		assertThrows(UnsatisfiableRangeException.class, () -> ByteRange.parse("bytes=-0", 100));
+	}
+}
@@ -0,0 +1,61 @@
+package handlers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCodingTest {
+	@Test
+	void testNegotiate_prefersClientWeights() {
+		assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate", ContentCoding.GZIP, ContentCoding.DEFLATE));
+		assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate", ContentCoding.GZIP, ContentCoding.DEFLATE));
+		assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("br, deflate", ContentCoding.GZIP, ContentCoding.DEFLATE));
+		assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*", ContentCoding.GZIP, ContentCoding.DEFLATE));
+		assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("*;q=0.5, gzip;q=0", ContentCoding.GZIP, ContentCoding.DEFLATE));
+	}
+	
+	@Test
+	void testNegotiate_fallsBackToIdentity() {
+		assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null, ContentCoding.GZIP));
+		assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("", ContentCoding.GZIP));
+		assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=0", ContentCoding.GZIP));
+		assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("deflate", ContentCoding.GZIP));
+	}
+	
+	@Test
+	void testEncode_roundTrips() throws IOException {
+		StringBuilder json = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			json.append("{\"associatedUsername\":\"sheila\",\"personID\":\"").append(i).append("\"},");
+		}
+		byte[] content = json.toString().getBytes(StandardCharsets.UTF_8);
+		
+		byte[] gzipped = ContentCoding.GZIP.encode(content);
+		assertTrue(gzipped.length < content.length / 4);
+		assertArrayEquals(content, readAll(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+		
+		byte[] deflated = ContentCoding.DEFLATE.encode(content);
+		assertTrue(deflated.length < content.length / 4);
+		assertArrayEquals(content, readAll(new InflaterInputStream(new ByteArrayInputStream(deflated))));
+		
+		assertSame(content, ContentCoding.IDENTITY.encode(content));
+	}
+	
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int count;
+		while ((count = in.read(buffer)) > 0) {
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+}
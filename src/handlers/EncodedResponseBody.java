@@ -0,0 +1,154 @@
+package handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import server.EndpointMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The body of a streamed response, encoded with a negotiated content coding once it grows past
+ * a threshold.
+ *
+ * The response headers are sent lazily. A body that ends before reaching the threshold is sent
+ * as is, with an exact <code>Content-Length</code>. A longer one is encoded and sent with
+ * chunked transfer encoding.
+ */
+class EncodedResponseBody extends OutputStream {
+	private final @NotNull HttpExchange exchange;
+	private final int code;
+	private final @NotNull ContentCoding coding;
+	private final int threshold;
+	private final @NotNull EndpointMetrics metrics;
+	
+	private @Nullable ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private @Nullable CountingOutputStream sent = null;
+	private @Nullable OutputStream encoder = null;
+	private long written = 0;
+	private boolean closed = false;
+	
+	/**
+	 * Counts the bytes written through it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private long count = 0;
+		
+		CountingOutputStream(@NotNull OutputStream out) {
+			super(out);
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count += 1;
+		}
+		
+		@Override
+		public void write(@NotNull byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+	
+	/**
+	 * Creates an <code>EncodedResponseBody</code> object.
+	 *
+	 * @param exchange The HTTP exchange whose response this is.
+	 * @param code The HTTP response code to send.
+	 * @param coding The coding to apply if the body reaches the threshold.
+	 * @param threshold The size, in bytes, below which the body is sent as is.
+	 * @param metrics The metrics to report the body's compression to.
+	 */
+	EncodedResponseBody(
+		@NotNull HttpExchange exchange,
+		int code,
+		@NotNull ContentCoding coding,
+		int threshold,
+		@NotNull EndpointMetrics metrics
+	) {
+		this.exchange = exchange;
+		this.code = code;
+		this.coding = coding;
+		this.threshold = threshold;
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * @return <code>true</code> if the response headers have been sent, so the response can no
+	 * longer be replaced with another.
+	 */
+	boolean hasSentHeaders() {
+		return buffer == null;
+	}
+	
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+	
+	@Override
+	public void write(@NotNull byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Response body is closed");
+		}
+		written += len;
+		if (buffer != null) {
+			if (buffer.size() + len < threshold) {
+				buffer.write(b, off, len);
+				return;
+			}
+			startEncoding();
+		}
+		encoder.write(b, off, len);
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		if (encoder != null) {
+			encoder.flush();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		
+		if (buffer != null) {
+			byte[] content = buffer.toByteArray();
+			buffer = null;
+			exchange.sendResponseHeaders(code, content.length == 0 ? -1 : content.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(content);
+			}
+			return;
+		}
+		
+		encoder.close();
+		if (coding != ContentCoding.IDENTITY) {
+			metrics.recordCompression(coding.getValue(), written, sent.count);
+		}
+	}
+	
+	/**
+	 * Sends the response headers, and writes what has been buffered so far through the encoder.
+	 */
+	private void startEncoding() throws IOException {
+		byte[] prefix = buffer.toByteArray();
+		buffer = null;
+		if (coding != ContentCoding.IDENTITY) {
+			exchange.getResponseHeaders().set("Content-Encoding", coding.getValue());
+		}
+		exchange.sendResponseHeaders(code, 0);
+		
+		sent = new CountingOutputStream(exchange.getResponseBody());
+		encoder = coding.encode(sent);
+		encoder.write(prefix);
+	}
+}
@@ -0,0 +1,22 @@
+package handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.jetbrains.annotations.NotNull;
+import transport.HTTPSerialization;
+
+import java.io.IOException;
+
+/**
+ * Objects that inherit from this type send themselves to the client, choosing their own status
+ * code, headers and body bytes. Use this for payloads that are not UTF-8 text, or that depend on
+ * the request's headers.
+ */
+public interface ExchangeSerialization extends HTTPSerialization {
+	/**
+	 * Sends the response headers and body, and closes the exchange's response body.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @throws IOException An exception if the response could not be sent.
+	 */
+	public void writeTo(@NotNull HttpExchange exchange) throws IOException;
+}
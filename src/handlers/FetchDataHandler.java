@@ -1,5 +1,7 @@
 package handlers;
 
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
 import dao.DatabaseTable;
 import database.Database;
 import database.DataAccessException;
@@ -9,15 +11,16 @@ import model.Person;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import responses.FetchDataResponse;
-import responses.FetchMultipleItemsResponse;
 import responses.FetchSingleEventResponse;
 import responses.FetchSinglePersonResponse;
 import server.Server;
+import services.DataVersions;
 import services.FetchDataFailureReason;
 import services.FetchDataResult;
 import services.FetchDataService;
 import utilities.Pair;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +30,10 @@ import java.util.regex.Pattern;
  * An object that handles data-fetch requests.
  */
 public class FetchDataHandler extends Handler<FetchDataResponse> {
+	/**
+	 * Clients may keep fetched data, but must check with us that it is current before using it.
+	 */
+	static final String CACHE_CONTROL = "private, no-cache";
 	
 	public FetchDataHandler() {
 		super();
@@ -46,6 +53,60 @@ public class FetchDataHandler extends Handler<FetchDataResponse> {
 		return true;
 	}
 	
+	/**
+	 * Answers with <code>304</code> (Not Modified), without reading the database, if the
+	 * client's copy of the user's data is current. Otherwise, tags the response with the
+	 * version of the user's data.
+	 */
+	@Override
+	public @NotNull FetchDataResponse run(
+		@NotNull HttpExchange exchange,
+		@NotNull String path,
+		@Nullable String userName
+	) throws DataAccessException, HandlingFailureException, IOException {
+		if (userName == null) {
+			return super.run(exchange, path, null);
+		}
+		
+		// Read the version before the data, so that a concurrent write can only make the tag
+		// older than the data, never newer.
+		String entityTag = DataVersions.forDatabase(database).getEntityTag(userName);
+		if (matchesEntityTag(exchange.getRequestHeaders().getFirst("If-None-Match"), entityTag)) {
+			return new NotModifiedResponse(entityTag);
+		}
+		
+		FetchDataResponse response = super.run(exchange, path, userName);
+		Headers responseHeaders = exchange.getResponseHeaders();
+		responseHeaders.set("ETag", entityTag);
+		responseHeaders.set("Cache-Control", CACHE_CONTROL);
+		return response;
+	}
+	
+	/**
+	 * Compares the tags in an <code>If-None-Match</code> header with the given tag, using the
+	 * weak comparison that RFC 7232 requires.
+	 *
+	 * @param ifNoneMatch The value of the request's <code>If-None-Match</code> header.
+	 * @param entityTag The current entity tag.
+	 * @return <code>true</code> if any of the header's tags matches.
+	 */
+	static boolean matchesEntityTag(@Nullable String ifNoneMatch, @NotNull String entityTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String opaqueTag = entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	@Override
 	public @NotNull FetchDataResponse run(
 		@NotNull String path,
@@ -74,10 +135,8 @@ public class FetchDataHandler extends Handler<FetchDataResponse> {
 				}
 				
 				// Path: /person
-				return new FetchMultipleItemsResponse<>(
-					listAllPeople(userName)
-				);
-				
+				return streamAll(DatabaseTable.PERSON, userName);
+			
 			case "event":
 				if (id != null) {
 					// Path: /event/{eventID}
@@ -85,10 +144,8 @@ public class FetchDataHandler extends Handler<FetchDataResponse> {
 				}
 				
 				// Path: /event
-				return new FetchMultipleItemsResponse<>(
-					listAllEvents(userName)
-				);
-				
+				return streamAll(DatabaseTable.EVENT, userName);
+			
 			default:
 				throw new HandlingFailureException(
 					HandlingFailureReason.BAD_INPUT,
@@ -224,6 +281,24 @@ public class FetchDataHandler extends Handler<FetchDataResponse> {
 	
 	// ** Listing Multiple Records
 	
+	/**
+	 * Prepares a response that lists every stored entry of the given type for the current user.
+	 * Entries are read from the database while the response is being written.
+	 *
+	 * @param table The type of entry to list. Must be <code>PERSON</code> or <code>EVENT</code>.
+	 * @param userName The ID of the current user.
+	 * @param <T> The model type of the entries.
+	 * @return A response that streams the entries.
+	 */
+	private <T extends ModelData> @NotNull StreamingFetchResponse<T> streamAll(
+		@NotNull DatabaseTable table,
+		@NotNull String userName
+	) {
+		FetchDataRequest request = new FetchDataRequest(table, userName);
+		FetchDataService service = new FetchDataService(database);
+		return new StreamingFetchResponse<>(consumer -> service.stream(request, consumer));
+	}
+	
 	/**
 	 * Attempts to fetch data about all stored <code>Person</code> entries for the current user.
 	 *
@@ -1,21 +1,42 @@
 package handlers;
 
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import dao.DatabaseTable;
+import database.Database;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import server.Server;
-import utilities.FileHelpers;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * An object that handles file requests.
  */
 public class FileHandler extends Handler<FileResponse> {
+	public static final String HTML_ROOT = "web/";
+	private static final String NOT_FOUND_PAGE = "HTML/404.html";
+	
+	private final @NotNull AssetCache assets;
+	
 	public FileHandler() {
 		super();
+		this.assets = new AssetCache(new File(HTML_ROOT));
+	}
+	
+	public FileHandler(@NotNull Database<DatabaseTable> database) {
+		this(database, new AssetCache(new File(HTML_ROOT)));
+	}
+	
+	public FileHandler(@NotNull Database<DatabaseTable> database, @NotNull AssetCache assets) {
+		super(database);
+		this.assets = assets;
 	}
 	
 	@Override
@@ -28,6 +49,15 @@ public class FileHandler extends Handler<FileResponse> {
 		return false;
 	}
 	
+	@Override
+	public @NotNull FileResponse run(
+		@NotNull HttpExchange exchange,
+		@NotNull String path,
+		@Nullable String userName
+	) throws IOException {
+		return read(path, exchange.getRequestHeaders());
+	}
+	
 	@Override
 	public @NotNull FileResponse run(
 		@NotNull String path,
@@ -38,32 +68,112 @@ public class FileHandler extends Handler<FileResponse> {
 	}
 	
 	public @NotNull FileResponse read(@NotNull String path) throws IOException {
+		return read(path, new Headers());
+	}
+	
+	/**
+	 * Reads the file at the given path relative to the HTML root, and prepares the response that
+	 * best suits the request's conditional and encoding headers.
+	 *
+	 * @param path The request's path string.
+	 * @param requestHeaders The request's headers.
+	 * @return The file, or a <code>304</code> (Not Modified) response if the client's copy is
+	 * current, or the 404 page if there is no such file.
+	 * @throws IOException An exception if the file could not be read.
+	 */
+	public @NotNull FileResponse read(@NotNull String path, @NotNull Headers requestHeaders) throws IOException {
 		if (path.equals("/")) {
 			path = "index.html";
 		}
 		
-		// Read the file at the given path relative to /web
-		File htmlRoot = new File("web/").getAbsoluteFile();
-		File file = new File(htmlRoot, path).getAbsoluteFile();
-		
+		StaticAsset asset;
 		try {
-			Server.logger.finer("Filling web request at path '" + file.getPath() + "'");
-			if (!fileIsDescendantOfOther(htmlRoot, file)) {
-				throw new FileNotFoundException("Callers cannot access files outside of the HTML root");
-			}
-			String content = FileHelpers.stringFromFile(file);
-			return new FileResponse(content);
+			Server.logger.finer("Filling web request at path '" + path + "'");
+			asset = assets.get(path);
 			
 		} catch (FileNotFoundException e) {
 			Server.logger.finer("File not found.");
-			file = new File(htmlRoot, "HTML/404.html").getAbsoluteFile();
-			String content = FileHelpers.stringFromFile(file);
-			return new FileResponse(content, HttpURLConnection.HTTP_NOT_FOUND);
+			asset = assets.get(NOT_FOUND_PAGE);
+			return new FileResponse(asset, HttpURLConnection.HTTP_NOT_FOUND, false);
+		}
+		
+		boolean gzipped = asset.getGzippedContent() != null &&
+			ContentCoding.negotiate(requestHeaders.getFirst("Accept-Encoding"), ContentCoding.GZIP) == ContentCoding.GZIP;
+		if (isNotModified(asset, requestHeaders)) {
+			return new FileResponse(asset, HttpURLConnection.HTTP_NOT_MODIFIED, gzipped);
 		}
+		
+		// Ranges are always served from the file's own bytes, never from a gzipped copy.
+		String rangeHeader = requestHeaders.getFirst("Range");
+		if (rangeHeader != null && isRangeCurrent(asset, requestHeaders)) {
+			try {
+				ByteRange range = ByteRange.parse(rangeHeader, asset.getLength());
+				if (range != null) {
+					return new FileResponse(asset, range);
+				}
+			} catch (UnsatisfiableRangeException e) {
+				return new FileResponse(asset, FileResponse.HTTP_RANGE_NOT_SATISFIABLE, false);
+			}
+		}
+		return new FileResponse(asset, HttpURLConnection.HTTP_OK, gzipped);
 	}
 	
-	private boolean fileIsDescendantOfOther(@NotNull File parent, @NotNull File child) {
-		// Child must start with the parent path.
-		return child.getPath().startsWith(parent.getPath());
+	/**
+	 * Checks the request's <code>If-Range</code> header, if any, against the given asset.
+	 *
+	 * @return <code>true</code> if a requested range may be sent, or <code>false</code> if the
+	 * client's copy is out of date, so the whole asset should be sent instead.
+	 */
+	private boolean isRangeCurrent(@NotNull StaticAsset asset, @NotNull Headers requestHeaders) {
+		String ifRange = requestHeaders.getFirst("If-Range");
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"")) {
+			return ifRange.equals(asset.getEntityTag());
+		}
+		Long date = parseHttpDate(ifRange);
+		return date != null && date == asset.getLastModified();
+	}
+	
+	private static @Nullable Long parseHttpDate(@NotNull String value) {
+		try {
+			return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Checks the request's validators against the given asset. <code>If-None-Match</code> takes
+	 * precedence over <code>If-Modified-Since</code>, as RFC 7232 requires.
+	 *
+	 * @return <code>true</code> if the client already has the current asset.
+	 */
+	private boolean isNotModified(@NotNull StaticAsset asset, @NotNull Headers requestHeaders) {
+		String ifNoneMatch = requestHeaders.getFirst("If-None-Match");
+		if (ifNoneMatch != null) {
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/")) {
+					tag = tag.substring(2);
+				}
+				if (tag.equals("*") ||
+					tag.equals(asset.getEntityTag()) ||
+					tag.equals(asset.getGzippedEntityTag())
+				) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		String ifModifiedSince = requestHeaders.getFirst("If-Modified-Since");
+		if (ifModifiedSince != null) {
+			Long since = parseHttpDate(ifModifiedSince);
+			return since != null && asset.getLastModified() <= since;
+		}
+		return false;
 	}
 }
@@ -0,0 +1,88 @@
+package handlers;
+
+import com.sun.net.httpserver.Headers;
+import dao.DatabaseTable;
+import database.Database;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileHandlerTest {
+	private Database<DatabaseTable> db;
+	private AssetCache assets;
+	private FileHandler handler;
+	
+	@BeforeEach
+	void setUp() {
+		db = new Database<>(Database.TEST_DATABASE_NAME, DatabaseTable.values());
+		assets = new AssetCache(new File(FileHandler.HTML_ROOT));
+		handler = new FileHandler(db, assets);
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		// Stop the cache's file watcher thread.
+		assets.close();
+		db.close();
+	}
+	
+	@Test
+	void testRead_servesIndexAtRoot() throws IOException {
+		FileResponse response = handler.read("/");
+		assertEquals(HttpURLConnection.HTTP_OK, response.httpResultCode());
+		assertEquals("text/html; charset=UTF-8", response.contentType());
+		assertTrue(response.serialize().contains("\n"), "Line breaks should be preserved");
+	}
+	
+	@Test
+	void testRead_servesNotFoundPage() throws IOException {
+		FileResponse response = handler.read("/nothing_here.html");
+		assertEquals(HttpURLConnection.HTTP_NOT_FOUND, response.httpResultCode());
+	}
+	
+	@Test
+	void testRead_returnsNotModifiedForMatchingEntityTag() throws IOException {
+		FileResponse first = handler.read("/css/main.css");
+		Headers headers = new Headers();
+		headers.set("If-None-Match", "\"something-else\", " + first.entityTag());
+		assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, handler.read("/css/main.css", headers).httpResultCode());
+		
+		headers.set("If-None-Match", "\"something-else\"");
+		assertEquals(HttpURLConnection.HTTP_OK, handler.read("/css/main.css", headers).httpResultCode());
+	}
+	
+	@Test
+	void testRead_prefersGzipWhenAccepted() throws IOException {
+		Headers headers = new Headers();
+		headers.set("Accept-Encoding", "deflate, gzip;q=0.8");
+		FileResponse gzipped = handler.read("/css/main.css", headers);
+		assertTrue(gzipped.entityTag().endsWith("-gzip\""));
+		
+		headers.set("Accept-Encoding", "gzip;q=0");
+		FileResponse identity = handler.read("/css/main.css", headers);
+		assertFalse(identity.entityTag().endsWith("-gzip\""));
+	}
+	
+	@Test
+	void testRead_servesRequestedRange() throws IOException {
+		Headers headers = new Headers();
+		headers.set("Accept-Encoding", "gzip");
+		headers.set("Range", "bytes=0-9");
+		FileResponse partial = handler.read("/css/main.css", headers);
+		assertEquals(HttpURLConnection.HTTP_PARTIAL, partial.httpResultCode());
+		assertFalse(partial.entityTag().endsWith("-gzip\""), "Ranges should not be gzipped");
+		
+		headers.set("If-Range", "\"stale\"");
+		assertEquals(HttpURLConnection.HTTP_OK, handler.read("/css/main.css", headers).httpResultCode());
+		
+		headers.remove("If-Range");
+		headers.set("Range", "bytes=999999999-");
+		assertEquals(FileResponse.HTTP_RANGE_NOT_SATISFIABLE, handler.read("/css/main.css", headers).httpResultCode());
+	}
+}
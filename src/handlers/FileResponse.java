@@ -1,35 +1,171 @@
 package handlers;
 
-import transport.HTTPSerialization;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import server.Metrics;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
-public class FileResponse implements HTTPSerialization {
-	private final @NotNull String content;
+/**
+ * A static file, or a range of its bytes, sent to the client byte for byte with caching
+ * headers and an exact <code>Content-Length</code>.
+ */
+public class FileResponse implements ExchangeSerialization {
+	public static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+	
+	private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+		.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+		.withZone(ZoneOffset.UTC);
+	
+	private final @NotNull StaticAsset asset;
 	private final int httpCode;
+	private final boolean gzipped;
+	private final @Nullable ByteRange range;
+	
+	public FileResponse(@NotNull StaticAsset asset) {
+		this(asset, HttpURLConnection.HTTP_OK, false);
+	}
 	
-	public FileResponse(@NotNull String content) {
-		this(content, HttpURLConnection.HTTP_OK);
+	/**
+	 * Creates a <code>FileResponse</code> object that sends part of the given file with a
+	 * <code>206</code> (Partial Content) code.
+	 *
+	 * @param asset The file to send.
+	 * @param range The range of bytes to send.
+	 */
+	public FileResponse(@NotNull StaticAsset asset, @NotNull ByteRange range) {
+		this.asset = asset;
+		this.httpCode = HttpURLConnection.HTTP_PARTIAL;
+		this.gzipped = false;
+		this.range = range;
 	}
 	
-	public FileResponse(@NotNull String content, int httpCode) {
-		this.content = content;
+	/**
+	 * Creates a <code>FileResponse</code> object.
+	 *
+	 * @param asset The file to send.
+	 * @param httpCode The HTTP response code to send. If this is <code>304</code> (Not Modified)
+	 *                 or <code>416</code> (Range Not Satisfiable), then only the headers are sent.
+	 * @param gzipped Whether to send the asset's gzipped contents.
+	 */
+	public FileResponse(@NotNull StaticAsset asset, int httpCode, boolean gzipped) {
+		if (gzipped && asset.getGzippedContent() == null) {
+			throw new IllegalArgumentException("The asset has no gzipped contents");
+		}
+		this.asset = asset;
 		this.httpCode = httpCode;
+		this.gzipped = gzipped;
+		this.range = null;
+	}
+	
+	/**
+	 * Formats the given time as an HTTP date.
+	 *
+	 * @param millis The time in milliseconds since the epoch.
+	 * @return A date such as <code>"Sat, 28 Nov 2020 17:04:12 GMT"</code>.
+	 */
+	public static @NotNull String httpDate(long millis) {
+		return HTTP_DATE.format(Instant.ofEpochMilli(millis));
 	}
 	
 	@Override
 	public @NotNull String serialize() {
-		return content;
+		try {
+			return new String(asset.getContent(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 	
 	@Override
 	public @NotNull String contentType() {
-		return "text/html";
+		return asset.getContentType();
 	}
 	
 	@Override
 	public int httpResultCode() {
 		return this.httpCode;
 	}
+	
+	/**
+	 * @return The entity tag of the representation this response sends.
+	 */
+	public @NotNull String entityTag() {
+		return gzipped ? asset.getGzippedEntityTag() : asset.getEntityTag();
+	}
+	
+	@Override
+	public void writeTo(@NotNull HttpExchange exchange) throws IOException {
+		Headers headers = exchange.getResponseHeaders();
+		headers.set("Content-Type", asset.getContentType());
+		headers.set("Accept-Ranges", "bytes");
+		if (asset.getGzippedContent() != null) {
+			headers.set("Vary", "Accept-Encoding");
+		}
+		
+		if (httpCode == HttpURLConnection.HTTP_OK ||
+			httpCode == HttpURLConnection.HTTP_PARTIAL ||
+			httpCode == HttpURLConnection.HTTP_NOT_MODIFIED
+		) {
+			headers.set("ETag", entityTag());
+			headers.set("Last-Modified", httpDate(asset.getLastModified()));
+			headers.set("Cache-Control", cacheControl());
+		} else {
+			headers.set("Cache-Control", "no-store");
+		}
+		
+		if (httpCode == HTTP_RANGE_NOT_SATISFIABLE) {
+			headers.set("Content-Range", "bytes */" + asset.getLength());
+		}
+		if (httpCode == HttpURLConnection.HTTP_NOT_MODIFIED || httpCode == HTTP_RANGE_NOT_SATISFIABLE) {
+			exchange.sendResponseHeaders(httpCode, -1);
+			exchange.close();
+			return;
+		}
+		
+		byte[] gzippedContent = asset.getGzippedContent();
+		if (gzipped && gzippedContent != null) {
+			headers.set("Content-Encoding", ContentCoding.GZIP.getValue());
+			Metrics.getShared().forEndpoint(exchange.getHttpContext().getPath())
+				.recordCompression(ContentCoding.GZIP.getValue(), asset.getLength(), gzippedContent.length);
+			exchange.sendResponseHeaders(httpCode, gzippedContent.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(gzippedContent);
+			}
+			return;
+		}
+		
+		long start = 0;
+		long count = asset.getLength();
+		if (range != null) {
+			headers.set("Content-Range", range.contentRange(asset.getLength()));
+			start = range.getStart();
+			count = range.getLength();
+		}
+		exchange.sendResponseHeaders(httpCode, count == 0 ? -1 : count);
+		try (OutputStream out = exchange.getResponseBody()) {
+			asset.writeTo(out, start, count);
+		}
+	}
+	
+	/**
+	 * Pages are always revalidated, so that edits show up immediately. The files they link to
+	 * may be reused for a few minutes without asking.
+	 */
+	private @NotNull String cacheControl() {
+		if (asset.getContentType().startsWith("text/html")) {
+			return "no-cache";
+		}
+		return "public, max-age=300";
+	}
 }
@@ -12,19 +12,36 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 /**
  * An object that handles database-fill requests.
  */
 public class FillHandler extends Handler<FillResponse> {
+	private final @NotNull ForkJoinPool generationPool;
 	
 	public FillHandler() {
 		super();
+		this.generationPool = ForkJoinPool.commonPool();
 	}
 	
 	public FillHandler(@NotNull Database<DatabaseTable> database) {
+		this(database, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Creates a <code>FillHandler</code> object.
+	 *
+	 * @param database The database to fill.
+	 * @param generationPool The pool on which to build large family trees.
+	 */
+	public FillHandler(
+		@NotNull Database<DatabaseTable> database,
+		@NotNull ForkJoinPool generationPool
+	) {
 		super(database);
+		this.generationPool = generationPool;
 	}
 	
 	@Override
@@ -94,7 +111,7 @@ public class FillHandler extends Handler<FillResponse> {
 		assert generationCount >= 0;
 		assert !username.isEmpty();
 		
-		FillService service = new FillService(database);
+		FillService service = new FillService(database, generationPool);
 		FillResult result = service.fill(username, generationCount);
 		
 		if (result.getFailureReason() != null) {
@@ -12,9 +12,14 @@ import model.AuthToken;
 import transport.HTTPSerialization;
 import transport.JSONSerialization;
 import transport.MissingKeyException;
+import transport.StreamingSerialization;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import server.EndpointMetrics;
+import server.Metrics;
+import server.RequestExecutor;
 import server.Server;
+import services.AuthTokenCache;
 
 import java.io.*;
 import java.net.HttpURLConnection;
@@ -27,6 +32,13 @@ import java.util.concurrent.atomic.AtomicReference;
  * @param <Response> The type of serializable response that this handler can return to callers.
  */
 public abstract class Handler<Response extends HTTPSerialization> implements HttpHandler {
+	/**
+	 * Response bodies smaller than this, in bytes, are not worth compressing.
+	 */
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+	
+	private static volatile int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+	
 	protected final @NotNull Database<DatabaseTable> database;
 	
 	public Handler() {
@@ -38,6 +50,19 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 		this.database = database;
 	}
 	
+	/**
+	 * Sets the size below which response bodies are sent without compression.
+	 *
+	 * @param bytes The threshold in bytes. If this is 0, then every body is compressed when the
+	 *              client accepts it.
+	 */
+	public static void setCompressionThreshold(int bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Compression threshold must be positive or 0");
+		}
+		compressionThreshold = bytes;
+	}
+	
 	
 	
 	
@@ -76,6 +101,48 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 	
 	
 	
+	/**
+	 * Called by the default handler after appropriate checks have completed, with the request
+	 * body still unread. The default implementation reads the whole body into a string and
+	 * calls <code>run(path, userName, req)</code>. Override this to consume the body as it
+	 * arrives instead.
+	 *
+	 * @param path The request's path string.
+	 * @param userName The ID of the signed-in user, or <code>null</code> if the user is not signed in.
+	 * @param body The request body.
+	 * @return The serializable response that should be sent back to the client.
+	 * @throws DataAccessException An exception if there was a problem accessing the database.
+	 * @throws HandlingFailureException An exception if there was a problem handling the request.
+	 * @throws IOException An exception if there was a problem reading the request body or accessing the local disk.
+	 */
+	public @NotNull Response run(@NotNull String path, @Nullable String userName, @NotNull InputStream body) throws DataAccessException, HandlingFailureException, IOException {
+		String json = getContent(body);
+		Server.logger.fine("[" + this.getClass().getName() + "] Request payload: " + json);
+		return this.run(path, userName, json);
+	}
+	
+	
+	
+	/**
+	 * Called by the default handler after appropriate checks have completed, with the whole
+	 * exchange at hand. The default implementation calls <code>run(path, userName, body)</code>
+	 * with the request body. Override this to read the request's headers. The response must
+	 * still be returned rather than sent.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @param path The request's path string.
+	 * @param userName The ID of the signed-in user, or <code>null</code> if the user is not signed in.
+	 * @return The serializable response that should be sent back to the client.
+	 * @throws DataAccessException An exception if there was a problem accessing the database.
+	 * @throws HandlingFailureException An exception if there was a problem handling the request.
+	 * @throws IOException An exception if there was a problem reading the request body or accessing the local disk.
+	 */
+	public @NotNull Response run(@NotNull HttpExchange exchange, @NotNull String path, @Nullable String userName) throws DataAccessException, HandlingFailureException, IOException {
+		return this.run(path, userName, exchange.getRequestBody());
+	}
+	
+	
+	
 	
 	
 	
@@ -127,7 +194,7 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 	
 	
 	/**
-	 * Checks the database for a user that matches the given auth token.
+	 * Checks the token cache, and then the database, for a user that matches the given auth token.
 	 *
 	 * @param authToken The token to check.
 	 * @throws DataAccessException An exception if there was a problem accessing the database.
@@ -139,13 +206,22 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 		if (authToken == null) {
 			return null;
 		}
+		AuthTokenCache cache = AuthTokenCache.forDatabase(database);
+		String cachedUsername = cache.usernameForToken(authToken);
+		if (cachedUsername != null) {
+			return cachedUsername;
+		}
+		
+		// A wipe that commits while we read must keep the token we found out of the cache.
+		long generation = cache.getGeneration();
 		AtomicReference<AuthToken> token = new AtomicReference<>(null);
-		database.runTransaction(conn -> {
+		database.runReadTransaction(conn -> {
 			AuthTokenDao dao = new AuthTokenDao(conn);
 			token.set(dao.find(authToken));
 			return false;
 		});
 		if (token.get() != null && token.get().isValid()) {
+			cache.put(token.get(), generation);
 			return token.get().getAssociatedUsername();
 		}
 		return null;
@@ -169,16 +245,103 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 		@NotNull T res,
 		int code
 	) throws IOException {
+		if (res instanceof ExchangeSerialization) {
+			Server.logger.fine("Closing with code " + code + " and a direct payload");
+			((ExchangeSerialization) res).writeTo(exchange);
+			return;
+		}
+		if (res instanceof StreamingSerialization) {
+			this.closeWithStream(exchange, (StreamingSerialization) res, code);
+			return;
+		}
+		
 		String payload = res.serialize();
 		Server.logger.fine("Closing with code " + code + ": " + payload);
 		Headers responseHeaders = exchange.getResponseHeaders();
 		responseHeaders.set("Content-Type", res.contentType() + "; charset=UTF-8");
-		exchange.sendResponseHeaders(code, 0);
+		responseHeaders.set("Vary", "Accept-Encoding");
+		byte[] body = payload.getBytes(StandardCharsets.UTF_8);
 		
-		OutputStreamWriter sw = new OutputStreamWriter(exchange.getResponseBody());
-		sw.write(payload);
-		sw.flush();
-		exchange.getResponseBody().close();
+		ContentCoding coding = negotiateCoding(exchange);
+		if (coding != ContentCoding.IDENTITY && body.length >= compressionThreshold) {
+			byte[] encoded = coding.encode(body);
+			if (encoded.length < body.length) {
+				endpointMetrics(exchange).recordCompression(coding.getValue(), body.length, encoded.length);
+				responseHeaders.set("Content-Encoding", coding.getValue());
+				body = encoded;
+			}
+		}
+		exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+		
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+	
+	
+	
+	
+	
+	
+	/**
+	 * Closes the given <code>exchange</code> with the given response payload, written to the
+	 * client as it is produced. Payloads that reach the compression threshold are compressed
+	 * and sent using chunked transfer encoding.
+	 *
+	 * If the payload fails before anything has been sent, the client gets an internal error.
+	 * If it fails partway through, the status code has already been sent, so the exchange is
+	 * closed with a truncated body instead.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @param res The response object to stream.
+	 * @param code The HTTP response code to send.
+	 * @throws IOException An exception if there is an error sending the response headers.
+	 */
+	private void closeWithStream(
+		@NotNull HttpExchange exchange,
+		@NotNull StreamingSerialization res,
+		int code
+	) throws IOException {
+		Server.logger.fine("Closing with code " + code + " and a streamed payload");
+		Headers responseHeaders = exchange.getResponseHeaders();
+		responseHeaders.set("Content-Type", res.contentType() + "; charset=UTF-8");
+		responseHeaders.set("Vary", "Accept-Encoding");
+		
+		EncodedResponseBody body = new EncodedResponseBody(
+			exchange,
+			code,
+			negotiateCoding(exchange),
+			compressionThreshold,
+			endpointMetrics(exchange)
+		);
+		try {
+			res.writeTo(body);
+			body.close();
+		} catch (IOException e) {
+			Server.logger.warning("Failed to stream response: " + e.getMessage());
+			if (body.hasSentHeaders()) {
+				exchange.close();
+			} else {
+				this.closeWithInternalError(exchange);
+			}
+		}
+	}
+	
+	
+	
+	/**
+	 * @return The coding that the client prefers for the response body.
+	 */
+	private static @NotNull ContentCoding negotiateCoding(@NotNull HttpExchange exchange) {
+		return ContentCoding.negotiate(
+			exchange.getRequestHeaders().getFirst("Accept-Encoding"),
+			ContentCoding.GZIP,
+			ContentCoding.DEFLATE
+		);
+	}
+	
+	private static @NotNull EndpointMetrics endpointMetrics(@NotNull HttpExchange exchange) {
+		return Metrics.getShared().forEndpoint(exchange.getHttpContext().getPath());
 	}
 	
 	
@@ -246,13 +409,13 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 	/**
 	 * Gets the request body as a string.
 	 *
-	 * @param exchange The HTTP exchange to query.
+	 * @param body The request body stream.
 	 * @return The request body.
-	 * @throws IOException An exception if there was a problem reading from the response body.
+	 * @throws IOException An exception if there was a problem reading from the request body.
 	 */
-	private @NotNull String getContent(@NotNull HttpExchange exchange) throws IOException {
+	private @NotNull String getContent(@NotNull InputStream body) throws IOException {
 		BufferedReader httpInput = new BufferedReader(new InputStreamReader(
-			exchange.getRequestBody(),
+			body,
 			StandardCharsets.UTF_8
 		));
 		StringBuilder in = new StringBuilder();
@@ -270,6 +433,25 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 	
 	@Override
 	public final void handle(HttpExchange exchange) throws IOException {
+		EndpointMetrics metrics = endpointMetrics(exchange);
+		metrics.begin();
+		long start = System.nanoTime();
+		try {
+			this.respond(exchange);
+		} finally {
+			metrics.end(exchange.getResponseCode(), System.nanoTime() - start);
+		}
+	}
+	
+	
+	
+	/**
+	 * Checks the request, runs the handler's primary operation, and sends its response.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @throws IOException An exception if there is an error sending the response.
+	 */
+	private void respond(@NotNull HttpExchange exchange) throws IOException {
 		// Construct and return the HTTP response
 		
 		try { // catch IO errors
@@ -277,6 +459,15 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 			
 			try { // catch Database errors
 				
+				// If the server is saturated, turn the request away
+				if (RequestExecutor.isShedding()) {
+					exchange.getResponseHeaders().set("Retry-After", "1");
+					this.closeWithError(exchange, HttpURLConnection.HTTP_UNAVAILABLE,
+						"The server is too busy to handle this request. Try again later."
+					);
+					return;
+				}
+				
 				// If we've got the right method...
 				String expectedMethod = this.expectedHTTPMethod();
 				if (expectedMethod != null) {
@@ -294,12 +485,10 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 				}
 				
 				String path = exchange.getRequestURI().getPath();
-				String json = getContent(exchange);
 				
 				Server.logger.fine("[" + this.getClass().getName() + "] " +
 					"Handling " + exchange.getRequestMethod().toUpperCase() + " request at path " +
-					path + ": " +
-					json
+					path
 				);
 				
 				if (requiresAuthToken()) {
@@ -327,10 +516,10 @@ public abstract class Handler<Response extends HTTPSerialization> implements Htt
 					}
 					
 					// Got a valid token. Do the thing!
-					resp = this.run(path, userName, json);
+					resp = this.run(exchange, path, userName);
 				} else {
 					// No token needed. Do the thing!
-					resp = this.run(path, null, json);
+					resp = this.run(exchange, path, null);
 				}
 				
 			} catch (DataAccessException e) {
@@ -3,11 +3,22 @@ package handlers;
 import dao.DatabaseTable;
 import database.DataAccessException;
 import database.Database;
+import com.google.gson.JsonParseException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import requests.LoadRequest;
+import requests.LoadRequestReader;
 import services.LoadResult;
 import services.LoadService;
+import transport.MissingKeyException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * An object that handles clear-then-load requests.
@@ -48,4 +59,38 @@ public class LoadHandler extends Handler<LoadResponse> {
 			result.getEventCount()
 		);
 	}
+	
+	/**
+	 * Loads entries from the request body without reading the whole payload into memory. The
+	 * body is first copied to a temporary file, so that the write transaction is never held open
+	 * while we wait on the client to send the rest of it.
+	 */
+	@Override
+	public @NotNull LoadResponse run(@NotNull String path, @Nullable String userName, @NotNull InputStream body) throws DataAccessException, HandlingFailureException, IOException {
+		LoadService service = new LoadService(database);
+		LoadResult result;
+		
+		Path payload = Files.createTempFile("familymap-load", ".json");
+		try {
+			Files.copy(body, payload, StandardCopyOption.REPLACE_EXISTING);
+			try (LoadRequestReader reader = new LoadRequestReader(
+				new InputStreamReader(Files.newInputStream(payload), StandardCharsets.UTF_8)
+			)) {
+				result = service.load(reader);
+			} catch (JsonParseException e) {
+				throw new HandlingFailureException(e);
+			} catch (MissingKeyException e) {
+				throw new HandlingFailureException(HandlingFailureReason.BAD_INPUT, e);
+			}
+			
+		} finally {
+			Files.deleteIfExists(payload);
+		}
+		
+		return new LoadResponse(
+			result.getUserCount(),
+			result.getPersonCount(),
+			result.getEventCount()
+		);
+	}
 }
@@ -0,0 +1,38 @@
+package handlers;
+
+import dao.DatabaseTable;
+import database.Database;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import server.Metrics;
+
+/**
+ * An object that handles requests for the server's metrics.
+ */
+public class MetricsHandler extends Handler<MetricsResponse> {
+	private final @NotNull Metrics metrics;
+	
+	public MetricsHandler(@NotNull Database<DatabaseTable> database) {
+		this(database, Metrics.getShared());
+	}
+	
+	public MetricsHandler(@NotNull Database<DatabaseTable> database, @NotNull Metrics metrics) {
+		super(database);
+		this.metrics = metrics;
+	}
+	
+	@Override
+	public @NotNull String expectedHTTPMethod() {
+		return "GET";
+	}
+	
+	@Override
+	public boolean requiresAuthToken() {
+		return false;
+	}
+	
+	@Override
+	public @NotNull MetricsResponse run(@NotNull String path, @Nullable String userName, @NotNull String req) {
+		return new MetricsResponse(metrics.toPrometheusText());
+	}
+}
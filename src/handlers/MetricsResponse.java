@@ -0,0 +1,25 @@
+package handlers;
+
+import org.jetbrains.annotations.NotNull;
+import transport.HTTPSerialization;
+
+/**
+ * A snapshot of the server's metrics, in the Prometheus text format.
+ */
+public class MetricsResponse implements HTTPSerialization {
+	private final @NotNull String text;
+	
+	public MetricsResponse(@NotNull String text) {
+		this.text = text;
+	}
+	
+	@Override
+	public @NotNull String serialize() {
+		return text;
+	}
+	
+	@Override
+	public @NotNull String contentType() {
+		return "text/plain; version=0.0.4";
+	}
+}
@@ -0,0 +1,42 @@
+package handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.jetbrains.annotations.NotNull;
+import responses.FetchDataResponse;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * A <code>304</code> (Not Modified) answer to a data-fetch request, which tells the client that
+ * its copy of the data is still current.
+ */
+public class NotModifiedResponse extends FetchDataResponse implements ExchangeSerialization {
+	private final transient @NotNull String entityTag;
+	
+	/**
+	 * Creates a <code>NotModifiedResponse</code> object.
+	 *
+	 * @param entityTag The entity tag of the current data, including its quotes.
+	 */
+	public NotModifiedResponse(@NotNull String entityTag) {
+		this.entityTag = entityTag;
+	}
+	
+	public @NotNull String getEntityTag() {
+		return entityTag;
+	}
+	
+	@Override
+	public int httpResultCode() {
+		return HttpURLConnection.HTTP_NOT_MODIFIED;
+	}
+	
+	@Override
+	public void writeTo(@NotNull HttpExchange exchange) throws IOException {
+		exchange.getResponseHeaders().set("ETag", entityTag);
+		exchange.getResponseHeaders().set("Cache-Control", FetchDataHandler.CACHE_CONTROL);
+		exchange.sendResponseHeaders(httpResultCode(), -1);
+		exchange.close();
+	}
+}
@@ -0,0 +1,282 @@
+package handlers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The contents of a static file, along with everything needed to serve it: its content type,
+ * a strong entity tag, its modification time, and a gzipped copy if the file compresses well.
+ *
+ * Small files are held in memory. Large files stay on disk, and are streamed from a
+ * <code>FileChannel</code> each time they are sent.
+ */
+public class StaticAsset {
+	/**
+	 * Files smaller than this are not worth compressing.
+	 */
+	public static final int MIN_GZIP_SIZE = 256;
+	
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+	private static final Map<String, String> CONTENT_TYPES = contentTypes();
+	
+	private final @NotNull String contentType;
+	private final @Nullable byte[] content;
+	private final @Nullable File file;
+	private final long length;
+	private final @Nullable byte[] gzippedContent;
+	private final @NotNull String entityTag;
+	private final long lastModified;
+	
+	/**
+	 * Creates a <code>StaticAsset</code> object.
+	 *
+	 * @param name The file name, whose extension determines the content type.
+	 * @param content The file's contents.
+	 * @param lastModified The time the file was last modified, in milliseconds since the epoch.
+	 */
+	public StaticAsset(@NotNull String name, @NotNull byte[] content, long lastModified) {
+		this.contentType = contentTypeForName(name);
+		this.content = content;
+		this.file = null;
+		this.length = content.length;
+		this.gzippedContent = isCompressible(contentType) ? gzip(content) : null;
+		this.entityTag = "\"" + digest(content) + "\"";
+		// HTTP dates only have one-second precision.
+		this.lastModified = lastModified - lastModified % 1000;
+	}
+	
+	/**
+	 * Reads the given file into a new asset.
+	 *
+	 * @param file The file to read.
+	 * @return A new asset.
+	 * @throws IOException An exception if the file could not be read.
+	 */
+	public static @NotNull StaticAsset fromFile(@NotNull File file) throws IOException {
+		long lastModified = file.lastModified();
+		byte[] content = Files.readAllBytes(file.toPath());
+		return new StaticAsset(file.getName(), content, lastModified);
+	}
+	
+	/**
+	 * Creates an asset that is read from the given file each time it is sent. Its entity tag is
+	 * derived from the file's size and modification time rather than its contents, and it has
+	 * no gzipped copy.
+	 *
+	 * @param file The file to serve.
+	 * @return A new asset.
+	 * @throws IOException An exception if the file's attributes could not be read.
+	 */
+	public static @NotNull StaticAsset onDisk(@NotNull File file) throws IOException {
+		return new StaticAsset(file);
+	}
+	
+	private StaticAsset(@NotNull File file) throws IOException {
+		long lastModified = file.lastModified();
+		this.contentType = contentTypeForName(file.getName());
+		this.content = null;
+		this.file = file;
+		this.length = Files.size(file.toPath());
+		this.gzippedContent = null;
+		this.entityTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+		this.lastModified = lastModified - lastModified % 1000;
+	}
+	
+	
+	
+	
+	/**
+	 * @return The MIME type of the asset, with a character set if the asset is text.
+	 */
+	public @NotNull String getContentType() {
+		return contentType;
+	}
+	
+	/**
+	 * @return The asset's contents. If the asset is on disk, then the whole file is read.
+	 * Do not modify the returned array.
+	 * @throws IOException An exception if the asset is on disk, and could not be read.
+	 */
+	public @NotNull byte[] getContent() throws IOException {
+		if (content == null) {
+			return Files.readAllBytes(file.toPath());
+		}
+		return content;
+	}
+	
+	/**
+	 * @return The size of the asset's contents, in bytes.
+	 */
+	public long getLength() {
+		return length;
+	}
+	
+	/**
+	 * @return <code>true</code> if the asset's contents are held in memory, or <code>false</code>
+	 * if they are read from disk each time they are sent.
+	 */
+	public boolean isInMemory() {
+		return content != null;
+	}
+	
+	/**
+	 * Writes part of the asset's contents to the given stream. Assets on disk are transferred
+	 * straight from the file's channel.
+	 *
+	 * @param out The stream to write to. It is not closed.
+	 * @param start The offset of the first byte to write.
+	 * @param count The number of bytes to write.
+	 * @throws IOException An exception if the file could not be read, or ended early, or if the
+	 * stream could not be written.
+	 */
+	public void writeTo(@NotNull OutputStream out, long start, long count) throws IOException {
+		if (start < 0 || count < 0 || start + count > length) {
+			throw new IndexOutOfBoundsException("Range " + start + "+" + count + " is outside 0-" + length);
+		}
+		if (content != null) {
+			out.write(content, (int) start, (int) count);
+			return;
+		}
+		
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(out);
+			long position = start;
+			long remaining = count;
+			while (remaining > 0) {
+				long transferred = channel.transferTo(position, remaining, target);
+				if (transferred <= 0) {
+					throw new EOFException("File " + file.getName() + " ended early");
+				}
+				position += transferred;
+				remaining -= transferred;
+			}
+		}
+	}
+	
+	/**
+	 * @return The asset's contents compressed with gzip, or <code>null</code> if the asset is
+	 * not worth compressing. Do not modify the returned array.
+	 */
+	public @Nullable byte[] getGzippedContent() {
+		return gzippedContent;
+	}
+	
+	/**
+	 * @return A strong entity tag, including its quotes, that changes whenever the asset's
+	 * contents change.
+	 */
+	public @NotNull String getEntityTag() {
+		return entityTag;
+	}
+	
+	/**
+	 * @return The entity tag of the asset's gzipped contents.
+	 */
+	public @NotNull String getGzippedEntityTag() {
+		return entityTag.substring(0, entityTag.length() - 1) + "-gzip\"";
+	}
+	
+	/**
+	 * @return The time the asset's file was last modified, in milliseconds since the epoch,
+	 * rounded down to the second.
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+	
+	
+	
+	
+	/**
+	 * Guesses a file's content type from its extension.
+	 *
+	 * @param name The file name.
+	 * @return A MIME type, with a character set if the file is text.
+	 */
+	public static @NotNull String contentTypeForName(@NotNull String name) {
+		int dot = name.lastIndexOf('.');
+		if (dot < 0) {
+			return DEFAULT_CONTENT_TYPE;
+		}
+		String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+		return CONTENT_TYPES.getOrDefault(extension, DEFAULT_CONTENT_TYPE);
+	}
+	
+	private static @NotNull Map<String, String> contentTypes() {
+		Map<String, String> types = new HashMap<>();
+		types.put("html", "text/html; charset=UTF-8");
+		types.put("htm", "text/html; charset=UTF-8");
+		types.put("css", "text/css; charset=UTF-8");
+		types.put("js", "application/javascript; charset=UTF-8");
+		types.put("json", "application/json; charset=UTF-8");
+		types.put("txt", "text/plain; charset=UTF-8");
+		types.put("svg", "image/svg+xml");
+		types.put("ico", "image/x-icon");
+		types.put("png", "image/png");
+		types.put("jpg", "image/jpeg");
+		types.put("jpeg", "image/jpeg");
+		types.put("gif", "image/gif");
+		return Collections.unmodifiableMap(types);
+	}
+	
+	private static boolean isCompressible(@NotNull String contentType) {
+		return contentType.startsWith("text/") ||
+			contentType.startsWith("application/javascript") ||
+			contentType.startsWith("application/json") ||
+			contentType.startsWith("image/svg+xml") ||
+			contentType.equals("image/x-icon");
+	}
+	
+	/**
+	 * Compresses the given bytes with gzip.
+	 *
+	 * @param content The bytes to compress.
+	 * @return The compressed bytes, or <code>null</code> if compressing would not save space.
+	 */
+	private static @Nullable byte[] gzip(@NotNull byte[] content) {
+		if (content.length < MIN_GZIP_SIZE) {
+			return null;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		} catch (IOException e) {
+			// We're writing to memory. This won't happen.
+			throw new IllegalStateException(e);
+		}
+		byte[] compressed = out.toByteArray();
+		return compressed.length < content.length ? compressed : null;
+	}
+	
+	private static @NotNull String digest(@NotNull byte[] content) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder();
+			for (int i = 0; i < 16; i++) {
+				hex.append(String.format("%02x", hash[i]));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+}
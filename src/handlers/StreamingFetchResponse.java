@@ -0,0 +1,76 @@
+package handlers;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import database.DataAccessException;
+import database.RecordConsumer;
+import model.ModelData;
+import org.jetbrains.annotations.NotNull;
+import responses.FetchDataResponse;
+import transport.JSONSerialization;
+import transport.StreamingSerialization;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A response that lists many data objects, written to the client as they are read from the
+ * database. The payload has the same shape as a <code>FetchMultipleItemsResponse</code>.
+ *
+ * @param <T> The type of data object to list.
+ */
+public class StreamingFetchResponse<T extends ModelData> extends FetchDataResponse implements StreamingSerialization {
+	
+	/**
+	 * Produces the data objects for a <code>StreamingFetchResponse</code>.
+	 *
+	 * @param <T> The type of data object to produce.
+	 */
+	@FunctionalInterface
+	public interface Source<T> {
+		public void forEach(@NotNull RecordConsumer<T> consumer) throws DataAccessException, IOException;
+	}
+	
+	private final transient @NotNull Source<T> source;
+	
+	/**
+	 * Creates a <code>StreamingFetchResponse</code> object.
+	 *
+	 * @param source The function that produces the data objects. It is called once for each
+	 *               time the response is written.
+	 */
+	public StreamingFetchResponse(@NotNull Source<T> source) {
+		this.source = source;
+	}
+	
+	@Override
+	public void writeTo(@NotNull OutputStream out) throws IOException {
+		JsonWriter writer = new JsonWriter(new BufferedWriter(
+			new OutputStreamWriter(out, StandardCharsets.UTF_8)
+		));
+		
+		writer.beginObject();
+		writer.name("data");
+		writer.beginArray();
+		try {
+			source.forEach(record -> JSONSerialization.writeJson(record, writer));
+		} catch (DataAccessException | JsonIOException e) {
+			throw new IOException("Failed to stream response data: " + e.getMessage(), e);
+		}
+		writer.endArray();
+		writer.name("success").value(isSuccessful());
+		writer.endObject();
+		writer.flush();
+	}
+	
+	@Override
+	public @NotNull String serialize() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			writeTo(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,57 @@
+package handlers;
+
+import model.Event;
+import model.Gender;
+import model.ModelData;
+import model.Person;
+import org.junit.jupiter.api.Test;
+import responses.FetchMultipleItemsResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingFetchResponseTest {
+	private <T extends ModelData> StreamingFetchResponse<T> streamOf(List<T> items) {
+		return new StreamingFetchResponse<>(consumer -> {
+			for (T item : items) {
+				consumer.accept(item);
+			}
+		});
+	}
+	
+	@Test
+	void testSerialize_matchesBufferedPersonsResponse() {
+		List<Person> persons = Arrays.asList(
+			new Person("person_a", "test_user", "John", "Cena", Gender.MALE, "dad", null, null),
+			new Person("person_b", "test_user", "Karen", "Cena", Gender.FEMALE, null, null, "person_a")
+		);
+		assertEquals(
+			new FetchMultipleItemsResponse<>(persons).serialize(),
+			streamOf(persons).serialize()
+		);
+	}
+	
+	@Test
+	void testSerialize_matchesBufferedEventsResponse() {
+		List<Event> events = Arrays.asList(
+			new Event("event_a", "test_user", "person_a", 35.9, 140.1, "Japan", "Tōkyō", "birth", 1990),
+			new Event("event_b", "test_user", "person_a", null, null, null, null, "death", 2020)
+		);
+		assertEquals(
+			new FetchMultipleItemsResponse<>(events).serialize(),
+			streamOf(events).serialize()
+		);
+	}
+	
+	@Test
+	void testSerialize_writesEmptyList() {
+		List<Person> persons = new ArrayList<>();
+		assertEquals(
+			new FetchMultipleItemsResponse<>(persons).serialize(),
+			streamOf(persons).serialize()
+		);
+	}
+}
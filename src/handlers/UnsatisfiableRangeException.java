@@ -0,0 +1,20 @@
+package handlers;
+
+/**
+ * Thrown when a client requests a range of bytes that lies beyond the end of a representation.
+ */
+public class UnsatisfiableRangeException extends Exception {
+	private final long size;
+	
+	public UnsatisfiableRangeException(long size) {
+		super("Requested range is outside 0-" + size);
+		this.size = size;
+	}
+	
+	/**
+	 * @return The size of the representation, in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+}
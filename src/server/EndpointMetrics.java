@@ -0,0 +1,116 @@
+package server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts, status codes, latencies and response compression for one HTTP context.
+ */
+public class EndpointMetrics {
+	private final @NotNull LongAdder inFlight = new LongAdder();
+	private final @NotNull ConcurrentHashMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+	private final @NotNull LatencyHistogram latency = new LatencyHistogram();
+	private final @NotNull ConcurrentHashMap<String, LongAdder> compressedCounts = new ConcurrentHashMap<>();
+	private final @NotNull LongAdder compressionInputBytes = new LongAdder();
+	private final @NotNull LongAdder compressionOutputBytes = new LongAdder();
+	
+	/**
+	 * Marks the start of a request.
+	 */
+	public void begin() {
+		inFlight.increment();
+	}
+	
+	/**
+	 * Marks the end of a request that was started with <code>begin</code>.
+	 *
+	 * @param statusCode The HTTP status code sent to the client, or <code>-1</code> if none
+	 *                   was sent.
+	 * @param nanos The time taken to handle the request, in nanoseconds.
+	 */
+	public void end(int statusCode, long nanos) {
+		inFlight.decrement();
+		statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+		latency.record(nanos);
+	}
+	
+	/**
+	 * Records a response body that was sent compressed.
+	 *
+	 * @param coding The name of the content coding, such as <code>"gzip"</code>.
+	 * @param inputBytes The size of the body before it was compressed.
+	 * @param outputBytes The size of the body that was sent.
+	 */
+	public void recordCompression(@NotNull String coding, long inputBytes, long outputBytes) {
+		compressedCounts.computeIfAbsent(coding, name -> new LongAdder()).increment();
+		compressionInputBytes.add(inputBytes);
+		compressionOutputBytes.add(outputBytes);
+	}
+	
+	/**
+	 * @return The number of requests being handled right now.
+	 */
+	public long getInFlight() {
+		return inFlight.sum();
+	}
+	
+	/**
+	 * @return The number of finished requests for each status code, in ascending order of code.
+	 */
+	public @NotNull Map<Integer, Long> getStatusCounts() {
+		Map<Integer, Long> result = new TreeMap<>();
+		for (Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().sum());
+		}
+		return result;
+	}
+	
+	/**
+	 * @return The number of finished requests.
+	 */
+	public long getRequestCount() {
+		return latency.getCount();
+	}
+	
+	public @NotNull LatencyHistogram getLatency() {
+		return latency;
+	}
+	
+	/**
+	 * @return The number of compressed responses for each content coding, in alphabetical order.
+	 */
+	public @NotNull Map<String, Long> getCompressedCounts() {
+		Map<String, Long> result = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> entry : compressedCounts.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().sum());
+		}
+		return result;
+	}
+	
+	/**
+	 * @return The total size of compressed response bodies before they were compressed.
+	 */
+	public long getCompressionInputBytes() {
+		return compressionInputBytes.sum();
+	}
+	
+	/**
+	 * @return The total size of compressed response bodies as they were sent.
+	 */
+	public long getCompressionOutputBytes() {
+		return compressionOutputBytes.sum();
+	}
+	
+	/**
+	 * @return The ratio of the size of compressed response bodies before compression to their
+	 * size after, or <code>0</code> if no response has been compressed.
+	 */
+	public double getCompressionRatio() {
+		long output = getCompressionOutputBytes();
+		return output == 0 ? 0 : (double) getCompressionInputBytes() / output;
+	}
+}
@@ -0,0 +1,60 @@
+package server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The strategy the HTTP server uses to run request handlers.
+ */
+public enum ExecutorMode {
+	/**
+	 * Handle every exchange on the HTTP server's single dispatcher thread.
+	 */
+	DISPATCHER("dispatcher"),
+	
+	/**
+	 * Handle exchanges on a fixed-size pool of platform threads.
+	 */
+	FIXED("fixed"),
+	
+	/**
+	 * Handle exchanges on a work-stealing fork-join pool.
+	 */
+	WORK_STEALING("work-stealing"),
+	
+	/**
+	 * Handle each exchange on a new virtual thread. Requires a Java runtime that supports
+	 * virtual threads.
+	 */
+	VIRTUAL("virtual");
+	
+	private final @NotNull String value;
+	
+	ExecutorMode(@NotNull String value) {
+		this.value = value;
+	}
+	
+	/**
+	 * @return The name of the mode as given on the command line.
+	 */
+	public @NotNull String getValue() {
+		return value;
+	}
+	
+	/**
+	 * Attempts to create an <code>ExecutorMode</code> object from the given <code>value</code> string.
+	 * @param value The mode's name, such as <code>"fixed"</code>.
+	 * @return A new <code>ExecutorMode</code> instance, or <code>null</code> if no mode matched the given string.
+	 */
+	public static @Nullable ExecutorMode fromValue(@Nullable String value) {
+		if (value == null) {
+			return null;
+		}
+		for (ExecutorMode mode : values()) {
+			if (mode.getValue().equalsIgnoreCase(value)) {
+				return mode;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,139 @@
+package server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations.
+ *
+ * Durations are counted twice: once in a fixed set of Prometheus buckets, and once in
+ * fine-grained log-linear buckets (eight per power of two microseconds, as in HDR histograms)
+ * from which quantiles are estimated to within about 12%.
+ */
+public class LatencyHistogram {
+	/**
+	 * The upper bounds, in seconds, of the buckets reported to Prometheus.
+	 */
+	public static final double[] BUCKET_BOUNDS = {
+		0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+	};
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	/** Enough fine buckets to count durations of up to 2^40 microseconds, about 12 days. */
+	private static final int FINE_BUCKETS = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	
+	private final @NotNull long[] boundNanos = new long[BUCKET_BOUNDS.length];
+	private final @NotNull LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length];
+	private final @NotNull AtomicLongArray fineBuckets = new AtomicLongArray(FINE_BUCKETS);
+	private final @NotNull LongAdder count = new LongAdder();
+	private final @NotNull LongAdder sumNanos = new LongAdder();
+	
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			boundNanos[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+			buckets[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * Counts one duration.
+	 *
+	 * @param nanos The duration in nanoseconds. Negative values are counted as 0.
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		count.increment();
+		sumNanos.add(nanos);
+		for (int i = 0; i < boundNanos.length; i++) {
+			if (nanos <= boundNanos[i]) {
+				buckets[i].increment();
+				break;
+			}
+		}
+		fineBuckets.incrementAndGet(fineIndex(TimeUnit.NANOSECONDS.toMicros(nanos)));
+	}
+	
+	private static int fineIndex(long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int) micros;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		int index = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+		return Math.min(index, FINE_BUCKETS - 1);
+	}
+	
+	/**
+	 * @return The largest duration, in microseconds, that falls in the given fine bucket.
+	 */
+	private static long fineUpperBoundMicros(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return (1L << exponent) + (subBucket + 1) * width - 1;
+	}
+	
+	/**
+	 * @return The number of durations counted.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * @return The sum of the durations counted, in seconds.
+	 */
+	public double getSumSeconds() {
+		return sumNanos.sum() / 1e9;
+	}
+	
+	/**
+	 * @return The number of durations no longer than each of the <code>BUCKET_BOUNDS</code>,
+	 * in the same order.
+	 */
+	public @NotNull long[] getCumulativeBucketCounts() {
+		long[] result = new long[buckets.length];
+		long total = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			total += buckets[i].sum();
+			result[i] = total;
+		}
+		return result;
+	}
+	
+	/**
+	 * Estimates the duration below which the given fraction of durations fall.
+	 *
+	 * @param quantile A fraction between 0 and 1, such as <code>0.99</code>.
+	 * @return The estimated duration in seconds, or <code>0</code> if nothing was counted.
+	 */
+	public double getQuantileSeconds(double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1");
+		}
+		long total = 0;
+		for (int i = 0; i < FINE_BUCKETS; i++) {
+			total += fineBuckets.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < FINE_BUCKETS; i++) {
+			seen += fineBuckets.get(i);
+			if (seen >= rank) {
+				return fineUpperBoundMicros(i) / 1e6;
+			}
+		}
+		return fineUpperBoundMicros(FINE_BUCKETS - 1) / 1e6;
+	}
+}
@@ -0,0 +1,48 @@
+package server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+	private LatencyHistogram histogram;
+	
+	@BeforeEach
+	void setUp() {
+		histogram = new LatencyHistogram();
+	}
+	
+	@Test
+	void testQuantile_isZeroWhenEmpty() {
+		assertEquals(0, histogram.getQuantileSeconds(0.99));
+		assertEquals(0, histogram.getCount());
+	}
+	
+	@Test
+	void testRecord_countsIntoCumulativeBuckets() {
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+		histogram.record(TimeUnit.SECONDS.toNanos(30));
+		
+		long[] buckets = histogram.getCumulativeBucketCounts();
+		assertEquals(LatencyHistogram.BUCKET_BOUNDS.length, buckets.length);
+		assertEquals(1, buckets[0]); // <= 1ms
+		assertEquals(2, buckets[4]); // <= 25ms
+		assertEquals(2, buckets[buckets.length - 1]); // <= 10s
+		assertEquals(3, histogram.getCount());
+		assertEquals(30.0205, histogram.getSumSeconds(), 1e-9);
+	}
+	
+	@Test
+	void testQuantile_isWithinAnEighthOfRecordedValues() {
+		for (int millis = 1; millis <= 100; millis++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+		}
+		assertEquals(0.050, histogram.getQuantileSeconds(0.5), 0.050 / 8);
+		assertEquals(0.095, histogram.getQuantileSeconds(0.95), 0.095 / 8);
+		assertEquals(0.099, histogram.getQuantileSeconds(0.99), 0.099 / 8);
+	}
+}
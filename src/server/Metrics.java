@@ -0,0 +1,229 @@
+package server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A registry of the server's metrics, which it can write in the Prometheus text format.
+ *
+ * Each HTTP context gets its own <code>EndpointMetrics</code>. Other components can report
+ * their own values by registering gauges and counters that are read each time the metrics
+ * are written.
+ */
+public class Metrics {
+	private static final String PREFIX = "familymap_";
+	private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+	
+	private static final @NotNull Metrics shared = new Metrics();
+	
+	private final @NotNull ConcurrentSkipListMap<String, EndpointMetrics> endpoints = new ConcurrentSkipListMap<>();
+	private final @NotNull List<Sample> samples = new CopyOnWriteArrayList<>();
+	
+	private static final class Sample {
+		private final @NotNull String name;
+		private final @NotNull String help;
+		private final @NotNull String type;
+		private final @Nullable String label;
+		private final @NotNull Supplier<? extends Map<String, ? extends Number>> values;
+		
+		Sample(
+			@NotNull String name,
+			@NotNull String help,
+			@NotNull String type,
+			@Nullable String label,
+			@NotNull Supplier<? extends Map<String, ? extends Number>> values
+		) {
+			this.name = name;
+			this.help = help;
+			this.type = type;
+			this.label = label;
+			this.values = values;
+		}
+	}
+	
+	/**
+	 * @return The registry that the server's handlers report to.
+	 */
+	public static @NotNull Metrics getShared() {
+		return shared;
+	}
+	
+	/**
+	 * Gets the metrics for the given HTTP context, creating them if there are none yet.
+	 *
+	 * @param context The context's path, such as <code>"/person"</code>.
+	 * @return The context's metrics.
+	 */
+	public @NotNull EndpointMetrics forEndpoint(@NotNull String context) {
+		return endpoints.computeIfAbsent(context, path -> new EndpointMetrics());
+	}
+	
+	/**
+	 * Registers a value that can go up and down.
+	 *
+	 * @param name The metric's name, without the <code>familymap_</code> prefix.
+	 * @param help A description of the metric.
+	 * @param value Reads the current value.
+	 */
+	public void addGauge(@NotNull String name, @NotNull String help, @NotNull DoubleSupplier value) {
+		samples.add(new Sample(PREFIX + name, help, "gauge", null,
+			() -> Collections.singletonMap("", value.getAsDouble())
+		));
+	}
+	
+	/**
+	 * Registers a value that only goes up.
+	 *
+	 * @param name The metric's name, without the <code>familymap_</code> prefix. By convention,
+	 *             this ends with <code>_total</code>.
+	 * @param help A description of the metric.
+	 * @param value Reads the current value.
+	 */
+	public void addCounter(@NotNull String name, @NotNull String help, @NotNull DoubleSupplier value) {
+		samples.add(new Sample(PREFIX + name, help, "counter", null,
+			() -> Collections.singletonMap("", value.getAsDouble())
+		));
+	}
+	
+	/**
+	 * Registers a set of values that only go up, distinguished by a label.
+	 *
+	 * @param name The metric's name, without the <code>familymap_</code> prefix. By convention,
+	 *             this ends with <code>_total</code>.
+	 * @param help A description of the metric.
+	 * @param label The name of the label that distinguishes the values.
+	 * @param values Reads the current values, keyed by label value.
+	 */
+	public void addLabelledCounter(
+		@NotNull String name,
+		@NotNull String help,
+		@NotNull String label,
+		@NotNull Supplier<? extends Map<String, ? extends Number>> values
+	) {
+		samples.add(new Sample(PREFIX + name, help, "counter", label, values));
+	}
+	
+	/**
+	 * @return Every metric, in the Prometheus text exposition format.
+	 */
+	public @NotNull String toPrometheusText() {
+		StringBuilder out = new StringBuilder();
+		
+		String requests = PREFIX + "http_requests_total";
+		header(out, requests, "counter", "Finished HTTP requests, by context and status code.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			for (Map.Entry<Integer, Long> status : endpoint.getValue().getStatusCounts().entrySet()) {
+				String code = status.getKey() < 0 ? "none" : String.valueOf(status.getKey());
+				line(out, requests, "context=\"" + escape(endpoint.getKey()) + "\",code=\"" + code + "\"", status.getValue());
+			}
+		}
+		
+		String inFlight = PREFIX + "http_requests_in_flight";
+		header(out, inFlight, "gauge", "HTTP requests being handled right now, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			line(out, inFlight, contextLabel(endpoint.getKey()), endpoint.getValue().getInFlight());
+		}
+		
+		String duration = PREFIX + "http_request_duration_seconds";
+		header(out, duration, "histogram", "Time taken to handle HTTP requests, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			String context = contextLabel(endpoint.getKey());
+			LatencyHistogram latency = endpoint.getValue().getLatency();
+			long count = latency.getCount();
+			long[] buckets = latency.getCumulativeBucketCounts();
+			for (int i = 0; i < buckets.length; i++) {
+				line(out, duration + "_bucket", context + ",le=\"" + format(LatencyHistogram.BUCKET_BOUNDS[i]) + "\"", buckets[i]);
+			}
+			line(out, duration + "_bucket", context + ",le=\"+Inf\"", count);
+			line(out, duration + "_sum", context, latency.getSumSeconds());
+			line(out, duration + "_count", context, count);
+		}
+		
+		String quantiles = PREFIX + "http_request_duration_quantile_seconds";
+		header(out, quantiles, "gauge", "Estimated quantiles of the time taken to handle HTTP requests, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			LatencyHistogram latency = endpoint.getValue().getLatency();
+			for (double quantile : QUANTILES) {
+				line(out, quantiles, contextLabel(endpoint.getKey()) + ",quantile=\"" + format(quantile) + "\"", latency.getQuantileSeconds(quantile));
+			}
+		}
+		
+		String compressed = PREFIX + "http_compressed_responses_total";
+		header(out, compressed, "counter", "HTTP responses sent compressed, by context and content coding.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			for (Map.Entry<String, Long> coding : endpoint.getValue().getCompressedCounts().entrySet()) {
+				line(out, compressed, contextLabel(endpoint.getKey()) + ",encoding=\"" + escape(coding.getKey()) + "\"", coding.getValue());
+			}
+		}
+		
+		String inputBytes = PREFIX + "http_compression_input_bytes_total";
+		header(out, inputBytes, "counter", "Size of compressed HTTP response bodies before compression, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			line(out, inputBytes, contextLabel(endpoint.getKey()), endpoint.getValue().getCompressionInputBytes());
+		}
+		
+		String outputBytes = PREFIX + "http_compression_output_bytes_total";
+		header(out, outputBytes, "counter", "Size of compressed HTTP response bodies as sent, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			line(out, outputBytes, contextLabel(endpoint.getKey()), endpoint.getValue().getCompressionOutputBytes());
+		}
+		
+		String ratio = PREFIX + "http_compression_ratio";
+		header(out, ratio, "gauge", "Size of compressed HTTP response bodies before compression over their size after, by context.");
+		for (Map.Entry<String, EndpointMetrics> endpoint : endpoints.entrySet()) {
+			if (endpoint.getValue().getCompressionOutputBytes() > 0) {
+				line(out, ratio, contextLabel(endpoint.getKey()), endpoint.getValue().getCompressionRatio());
+			}
+		}
+		
+		for (Sample sample : samples) {
+			header(out, sample.name, sample.type, sample.help);
+			for (Map.Entry<String, ? extends Number> value : sample.values.get().entrySet()) {
+				String labels = sample.label == null ? null : sample.label + "=\"" + escape(value.getKey()) + "\"";
+				line(out, sample.name, labels, value.getValue().doubleValue());
+			}
+		}
+		
+		return out.toString();
+	}
+	
+	private static void header(@NotNull StringBuilder out, @NotNull String name, @NotNull String type, @NotNull String help) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+	
+	private static void line(@NotNull StringBuilder out, @NotNull String name, @Nullable String labels, double value) {
+		out.append(name);
+		if (labels != null) {
+			out.append('{').append(labels).append('}');
+		}
+		out.append(' ').append(format(value)).append('\n');
+	}
+	
+	private static @NotNull String contextLabel(@NotNull String context) {
+		return "context=\"" + escape(context) + "\"";
+	}
+	
+	private static @NotNull String format(double value) {
+		if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+			return String.valueOf((long) value);
+		}
+		return String.format(Locale.ROOT, "%s", value);
+	}
+	
+	/**
+	 * Escapes a label value as the Prometheus text format requires.
+	 */
+	private static @NotNull String escape(@NotNull String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
@@ -0,0 +1,73 @@
+package server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+	private Metrics metrics;
+	
+	@BeforeEach
+	void setUp() {
+		metrics = new Metrics();
+	}
+	
+	@Test
+	void testForEndpoint_returnsSameMetricsForContext() {
+		assertSame(metrics.forEndpoint("/person"), metrics.forEndpoint("/person"));
+		assertNotSame(metrics.forEndpoint("/person"), metrics.forEndpoint("/event"));
+	}
+	
+	@Test
+	void testEnd_countsStatusCodesAndInFlightRequests() {
+		EndpointMetrics endpoint = metrics.forEndpoint("/person");
+		endpoint.begin();
+		endpoint.begin();
+		assertEquals(2, endpoint.getInFlight());
+		
+		endpoint.end(200, TimeUnit.MILLISECONDS.toNanos(3));
+		endpoint.end(400, TimeUnit.MILLISECONDS.toNanos(3));
+		assertEquals(0, endpoint.getInFlight());
+		assertEquals(2, endpoint.getRequestCount());
+		assertEquals(1L, endpoint.getStatusCounts().get(200));
+		assertEquals(1L, endpoint.getStatusCounts().get(400));
+	}
+	
+	@Test
+	void testToPrometheusText_listsEndpointsAndRegisteredValues() {
+		EndpointMetrics endpoint = metrics.forEndpoint("/person");
+		endpoint.begin();
+		endpoint.end(200, TimeUnit.MILLISECONDS.toNanos(3));
+		metrics.addGauge("test_value", "A test value.", () -> 42);
+		
+		String text = metrics.toPrometheusText();
+		assertTrue(text.contains("# TYPE familymap_http_requests_total counter\n"));
+		assertTrue(text.contains("familymap_http_requests_total{context=\"/person\",code=\"200\"} 1\n"));
+		assertTrue(text.contains("familymap_http_requests_in_flight{context=\"/person\"} 0\n"));
+		assertTrue(text.contains("familymap_http_request_duration_seconds_bucket{context=\"/person\",le=\"0.0025\"} 0\n"));
+		assertTrue(text.contains("familymap_http_request_duration_seconds_bucket{context=\"/person\",le=\"0.005\"} 1\n"));
+		assertTrue(text.contains("familymap_http_request_duration_seconds_bucket{context=\"/person\",le=\"+Inf\"} 1\n"));
+		assertTrue(text.contains("familymap_http_request_duration_seconds_count{context=\"/person\"} 1\n"));
+		assertTrue(text.contains("familymap_http_request_duration_quantile_seconds{context=\"/person\",quantile=\"0.99\"}"));
+		assertTrue(text.contains("# TYPE familymap_test_value gauge\nfamilymap_test_value 42\n"));
+	}
+	
+	@Test
+	void testRecordCompression_reportsRatioByEndpoint() {
+		EndpointMetrics endpoint = metrics.forEndpoint("/event");
+		endpoint.recordCompression("gzip", 9000, 1000);
+		endpoint.recordCompression("deflate", 3000, 500);
+		assertEquals(8, endpoint.getCompressionRatio(), 0.0001);
+		assertEquals(0, metrics.forEndpoint("/person").getCompressionRatio());
+		
+		String text = metrics.toPrometheusText();
+		assertTrue(text.contains("familymap_http_compressed_responses_total{context=\"/event\",encoding=\"gzip\"} 1\n"));
+		assertTrue(text.contains("familymap_http_compression_input_bytes_total{context=\"/event\"} 12000\n"));
+		assertTrue(text.contains("familymap_http_compression_output_bytes_total{context=\"/event\"} 1500\n"));
+		assertTrue(text.contains("familymap_http_compression_ratio{context=\"/event\"} 8\n"));
+		assertFalse(text.contains("familymap_http_compression_ratio{context=\"/person\"}"));
+	}
+}
@@ -0,0 +1,173 @@
+package server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An executor for HTTP exchanges that bounds the number of exchanges in flight. Once the
+ * underlying executor's threads are busy and its queue is full, further exchanges are run
+ * directly on the caller's thread in "shedding" mode, so that handlers can turn them away
+ * quickly instead of queueing without limit.
+ */
+public class RequestExecutor implements Executor {
+	private static final ThreadLocal<Boolean> shedding = new ThreadLocal<>();
+	
+	private final @NotNull ExecutorService delegate;
+	private final @NotNull Semaphore slots;
+	private final @NotNull LongAdder shedCount = new LongAdder();
+	
+	/**
+	 * Creates a <code>RequestExecutor</code> object.
+	 *
+	 * @param delegate The executor that runs accepted exchanges.
+	 * @param maxInFlight The number of exchanges that may be running or queued at once.
+	 */
+	public RequestExecutor(@NotNull ExecutorService delegate, int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		}
+		this.delegate = delegate;
+		this.slots = new Semaphore(maxInFlight);
+	}
+	
+	/**
+	 * Creates an executor for the given <code>mode</code>.
+	 *
+	 * @param mode The threading strategy to use.
+	 * @param threads The number of worker threads, or the parallelism of a work-stealing pool.
+	 * @param queueCapacity The number of exchanges that may wait for a free worker before new
+	 *                      exchanges are shed.
+	 * @return A new executor, or <code>null</code> if the HTTP server should use its dispatcher
+	 * thread.
+	 */
+	public static @Nullable RequestExecutor create(
+		@NotNull ExecutorMode mode,
+		int threads,
+		int queueCapacity
+	) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Thread count must be positive");
+		}
+		if (queueCapacity < 0) {
+			throw new IllegalArgumentException("Queue capacity must be positive or 0");
+		}
+		
+		switch (mode) {
+			case DISPATCHER:
+				return null;
+			
+			case FIXED:
+				return new RequestExecutor(
+					Executors.newFixedThreadPool(threads, namedThreadFactory()),
+					threads + queueCapacity
+				);
+			
+			case WORK_STEALING:
+				return new RequestExecutor(
+					Executors.newWorkStealingPool(threads),
+					threads + queueCapacity
+				);
+			
+			case VIRTUAL:
+				return new RequestExecutor(
+					newVirtualThreadPerTaskExecutor(),
+					threads + queueCapacity
+				);
+			
+			default:
+				throw new IllegalStateException("Unknown executor mode: " + mode.getValue());
+		}
+	}
+	
+	private static @NotNull ThreadFactory namedThreadFactory() {
+		AtomicInteger count = new AtomicInteger(0);
+		return runnable -> {
+			Thread thread = new Thread(runnable, "familymap-http-" + count.incrementAndGet());
+			thread.setDaemon(false);
+			return thread;
+		};
+	}
+	
+	/**
+	 * Looks up <code>Executors.newVirtualThreadPerTaskExecutor</code> reflectively, since we
+	 * still build against Java 8.
+	 */
+	private static @NotNull ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+			
+		} catch (ReflectiveOperationException e) {
+			throw new UnsupportedOperationException(
+				"Virtual threads are not supported by this Java runtime",
+				e
+			);
+		}
+	}
+	
+	
+	
+	
+	/**
+	 * @return <code>true</code> if the calling thread is running an exchange that should be turned
+	 * away because the server is saturated.
+	 */
+	public static boolean isShedding() {
+		return Boolean.TRUE.equals(shedding.get());
+	}
+	
+	@Override
+	public void execute(@NotNull Runnable command) {
+		if (!slots.tryAcquire()) {
+			shed(command);
+			return;
+		}
+		
+		try {
+			delegate.execute(() -> {
+				try {
+					command.run();
+				} finally {
+					slots.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			slots.release();
+			shed(command);
+		}
+	}
+	
+	private void shed(@NotNull Runnable command) {
+		shedCount.increment();
+		shedding.set(true);
+		try {
+			command.run();
+		} finally {
+			shedding.remove();
+		}
+	}
+	
+	/**
+	 * @return The number of exchanges that were turned away since the executor was created.
+	 */
+	public long getShedCount() {
+		return shedCount.sum();
+	}
+	
+	/**
+	 * Stops accepting new exchanges, and lets running exchanges finish.
+	 */
+	public void shutdown() {
+		delegate.shutdown();
+	}
+}
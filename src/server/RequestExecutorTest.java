@@ -0,0 +1,80 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestExecutorTest {
+	
+	private RequestExecutor executor;
+	
+	@BeforeEach
+	void setUp() {
+		executor = new RequestExecutor(Executors.newSingleThreadExecutor(), 1);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+	
+	@Test
+	void testCreate_returnsNullForDispatcherMode() {
+		assertNull(RequestExecutor.create(ExecutorMode.DISPATCHER, 1, 0));
+	}
+	
+	@Test
+	void testExecute_runsAcceptedTasksWithoutShedding() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicBoolean wasShedding = new AtomicBoolean(true);
+		
+		executor.execute(() -> {
+			wasShedding.set(RequestExecutor.isShedding());
+			done.countDown();
+		});
+		
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertFalse(wasShedding.get());
+		assertEquals(0, executor.getShedCount());
+	}
+	
+	@Test
+	void testExecute_shedsTasksOnCallerWhenSaturated() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		
+		AtomicBoolean wasShedding = new AtomicBoolean(false);
+		Thread caller = Thread.currentThread();
+		AtomicBoolean ranOnCaller = new AtomicBoolean(false);
+		executor.execute(() -> {
+			wasShedding.set(RequestExecutor.isShedding());
+			ranOnCaller.set(Thread.currentThread() == caller);
+		});
+		release.countDown();
+		
+		assertTrue(wasShedding.get());
+		assertTrue(ranOnCaller.get());
+		assertFalse(RequestExecutor.isShedding());
+		assertEquals(1, executor.getShedCount());
+	}
+	
+	@Test
+	void testFromValue_parsesModeNames() {
+		assertEquals(ExecutorMode.WORK_STEALING, ExecutorMode.fromValue("work-stealing"));
+		assertEquals(ExecutorMode.FIXED, ExecutorMode.fromValue("FIXED"));
+		assertNull(ExecutorMode.fromValue("nope"));
+	}
+}
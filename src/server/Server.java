@@ -2,14 +2,28 @@ package server;
 
 import com.sun.net.httpserver.HttpServer;
 import dao.DatabaseTable;
+import database.ConnectionPool;
 import database.Database;
+import database.QueryStatistics;
 import handlers.*;
 import handlers.FileHandler;
+import handlers.Handler;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import services.AuthTokenCache;
+import services.FetchDataCache;
+import utilities.IdStrategy;
+import utilities.LocationGenerator;
+import utilities.NameGenerator;
 
 import java.io.IOException;
 import java.lang.reflect.MalformedParametersException;
 import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.logging.*;
 
 /**
@@ -17,7 +31,19 @@ import java.util.logging.*;
  */
 public class Server {
 	
-	private static final int MAX_WAITING_CONNECTIONS = 12;
+	private static final int DEFAULT_MAX_WAITING_CONNECTIONS = 12;
+	private static final int DEFAULT_QUEUE_CAPACITY = 64;
+	private static final String BACKLOG_PROPERTY = "familymap.server.backlog";
+	private static final String EXECUTOR_PROPERTY = "familymap.server.executor";
+	private static final String THREADS_PROPERTY = "familymap.server.threads";
+	private static final String QUEUE_CAPACITY_PROPERTY = "familymap.server.queueCapacity";
+	private static final String COMPRESSION_THRESHOLD_PROPERTY = "familymap.server.compressionThreshold";
+	private static final String POOL_SIZE_PROPERTY = "familymap.db.poolSize";
+	private static final String CHECKOUT_TIMEOUT_PROPERTY = "familymap.db.checkoutTimeoutMillis";
+	private static final String WAL_PROPERTY = "familymap.db.wal";
+	private static final String SLOW_QUERY_PROPERTY = "familymap.db.slowQueryMillis";
+	private static final String FILL_PARALLELISM_PROPERTY = "familymap.fill.parallelism";
+	private static final String ID_STRATEGY_PROPERTY = "familymap.ids";
 	public static Logger logger;
 	
 	static {
@@ -87,7 +113,7 @@ public class Server {
 		try {
 			server = HttpServer.create(
 				new InetSocketAddress(Integer.parseInt(portNumber)),
-				MAX_WAITING_CONNECTIONS
+				Integer.getInteger(BACKLOG_PROPERTY, DEFAULT_MAX_WAITING_CONNECTIONS)
 			);
 		} catch (IOException | NumberFormatException e) {
 			e.printStackTrace();
@@ -95,13 +121,51 @@ public class Server {
 			return;
 		}
 		
-		// Use the default executor
-		server.setExecutor(null);
+		RequestExecutor executor = createExecutor();
+		server.setExecutor(executor);
+		Handler.setCompressionThreshold(Math.max(0,
+			Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, Handler.DEFAULT_COMPRESSION_THRESHOLD)
+		));
 		
 		logger.info("Starting database");
-		Database<DatabaseTable> db = new Database<>(DatabaseTable.values());
+		int poolSize = Integer.getInteger(POOL_SIZE_PROPERTY, Database.DEFAULT_POOL_SIZE);
+		long checkoutTimeout = Long.getLong(
+			CHECKOUT_TIMEOUT_PROPERTY,
+			Database.DEFAULT_CHECKOUT_TIMEOUT_MILLIS
+		);
+		boolean writeAheadLogging = Boolean.getBoolean(WAL_PROPERTY);
+		if (writeAheadLogging) {
+			logger.info("Using WAL mode with one writer and " + poolSize + " database readers");
+		} else {
+			logger.info("Using a pool of " + poolSize + " database connections");
+		}
+		Database<DatabaseTable> db = new Database<>(
+			Database.MAIN_DATABASE_NAME,
+			DatabaseTable.values(),
+			poolSize,
+			checkoutTimeout,
+			writeAheadLogging
+		);
 		db.setLogger(logger);
 		
+		QueryStatistics queries = QueryStatistics.getShared();
+		queries.setLogger(logger);
+		queries.setSlowQueryThresholdMillis(
+			Long.getLong(SLOW_QUERY_PROPERTY, QueryStatistics.DEFAULT_SLOW_QUERY_MILLIS)
+		);
+		
+		configureObjectIds();
+		registerMetrics(db, executor);
+		
+		logger.info("Loading name and location banks");
+		try {
+			NameGenerator.preloadNames();
+			LocationGenerator.sampleLocations();
+		} catch (IOException e) {
+			// Fill requests will retry the read, and report the error if it fails again.
+			logger.log(Level.WARNING, "Could not load name and location banks: " + e.getMessage(), e);
+		}
+		
 		logger.info("Creating contexts");
 		
 		// Users
@@ -112,19 +176,186 @@ public class Server {
 		server.createContext("/clear", new ClearHandler(db));
 		
 		// Add entries
-		server.createContext("/fill", new FillHandler(db));
+		server.createContext("/fill", new FillHandler(db, createGenerationPool()));
 		server.createContext("/load", new LoadHandler(db));
 		
 		// Fetch entries
 		server.createContext("/person", new FetchDataHandler(db));
 		server.createContext("/event", new FetchDataHandler(db));
 		
+		// Monitoring
+		server.createContext("/metrics", new MetricsHandler(db));
+		
 		// Normal file requests
-		server.createContext("/", new FileHandler());
+		server.createContext("/", new FileHandler(db));
 		
 		logger.info("Starting HTTP server");
 		server.start();
 		
 		logger.info("Server started");
 	}
+	
+	/**
+	 * Reports the state of the server's caches, executor and database connections
+	 * alongside the per-endpoint metrics served at <code>/metrics</code>.
+	 *
+	 * @param db The server's database.
+	 * @param executor The executor that runs request handlers, if any.
+	 */
+	private void registerMetrics(@NotNull Database<DatabaseTable> db, @Nullable RequestExecutor executor) {
+		Metrics metrics = Metrics.getShared();
+		
+		AuthTokenCache tokens = AuthTokenCache.forDatabase(db);
+		metrics.addGauge("auth_token_cache_size", "Auth tokens currently cached.", tokens::getSize);
+		metrics.addCounter("auth_token_cache_hits_total", "Auth token lookups that found a cached token.", tokens::getHitCount);
+		metrics.addCounter("auth_token_cache_misses_total", "Auth token lookups that found no cached token.", tokens::getMissCount);
+		
+		FetchDataCache data = FetchDataCache.forDatabase(db);
+		metrics.addGauge("fetch_cache_size", "Users' person or event lists currently cached.", data::getSize);
+		metrics.addGauge("fetch_cache_bytes", "Estimated memory used by cached person and event lists.", data::getBytes);
+		metrics.addCounter("fetch_cache_hits_total", "Person or event lookups answered from the cache.", data::getHitCount);
+		metrics.addCounter("fetch_cache_misses_total", "Person or event lookups that read the database.", data::getMissCount);
+		metrics.addCounter("fetch_cache_evictions_total", "Person or event lists evicted to make room for others.", data::getEvictionCount);
+		metrics.addGauge("fetch_cache_hit_ratio", "Fraction of person or event lookups answered from the cache.", () -> {
+			double hits = data.getHitCount();
+			double lookups = hits + data.getMissCount();
+			return lookups == 0 ? 0 : hits / lookups;
+		});
+		
+		if (executor != null) {
+			metrics.addCounter("http_requests_shed_total", "HTTP requests turned away because the server was saturated.", executor::getShedCount);
+		}
+		
+		registerPoolMetrics(metrics, "db_pool", db.getConnectionPool());
+		if (db.getReadConnectionPool() != db.getConnectionPool()) {
+			registerPoolMetrics(metrics, "db_read_pool", db.getReadConnectionPool());
+		}
+		
+		registerQueryMetrics(metrics, QueryStatistics.getShared());
+	}
+	
+	private static void registerQueryMetrics(@NotNull Metrics metrics, @NotNull QueryStatistics queries) {
+		metrics.addLabelledCounter("sql_statements_total", "SQL statements run, by statement.", "sql",
+			() -> statementValues(queries, QueryStatistics.Shape::getExecutions)
+		);
+		metrics.addLabelledCounter("sql_rows_total", "Rows read or changed by SQL statements, by statement.", "sql",
+			() -> statementValues(queries, QueryStatistics.Shape::getRows)
+		);
+		metrics.addLabelledCounter("sql_database_seconds_total", "Time spent in SQLite running SQL statements, by statement.", "sql",
+			() -> statementSeconds(queries, QueryStatistics.Shape::getDatabaseNanos)
+		);
+		metrics.addLabelledCounter("sql_mapping_seconds_total", "Time spent building model objects from result rows, by statement.", "sql",
+			() -> statementSeconds(queries, QueryStatistics.Shape::getMappingNanos)
+		);
+		metrics.addLabelledCounter("sql_consumer_seconds_total", "Time spent consuming streamed model objects, by statement.", "sql",
+			() -> statementSeconds(queries, QueryStatistics.Shape::getConsumerNanos)
+		);
+		metrics.addLabelledCounter("db_transactions_total", "Database transactions, by kind.", "kind",
+			() -> transactionValues(queries, shape -> (double) shape.getExecutions())
+		);
+		metrics.addLabelledCounter("db_transaction_seconds_total", "Time spent in database transactions, by kind.", "kind",
+			() -> transactionValues(queries, shape -> shape.getTotalNanos() / 1e9)
+		);
+	}
+	
+	private static @NotNull Map<String, Long> statementValues(
+		@NotNull QueryStatistics queries,
+		@NotNull ToLongFunction<QueryStatistics.Shape> value
+	) {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (Map.Entry<String, QueryStatistics.Shape> statement : queries.getStatements().entrySet()) {
+			result.put(statement.getKey(), value.applyAsLong(statement.getValue()));
+		}
+		return result;
+	}
+	
+	private static @NotNull Map<String, Double> statementSeconds(
+		@NotNull QueryStatistics queries,
+		@NotNull ToLongFunction<QueryStatistics.Shape> nanos
+	) {
+		Map<String, Double> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Long> statement : statementValues(queries, nanos).entrySet()) {
+			result.put(statement.getKey(), statement.getValue() / 1e9);
+		}
+		return result;
+	}
+	
+	private static @NotNull Map<String, Double> transactionValues(
+		@NotNull QueryStatistics queries,
+		@NotNull ToDoubleFunction<QueryStatistics.Shape> value
+	) {
+		Map<String, Double> result = new LinkedHashMap<>();
+		result.put("read", value.applyAsDouble(queries.getReadTransactions()));
+		result.put("write", value.applyAsDouble(queries.getWriteTransactions()));
+		return result;
+	}
+	
+	private static void registerPoolMetrics(@NotNull Metrics metrics, @NotNull String name, @NotNull ConnectionPool pool) {
+		metrics.addGauge(name + "_active_connections", "Database connections checked out right now.", pool::getActiveCount);
+		metrics.addGauge(name + "_idle_connections", "Database connections waiting to be checked out.", pool::getIdleCount);
+		metrics.addCounter(name + "_checkouts_total", "Database connections checked out.", pool::getCheckoutCount);
+		metrics.addCounter(name + "_timeouts_total", "Database connection checkouts that timed out.", pool::getTimeoutCount);
+		metrics.addCounter(name + "_wait_seconds_total", "Time spent waiting to check out database connections.",
+			() -> pool.getTotalWaitNanos() / 1e9
+		);
+	}
+	
+	/**
+	 * Sets how new persons and events are identified, as configured by system properties.
+	 */
+	private void configureObjectIds() {
+		String strategyString = System.getProperty(ID_STRATEGY_PROPERTY, IdStrategy.RANDOM.getValue());
+		IdStrategy strategy = IdStrategy.fromValue(strategyString);
+		if (strategy == null) {
+			logger.warning("Unknown ID strategy '" + strategyString + "'. Using random IDs.");
+			strategy = IdStrategy.RANDOM;
+		}
+		logger.info("Creating object IDs with strategy '" + strategy.getValue() + "'");
+		NameGenerator.setObjectIdStrategy(strategy);
+	}
+	
+	/**
+	 * Creates the pool on which fill requests build large family trees, as configured by
+	 * system properties.
+	 *
+	 * @return A new pool with the configured parallelism, or the common pool if none is set.
+	 */
+	private @NotNull ForkJoinPool createGenerationPool() {
+		int parallelism = Integer.getInteger(FILL_PARALLELISM_PROPERTY, 0);
+		if (parallelism < 1) {
+			logger.info("Generating family trees with up to " +
+				ForkJoinPool.getCommonPoolParallelism() + " threads");
+			return ForkJoinPool.commonPool();
+		}
+		logger.info("Generating family trees with up to " + parallelism + " threads");
+		return new ForkJoinPool(parallelism);
+	}
+	
+	/**
+	 * Creates the executor that runs request handlers, as configured by system properties.
+	 *
+	 * @return A new executor, or <code>null</code> if requests should be handled on the HTTP
+	 * server's dispatcher thread.
+	 */
+	private @Nullable RequestExecutor createExecutor() {
+		String modeString = System.getProperty(EXECUTOR_PROPERTY, ExecutorMode.FIXED.getValue());
+		ExecutorMode mode = ExecutorMode.fromValue(modeString);
+		if (mode == null) {
+			logger.warning("Unknown executor mode '" + modeString + "'. Using a fixed thread pool.");
+			mode = ExecutorMode.FIXED;
+		}
+		
+		int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors() * 2);
+		int queueCapacity = Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY);
+		
+		try {
+			logger.info("Handling requests with executor mode '" + mode.getValue() + "', " +
+				threads + " threads, and a queue of " + queueCapacity);
+			return RequestExecutor.create(mode, threads, queueCapacity);
+			
+		} catch (UnsupportedOperationException e) {
+			logger.warning(e.getMessage() + ". Using a fixed thread pool.");
+			return RequestExecutor.create(ExecutorMode.FIXED, threads, queueCapacity);
+		}
+	}
 }
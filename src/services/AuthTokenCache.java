@@ -0,0 +1,194 @@
+package services;
+
+import dao.DatabaseTable;
+import database.Database;
+import model.AuthToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, in-memory cache of valid auth tokens and the users they belong to. Entries expire
+ * after a fixed time, and must be invalidated whenever the tokens they mirror are removed from
+ * the database.
+ */
+public class AuthTokenCache {
+	public static final int DEFAULT_MAX_SIZE = 10_000;
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	
+	private static final Map<Database<DatabaseTable>, AuthTokenCache> caches =
+		Collections.synchronizedMap(new WeakHashMap<>());
+	
+	private final int maxSize;
+	private final long ttlNanos;
+	private final @NotNull ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final @NotNull AtomicLong generation = new AtomicLong(0);
+	
+	// Metrics
+	private final @NotNull LongAdder hitCount = new LongAdder();
+	private final @NotNull LongAdder missCount = new LongAdder();
+	
+	private static final class Entry {
+		private final @NotNull String userName;
+		private final long expiresAt;
+		
+		Entry(@NotNull String userName, long expiresAt) {
+			this.userName = userName;
+			this.expiresAt = expiresAt;
+		}
+	}
+	
+	/**
+	 * Creates an <code>AuthTokenCache</code> object.
+	 *
+	 * @param maxSize The maximum number of tokens to hold at once. Must be positive.
+	 * @param ttlMillis The number of milliseconds a token stays in the cache.
+	 */
+	public AuthTokenCache(int maxSize, long ttlMillis) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		if (ttlMillis < 0) {
+			throw new IllegalArgumentException("TTL must be positive or 0");
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	}
+	
+	/**
+	 * Gets the cache that mirrors auth tokens stored in the given database, creating one if
+	 * there is none yet.
+	 *
+	 * @param database The database whose tokens the cache mirrors.
+	 * @return The database's token cache.
+	 */
+	public static @NotNull AuthTokenCache forDatabase(@NotNull Database<DatabaseTable> database) {
+		return caches.computeIfAbsent(
+			database,
+			db -> new AuthTokenCache(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS)
+		);
+	}
+	
+	
+	
+	
+	/**
+	 * Looks up the user associated with the given auth token.
+	 *
+	 * @param authToken The token string.
+	 * @return The username associated with the token, or <code>null</code> if the token is not
+	 * cached or its entry has expired.
+	 */
+	public @Nullable String usernameForToken(@NotNull String authToken) {
+		Entry entry = entries.get(authToken);
+		if (entry == null) {
+			missCount.increment();
+			return null;
+		}
+		if (entry.expiresAt - System.nanoTime() <= 0) {
+			entries.remove(authToken, entry);
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return entry.userName;
+	}
+	
+	/**
+	 * @return A number that changes each time the cache is invalidated. Read this before
+	 * reading a token from the database, and pass it to <code>put</code>.
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+	
+	/**
+	 * Adds the given token to the cache. Invalid tokens are ignored.
+	 *
+	 * @param token The token to cache.
+	 */
+	public void put(@NotNull AuthToken token) {
+		put(token, getGeneration());
+	}
+	
+	/**
+	 * Adds the given token to the cache, unless the cache has been invalidated since the token
+	 * was read. Invalid tokens are ignored.
+	 *
+	 * @param token The token to cache.
+	 * @param generation The cache's generation from before the token was read.
+	 */
+	public void put(@NotNull AuthToken token, long generation) {
+		if (!token.isValid() || generation != this.generation.get()) {
+			return;
+		}
+		if (entries.size() >= maxSize && !entries.containsKey(token.getId())) {
+			makeRoom();
+		}
+		Entry entry = new Entry(token.getAssociatedUsername(), System.nanoTime() + ttlNanos);
+		entries.put(token.getId(), entry);
+		
+		// If we were invalidated while adding the token, take it back out.
+		if (generation != this.generation.get()) {
+			entries.remove(token.getId(), entry);
+		}
+	}
+	
+	/**
+	 * Removes expired entries, and if the cache is still full, evicts entries until there is
+	 * room for one more.
+	 */
+	private void makeRoom() {
+		long now = System.nanoTime();
+		entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+		
+		Iterator<String> keys = entries.keySet().iterator();
+		while (entries.size() >= maxSize && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+	
+	/**
+	 * Removes every token from the cache. Call this whenever auth tokens are removed from
+	 * the database.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+	
+	
+	
+	
+	// ** Metrics
+	
+	/**
+	 * @return The number of tokens currently cached.
+	 */
+	public int getSize() {
+		return entries.size();
+	}
+	
+	/**
+	 * @return The number of lookups that found a cached token.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+	
+	/**
+	 * @return The number of lookups that found no cached token.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+}
@@ -0,0 +1,88 @@
+package services;
+
+import dao.DatabaseTable;
+import database.DataAccessException;
+import database.Database;
+import model.AuthToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenCacheTest {
+	private AuthTokenCache cache;
+	private AuthToken testToken;
+	
+	@BeforeEach
+	void setUp() {
+		cache = new AuthTokenCache(2, AuthTokenCache.DEFAULT_TTL_MILLIS);
+		testToken = new AuthToken("token_a", "test_user", new Date(), true);
+	}
+	
+	@Test
+	void testUsernameForToken_hitsAfterPut() {
+		assertNull(cache.usernameForToken(testToken.getId()));
+		cache.put(testToken);
+		assertEquals(testToken.getAssociatedUsername(), cache.usernameForToken(testToken.getId()));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+	
+	@Test
+	void testPut_ignoresInvalidTokens() {
+		cache.put(new AuthToken("token_b", "test_user", new Date(), false));
+		assertNull(cache.usernameForToken("token_b"));
+	}
+	
+	@Test
+	void testUsernameForToken_missesExpiredTokens() {
+		AuthTokenCache expiring = new AuthTokenCache(2, 0);
+		expiring.put(testToken);
+		assertNull(expiring.usernameForToken(testToken.getId()));
+		assertEquals(0, expiring.getSize());
+	}
+	
+	@Test
+	void testPut_staysWithinMaxSize() {
+		cache.put(testToken);
+		cache.put(new AuthToken("token_b", "test_user", new Date(), true));
+		cache.put(new AuthToken("token_c", "test_user", new Date(), true));
+		assertEquals(2, cache.getSize());
+		assertEquals("test_user", cache.usernameForToken("token_c"));
+	}
+	
+	@Test
+	void testInvalidateAll_removesEveryToken() {
+		cache.put(testToken);
+		cache.invalidateAll();
+		assertNull(cache.usernameForToken(testToken.getId()));
+	}
+	
+	@Test
+	void testClear_invalidatesDatabaseCache() throws DataAccessException {
+		Database<DatabaseTable> db = new Database<>(Database.TEST_DATABASE_NAME, DatabaseTable.values());
+		AuthTokenCache.forDatabase(db).put(testToken);
+		assertSame(AuthTokenCache.forDatabase(db), AuthTokenCache.forDatabase(db));
+		
+		new ClearService(db).clear();
+		assertNull(AuthTokenCache.forDatabase(db).usernameForToken(testToken.getId()));
+	}
+	
+	@Test
+	void testPut_ignoresTokensReadBeforeInvalidation() {
+		// A request reads the token from the database...
+		long generation = cache.getGeneration();
+		// ...while a clear removes every token and invalidates the cache...
+		cache.invalidateAll();
+		// ...and only then caches what it read.
+		cache.put(testToken, generation);
+		
+		assertNull(cache.usernameForToken(testToken.getId()));
+		assertEquals(0, cache.getSize());
+		
+		cache.put(testToken, cache.getGeneration());
+		assertEquals(testToken.getAssociatedUsername(), cache.usernameForToken(testToken.getId()));
+	}
+}
@@ -23,6 +23,9 @@ public class ClearService {
 	 */
 	public boolean clear() throws DataAccessException {
 		db.clearTables();
+		AuthTokenCache.forDatabase(db).invalidateAll();
+		DataVersions.forDatabase(db).changedAll();
+		FetchDataCache.forDatabase(db).invalidateAll();
 		return true;
 	}
 }
@@ -0,0 +1,72 @@
+package services;
+
+import dao.DatabaseTable;
+import database.Database;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The version of each user's family tree data. A user's version changes whenever their persons
+ * or events are written, so clients can tell whether data they fetched earlier is still current.
+ *
+ * Versions live only in memory. Each set of versions has a random epoch, so that versions handed
+ * out before the server restarted are never mistaken for current ones.
+ */
+public class DataVersions {
+	private static final Map<Database<DatabaseTable>, DataVersions> versionsByDatabase =
+		Collections.synchronizedMap(new WeakHashMap<>());
+	
+	private final long epoch = ThreadLocalRandom.current().nextLong();
+	private final @NotNull AtomicLong sequence = new AtomicLong(0);
+	private final @NotNull ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+	
+	/**
+	 * Gets the versions of the data stored in the given database, creating them if there are
+	 * none yet.
+	 *
+	 * @param database The database whose data is versioned.
+	 * @return The database's data versions.
+	 */
+	public static @NotNull DataVersions forDatabase(@NotNull Database<DatabaseTable> database) {
+		return versionsByDatabase.computeIfAbsent(database, db -> new DataVersions());
+	}
+	
+	/**
+	 * @param userName The ID of the user whose data to check.
+	 * @return The current version of the user's data. Versions only go up.
+	 */
+	public long getVersion(@NotNull String userName) {
+		return versions.computeIfAbsent(userName, key -> sequence.incrementAndGet());
+	}
+	
+	/**
+	 * @param userName The ID of the user whose data to check.
+	 * @return A weak entity tag, including its quotes, that changes whenever the user's data does.
+	 */
+	public @NotNull String getEntityTag(@NotNull String userName) {
+		return "W/\"" + Long.toHexString(epoch) + "-" + Long.toHexString(getVersion(userName)) + "\"";
+	}
+	
+	/**
+	 * Gives the user's data a new version. Call this after each transaction that writes the
+	 * user's persons or events has finished, whether or not it committed.
+	 *
+	 * @param userName The ID of the user whose data changed.
+	 */
+	public void changed(@NotNull String userName) {
+		versions.put(userName, sequence.incrementAndGet());
+	}
+	
+	/**
+	 * Gives every user's data a new version. Call this after the database is cleared or loaded.
+	 */
+	public void changedAll() {
+		versions.clear();
+	}
+}
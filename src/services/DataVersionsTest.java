@@ -0,0 +1,48 @@
+package services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataVersionsTest {
+	private DataVersions versions;
+	
+	@BeforeEach
+	void setUp() {
+		versions = new DataVersions();
+	}
+	
+	@Test
+	void testGetVersion_isStableUntilChanged() {
+		long first = versions.getVersion("sheila");
+		assertEquals(first, versions.getVersion("sheila"));
+		assertEquals(versions.getEntityTag("sheila"), versions.getEntityTag("sheila"));
+		
+		String tag = versions.getEntityTag("sheila");
+		versions.changed("sheila");
+		assertTrue(versions.getVersion("sheila") > first);
+		assertNotEquals(tag, versions.getEntityTag("sheila"));
+	}
+	
+	@Test
+	void testChanged_leavesOtherUsersAlone() {
+		long other = versions.getVersion("patrick");
+		versions.changed("sheila");
+		assertEquals(other, versions.getVersion("patrick"));
+	}
+	
+	@Test
+	void testChangedAll_changesEveryUser() {
+		String sheila = versions.getEntityTag("sheila");
+		String patrick = versions.getEntityTag("patrick");
+		versions.changedAll();
+		assertNotEquals(sheila, versions.getEntityTag("sheila"));
+		assertNotEquals(patrick, versions.getEntityTag("patrick"));
+	}
+	
+	@Test
+	void testGetEntityTag_differsBetweenInstances() {
+		assertNotEquals(versions.getEntityTag("sheila"), new DataVersions().getEntityTag("sheila"));
+	}
+}
@@ -0,0 +1,360 @@
+package services;
+
+import dao.DatabaseTable;
+import database.Database;
+import model.Event;
+import model.ModelData;
+import model.Person;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, in-memory cache of each user's <code>Person</code> and <code>Event</code> entries.
+ * The cache is bounded by the estimated size of its entries in memory, and evicts the least
+ * recently used user's entries first.
+ *
+ * Each cached list is tagged with the version of the user's data that was current when the list
+ * was read. A list whose version is out of date is never returned, even if a write raced with
+ * the read that filled it.
+ */
+public class FetchDataCache {
+	/**
+	 * The most memory, in bytes, that the cache uses by default: an eighth of the heap, up to
+	 * 64 MiB.
+	 */
+	public static final long DEFAULT_MAX_BYTES = Math.min(64L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 8);
+	
+	private static final Map<Database<DatabaseTable>, FetchDataCache> caches =
+		Collections.synchronizedMap(new WeakHashMap<>());
+	
+	// Rough sizes, in bytes, of the objects that make up an entry
+	private static final long OBJECT_OVERHEAD = 16;
+	private static final long REFERENCE_SIZE = 8;
+	private static final long STRING_OVERHEAD = 40;
+	private static final long MAP_ENTRY_SIZE = 48;
+	
+	private final long maxBytes;
+	private final @NotNull LinkedHashMap<Key, Records> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes = 0;
+	
+	// Metrics
+	private final @NotNull LongAdder hitCount = new LongAdder();
+	private final @NotNull LongAdder missCount = new LongAdder();
+	private final @NotNull LongAdder evictionCount = new LongAdder();
+	
+	private static final class Key {
+		private final @NotNull DatabaseTable table;
+		private final @NotNull String userName;
+		
+		Key(@NotNull DatabaseTable table, @NotNull String userName) {
+			this.table = table;
+			this.userName = userName;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return table == key.table && userName.equals(key.userName);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(table, userName);
+		}
+	}
+	
+	/**
+	 * Every entry of one type for one user, as read at one version of the user's data.
+	 */
+	public static final class Records {
+		private final long version;
+		private final @NotNull List<ModelData> records;
+		private final @NotNull Map<String, ModelData> recordsById;
+		private final long bytes;
+		
+		private Records(long version, @NotNull List<? extends ModelData> records) {
+			this.version = version;
+			List<ModelData> snapshot = new ArrayList<>(records.size());
+			this.recordsById = new HashMap<>(records.size() * 2);
+			long bytes = OBJECT_OVERHEAD * 4;
+			for (ModelData record : records) {
+				ModelData copy = copyOf(record);
+				snapshot.add(copy);
+				recordsById.put(copy.getId(), copy);
+				bytes += estimateBytes(copy) + REFERENCE_SIZE + MAP_ENTRY_SIZE;
+			}
+			this.records = snapshot;
+			this.bytes = bytes;
+		}
+		
+		/**
+		 * @return Copies of the entries, in the order they were read. Changes to the copies do
+		 * not reach the cache.
+		 */
+		public @NotNull List<ModelData> getAll() {
+			List<ModelData> copies = new ArrayList<>(records.size());
+			for (ModelData record : records) {
+				copies.add(copyOf(record));
+			}
+			return copies;
+		}
+		
+		/**
+		 * @param id The ID of the entry to find.
+		 * @return A copy of the entry with the given ID, or <code>null</code> if there is no such
+		 * entry.
+		 */
+		public @Nullable ModelData find(@NotNull String id) {
+			ModelData record = recordsById.get(id);
+			return record == null ? null : copyOf(record);
+		}
+	}
+	
+	/**
+	 * Copies the given entry, so that the cache never shares an instance that someone else may
+	 * modify. <code>Event</code> entries cannot be modified, so they are not copied.
+	 *
+	 * @param record The entry to copy.
+	 * @return An equal entry.
+	 */
+	private static @NotNull ModelData copyOf(@NotNull ModelData record) {
+		if (record instanceof Person) {
+			Person person = (Person) record;
+			return new Person(
+				person.getPersonID(),
+				person.getAssociatedUsername(),
+				person.getFirstName(),
+				person.getLastName(),
+				person.getGender(),
+				person.getFatherID(),
+				person.getMotherID(),
+				person.getSpouseID()
+			);
+		}
+		return record;
+	}
+	
+	/**
+	 * Creates a <code>FetchDataCache</code> object.
+	 *
+	 * @param maxBytes The most memory, in bytes, that cached entries may use. Must be positive.
+	 */
+	public FetchDataCache(long maxBytes) {
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		this.maxBytes = maxBytes;
+	}
+	
+	/**
+	 * Gets the cache that mirrors data stored in the given database, creating one if there is
+	 * none yet.
+	 *
+	 * @param database The database whose data the cache mirrors.
+	 * @return The database's data cache.
+	 */
+	public static @NotNull FetchDataCache forDatabase(@NotNull Database<DatabaseTable> database) {
+		return caches.computeIfAbsent(database, db -> new FetchDataCache(DEFAULT_MAX_BYTES));
+	}
+	
+	/**
+	 * Looks up the entries of the given type that belong to the given user.
+	 *
+	 * @param table The type of entry.
+	 * @param userName The ID of the user.
+	 * @param version The current version of the user's data.
+	 * @return The cached entries, or <code>null</code> if there are none, or they were read at
+	 * another version.
+	 */
+	public @Nullable Records get(@NotNull DatabaseTable table, @NotNull String userName, long version) {
+		Records cached;
+		synchronized (entries) {
+			cached = entries.get(new Key(table, userName));
+		}
+		if (cached == null || cached.version != version) {
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return cached;
+	}
+	
+	/**
+	 * Adds the given entries to the cache, replacing any that were cached for the same user and
+	 * type. Lists too large to fit in an eighth of the cache are not kept.
+	 *
+	 * @param table The type of entry.
+	 * @param userName The ID of the user.
+	 * @param version The version of the user's data that was current before the entries were
+	 *                read.
+	 * @param records Every entry of the given type that belongs to the user.
+	 * @return The entries, ready to be searched.
+	 */
+	public @NotNull Records put(
+		@NotNull DatabaseTable table,
+		@NotNull String userName,
+		long version,
+		@NotNull List<? extends ModelData> records
+	) {
+		Records newRecords = new Records(version, records);
+		if (newRecords.bytes > getMaxEntryBytes()) {
+			return newRecords;
+		}
+		
+		Key key = new Key(table, userName);
+		synchronized (entries) {
+			Records former = entries.get(key);
+			if (former != null && former.version > version) {
+				// A later read already cached newer entries
+				return newRecords;
+			}
+			entries.put(key, newRecords);
+			if (former != null) {
+				totalBytes -= former.bytes;
+			}
+			totalBytes += newRecords.bytes;
+			
+			Iterator<Records> eldest = entries.values().iterator();
+			while (totalBytes > maxBytes && eldest.hasNext()) {
+				totalBytes -= eldest.next().bytes;
+				eldest.remove();
+				evictionCount.increment();
+			}
+		}
+		return newRecords;
+	}
+	
+	/**
+	 * @return The estimated size, in bytes, of the largest list of entries that the cache keeps.
+	 */
+	public long getMaxEntryBytes() {
+		return maxBytes / 8;
+	}
+	
+	/**
+	 * Removes the given user's entries from the cache. Call this whenever the user's persons or
+	 * events are written.
+	 *
+	 * @param userName The ID of the user whose entries to remove.
+	 */
+	public void invalidate(@NotNull String userName) {
+		synchronized (entries) {
+			for (DatabaseTable table : DatabaseTable.values()) {
+				Records former = entries.remove(new Key(table, userName));
+				if (former != null) {
+					totalBytes -= former.bytes;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Removes every entry from the cache. Call this whenever the database is cleared or loaded.
+	 */
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+			totalBytes = 0;
+		}
+	}
+	
+	
+	
+	
+	// ** Memory Estimates
+	
+	/**
+	 * Estimates the memory that the given entry uses, including its strings.
+	 *
+	 * @param record The entry.
+	 * @return The entry's estimated size in bytes.
+	 */
+	public static long estimateBytes(@NotNull ModelData record) {
+		if (record instanceof Person) {
+			Person person = (Person) record;
+			return OBJECT_OVERHEAD + 8 * REFERENCE_SIZE +
+				estimateBytes(person.getPersonID()) +
+				estimateBytes(person.getAssociatedUsername()) +
+				estimateBytes(person.getFirstName()) +
+				estimateBytes(person.getLastName()) +
+				estimateBytes(person.getFatherID()) +
+				estimateBytes(person.getMotherID()) +
+				estimateBytes(person.getSpouseID());
+		}
+		if (record instanceof Event) {
+			Event event = (Event) record;
+			long coordinates = (event.getLatitude() != null ? OBJECT_OVERHEAD + 8 : 0) +
+				(event.getLongitude() != null ? OBJECT_OVERHEAD + 8 : 0);
+			return OBJECT_OVERHEAD + 8 * REFERENCE_SIZE + 4 + coordinates +
+				estimateBytes(event.getEventID()) +
+				estimateBytes(event.getAssociatedUsername()) +
+				estimateBytes(event.getPersonID()) +
+				estimateBytes(event.getCountry()) +
+				estimateBytes(event.getCity()) +
+				estimateBytes(event.getEventType());
+		}
+		return OBJECT_OVERHEAD + 8 * REFERENCE_SIZE;
+	}
+	
+	private static long estimateBytes(@Nullable String value) {
+		// Assume two bytes per character, as older JVMs store strings
+		return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+	}
+	
+	
+	
+	
+	// ** Metrics
+	
+	/**
+	 * @return The number of lists of entries currently cached.
+	 */
+	public int getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+	
+	/**
+	 * @return The estimated memory, in bytes, that cached entries use.
+	 */
+	public long getBytes() {
+		synchronized (entries) {
+			return totalBytes;
+		}
+	}
+	
+	/**
+	 * @return The number of lookups that found current entries.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+	
+	/**
+	 * @return The number of lookups that found no current entries.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+	
+	/**
+	 * @return The number of lists of entries evicted to make room for others.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+}
@@ -0,0 +1,104 @@
+package services;
+
+import dao.DatabaseTable;
+import model.Event;
+import model.Gender;
+import model.ModelData;
+import model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchDataCacheTest {
+	private FetchDataCache cache;
+	
+	@BeforeEach
+	void setUp() {
+		cache = new FetchDataCache(1024 * 1024);
+	}
+	
+	private static Person person(String id, String userName) {
+		return new Person(id, userName, "Bob", "Smiley", Gender.MALE, null, null, null);
+	}
+	
+	private static List<Person> people(int count, String userName) {
+		List<Person> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			result.add(person(userName + "_" + i, userName));
+		}
+		return result;
+	}
+	
+	@Test
+	void testGet_returnsEntriesAtMatchingVersion() {
+		cache.put(DatabaseTable.PERSON, "bob", 1, people(3, "bob"));
+		
+		FetchDataCache.Records records = cache.get(DatabaseTable.PERSON, "bob", 1);
+		assertNotNull(records);
+		assertEquals(3, records.getAll().size());
+		assertEquals(person("bob_1", "bob"), records.find("bob_1"));
+		assertNull(records.find("sheila_1"));
+		assertEquals(1, cache.getHitCount());
+		
+		assertNull(cache.get(DatabaseTable.PERSON, "bob", 2), "Entries from an old version should be stale");
+		assertNull(cache.get(DatabaseTable.EVENT, "bob", 1));
+		assertEquals(2, cache.getMissCount());
+	}
+	
+	@Test
+	void testInvalidate_removesOnlyThatUser() {
+		cache.put(DatabaseTable.PERSON, "bob", 1, people(3, "bob"));
+		cache.put(DatabaseTable.EVENT, "bob", 1, new ArrayList<>());
+		cache.put(DatabaseTable.PERSON, "sheila", 1, people(3, "sheila"));
+		assertEquals(3, cache.getSize());
+		
+		cache.invalidate("bob");
+		assertEquals(1, cache.getSize());
+		assertNotNull(cache.get(DatabaseTable.PERSON, "sheila", 1));
+		
+		cache.invalidateAll();
+		assertEquals(0, cache.getSize());
+		assertEquals(0, cache.getBytes());
+	}
+	
+	@Test
+	void testPut_evictsLeastRecentlyUsedToStayUnderLimit() {
+		List<Person> tree = people(100, "a");
+		long treeBytes = 0;
+		for (ModelData record : tree) {
+			treeBytes += FetchDataCache.estimateBytes(record);
+		}
+		cache = new FetchDataCache(treeBytes * 8 * 2);
+		
+		cache.put(DatabaseTable.PERSON, "a", 1, tree);
+		cache.put(DatabaseTable.PERSON, "b", 1, people(100, "b"));
+		assertNotNull(cache.get(DatabaseTable.PERSON, "a", 1));
+		for (int i = 0; i < 20; i++) {
+			cache.put(DatabaseTable.PERSON, "user" + i, 1, people(100, "user" + i));
+		}
+		
+		assertTrue(cache.getBytes() <= treeBytes * 8 * 2);
+		assertTrue(cache.getEvictionCount() > 0);
+		assertNull(cache.get(DatabaseTable.PERSON, "b", 1));
+	}
+	
+	@Test
+	void testPut_skipsListsTooLargeToCache() {
+		cache = new FetchDataCache(8 * 1024);
+		FetchDataCache.Records records = cache.put(DatabaseTable.PERSON, "bob", 1, people(100, "bob"));
+		assertEquals(100, records.getAll().size());
+		assertEquals(0, cache.getSize());
+	}
+	
+	@Test
+	void testEstimateBytes_countsStrings() {
+		Event small = new Event("e", "bob", "p", null, null, null, null, "birth", 1990);
+		Event large = new Event("e", "bob", "p", 1.0, 2.0, "United States of America", "Provo", "birth", 1990);
+		assertTrue(FetchDataCache.estimateBytes(large) > FetchDataCache.estimateBytes(small));
+		assertTrue(FetchDataCache.estimateBytes(person("p", "bob")) > 0);
+	}
+}
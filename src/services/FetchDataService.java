@@ -3,24 +3,32 @@ package services;
 import dao.*;
 import database.DataAccessException;
 import database.Database;
+import database.RecordConsumer;
 import handlers.FetchDataRequest;
 import model.*;
 import org.jetbrains.annotations.NotNull;
 import server.Server;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * An object that serves a single data-fetch request.
+ * An object that serves a single data-fetch request. Each user's <code>Person</code> and
+ * <code>Event</code> entries are read through the database's <code>FetchDataCache</code>.
  */
 public class FetchDataService {
 	private final @NotNull Database<DatabaseTable> db;
+	private final @NotNull FetchDataCache cache;
+	private final @NotNull DataVersions versions;
 	
 	public FetchDataService(@NotNull Database<DatabaseTable> database) {
 		this.db = database;
+		this.cache = FetchDataCache.forDatabase(database);
+		this.versions = DataVersions.forDatabase(database);
 	}
 	
 	/**
@@ -34,9 +42,24 @@ public class FetchDataService {
 	public <T extends ModelData> @NotNull FetchDataResult<T> fetch(
 		FetchDataRequest request
 	) throws DataAccessException {
+		if (isCached(request.getTable())) {
+			FetchDataCache.Records records = cachedRecords(request.getTable(), request.getUserName());
+			String id = request.getId();
+			if (id == null) {
+				//noinspection unchecked
+				return new FetchDataResult<>((List<T>) records.getAll());
+			}
+			ModelData record = records.find(id);
+			if (record != null) {
+				//noinspection unchecked
+				return new FetchDataResult<>(new ArrayList<>(Collections.singletonList((T) record)));
+			}
+			// The entry is missing or belongs to someone else. The database can tell us which.
+		}
+		
 		AtomicReference<FetchDataResult<T>> result = new AtomicReference<>(null);
 		
-		db.runTransaction(conn -> {
+		db.runReadTransaction(conn -> {
 			List<T> data = new ArrayList<>();
 			
 			try {
@@ -83,6 +106,78 @@ public class FetchDataService {
 	}
 	
 	
+	/**
+	 * Reads every <code>Person</code> or <code>Event</code> entry associated with the user named
+	 * in the provided <code>request</code>, and hands each one to the given
+	 * <code>consumer</code>. Uncached entries are read from the database in full before the
+	 * first is handed to the consumer.
+	 *
+	 * @param request Information about the sort of data to retrieve. The request's ID is ignored.
+	 * @param consumer The function that receives each entry.
+	 * @param <T> The model type of the data to fetch.
+	 * @throws DataAccessException An exception if there was a problem accessing the database.
+	 * @throws IOException An exception thrown by the <code>consumer</code>.
+	 */
+	public <T extends ModelData> void stream(
+		@NotNull FetchDataRequest request,
+		@NotNull RecordConsumer<T> consumer
+	) throws DataAccessException, IOException {
+		if (!isCached(request.getTable())) {
+			throw new IllegalArgumentException(
+				"Cannot stream entries from table: " + request.getTable().getName()
+			);
+		}
+		
+		// The listing is read in one transaction, so it comes from a single snapshot of the user's
+		// data even if a write commits meanwhile. It is handed to the consumer only once the
+		// transaction is over, so a slow client never holds a connection or SQLite's read lock.
+		for (ModelData record : cachedRecords(request.getTable(), request.getUserName()).getAll()) {
+			//noinspection unchecked
+			consumer.accept((T) record);
+		}
+	}
+	
+	
+	/**
+	 * @return <code>true</code> if entries of the given type are read through the cache.
+	 */
+	private static boolean isCached(@NotNull DatabaseTable table) {
+		return table == DatabaseTable.PERSON || table == DatabaseTable.EVENT;
+	}
+	
+	/**
+	 * Gets every <code>Person</code> or <code>Event</code> entry associated with the given user,
+	 * from the cache if the cached entries are current, or else from the database.
+	 *
+	 * @param table The type of entry. Must be <code>PERSON</code> or <code>EVENT</code>.
+	 * @param userName The ID of the user.
+	 * @return The user's entries.
+	 * @throws DataAccessException An exception if there was a problem accessing the database.
+	 */
+	private @NotNull FetchDataCache.Records cachedRecords(
+		@NotNull DatabaseTable table,
+		@NotNull String userName
+	) throws DataAccessException {
+		// Read the version before the data, so that a concurrent write makes the entries stale.
+		long version = versions.getVersion(userName);
+		FetchDataCache.Records cached = cache.get(table, userName, version);
+		if (cached != null) {
+			return cached;
+		}
+		
+		AtomicReference<List<? extends ModelData>> records = new AtomicReference<>(null);
+		db.runReadTransaction(conn -> {
+			if (table == DatabaseTable.PERSON) {
+				records.set(new PersonDao(conn).findForUser(userName));
+			} else {
+				records.set(new EventDao(conn).findForUser(userName));
+			}
+			return false;
+		});
+		return cache.put(table, userName, version, records.get());
+	}
+	
+	
 	/**
 	 * Fetches <code>Person</code> entries that match details specified in the provided
 	 * <code>request</code>.
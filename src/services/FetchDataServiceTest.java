@@ -13,7 +13,12 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -232,6 +237,51 @@ class FetchDataServiceTest {
 		assertEquals(2, result.getData().size());
 	}
 	
+	@Test
+	void testFetch_changesToFetchedPersonsDoNotReachNextFetch() throws DataAccessException, IOException {
+		Person keyObject = setUpPerson(TEST_PERSON_ID);
+		FetchDataRequest byId = new FetchDataRequest(DatabaseTable.PERSON, TEST_USER_ID);
+		byId.setId(TEST_PERSON_ID);
+		
+		FetchDataResult<Person> listed = service.fetch(new FetchDataRequest(DatabaseTable.PERSON, TEST_USER_ID));
+		assertNotNull(listed.getData());
+		listed.getData().get(0).setFirstName("Changed");
+		FetchDataResult<Person> found = service.fetch(byId);
+		assertNotNull(found.getData());
+		assertEquals(keyObject, found.getData().get(0));
+		
+		found.getData().get(0).setLastName("Changed");
+		FetchDataCache.forDatabase(db).invalidateAll();
+		List<Person> visited = new ArrayList<>();
+		service.<Person>stream(new FetchDataRequest(DatabaseTable.PERSON, TEST_USER_ID), visited::add);
+		assertEquals(Collections.singletonList(keyObject), visited);
+		
+		visited.get(0).setSpouseID("Changed");
+		FetchDataResult<Person> relisted = service.fetch(new FetchDataRequest(DatabaseTable.PERSON, TEST_USER_ID));
+		assertEquals(Collections.singletonList(keyObject), relisted.getData());
+	}
+	
+	
+	
+	// ** Stream Results for User
+	
+	@Test
+	void testStream_visitsEachPersonForUser() throws DataAccessException, IOException {
+		Person first = setUpPerson(TEST_PERSON_ID);
+		Person second = setUpPerson(TEST_PERSON_ID + "2");
+		List<Person> visited = new ArrayList<>();
+		service.<Person>stream(new FetchDataRequest(DatabaseTable.PERSON, TEST_USER_ID), visited::add);
+		assertEquals(Arrays.asList(first, second), visited);
+	}
+	
+	@Test
+	void testStream_visitsNothingForUnknownUser() throws DataAccessException, IOException {
+		setUpEvent(TEST_EVENT_ID);
+		List<Event> visited = new ArrayList<>();
+		service.<Event>stream(new FetchDataRequest(DatabaseTable.EVENT, "nobody"), visited::add);
+		assertTrue(visited.isEmpty());
+	}
+	
 	
 	
 	// ** Return One Result with ID
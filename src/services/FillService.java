@@ -11,17 +11,54 @@ import server.Server;
 import utilities.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An object that serves a single database-fill request.
  */
 public class FillService {
+	/**
+	 * Fills of at least this many generations build the family tree in parallel. Smaller trees
+	 * are built faster on one thread.
+	 */
+	public static final int PARALLEL_GENERATIONS_THRESHOLD = 6;
+	
+	/**
+	 * While building a tree in parallel, subtrees of at most this many generations are built on
+	 * the thread that reaches them rather than being split further.
+	 */
+	private static final int SEQUENTIAL_SUBTREE_GENERATIONS = 3;
+	
 	private final Database<DatabaseTable> db;
+	private final @NotNull ForkJoinPool generationPool;
 	
+	/**
+	 * Creates a <code>FillService</code> that builds large family trees on the common
+	 * fork-join pool.
+	 *
+	 * @param database The database to fill.
+	 */
 	public FillService(@NotNull Database<DatabaseTable> database) {
+		this(database, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Creates a <code>FillService</code> object.
+	 *
+	 * @param database The database to fill.
+	 * @param generationPool The pool on which to build large family trees. Its parallelism
+	 *                       limits how many threads work on one fill.
+	 */
+	public FillService(
+		@NotNull Database<DatabaseTable> database,
+		@NotNull ForkJoinPool generationPool
+	) {
 		this.db = database;
+		this.generationPool = generationPool;
 	}
 	
 	
@@ -59,6 +96,8 @@ public class FillService {
 		
 		// Write them in
 		FillResult result = fillNewGenerations(personCount, eventCount, newEntries);
+		DataVersions.forDatabase(db).changed(userName);
+		FetchDataCache.forDatabase(db).invalidate(userName);
 		
 		Server.logger.info("Filled " + generations + " generations of people. Added " +
 			result.getPersonCount() + " people and " +
@@ -95,12 +134,8 @@ public class FillService {
 				List<Person> userPersons = newEntries.getFirst();
 				List<Event> userEvents = newEntries.getSecond();
 				
-				for (Person person : userPersons) {
-					personDao.update(person);
-				}
-				for (Event event : userEvents) {
-					eventDao.update(event);
-				}
+				personDao.updateAll(userPersons);
+				eventDao.updateAll(userEvents);
 				
 				result.set(new FillResult(
 					userPersons.size() + personCount,
@@ -174,6 +209,8 @@ public class FillService {
 			
 			return true;
 		});
+		DataVersions.forDatabase(db).changed(userName);
+		FetchDataCache.forDatabase(db).invalidate(userName);
 		
 		return newUserPerson.get();
 	}
@@ -197,10 +234,7 @@ public class FillService {
 			PersonDao personDao = new PersonDao(conn);
 			EventDao eventDao = new EventDao(conn);
 			
-			// Get the user's family tree
-			List<Person> userPersons = personDao.findForUser(userName);
-			
-			// Get the user's Person entry, if they have one
+			// Make sure the user exists
 			User user = userDao.find(userName);
 			if (user == null) {
 				throw new DataAccessException(
@@ -210,17 +244,13 @@ public class FillService {
 			}
 			
 			// Eat the user's tree
-			for (Person person : userPersons) {
-				personDao.delete(person.getId());
-				
-				List<Event> personEvents = eventDao.findForPerson(person.getId());
-				for (Event event : personEvents) {
-					eventDao.delete(event.getId());
-				}
-			}
+			eventDao.deleteForUser(userName);
+			personDao.deleteForUser(userName);
 			
 			return true;
 		});
+		DataVersions.forDatabase(db).changed(userName);
+		FetchDataCache.forDatabase(db).invalidate(userName);
 	}
 	
 	
@@ -262,6 +292,10 @@ public class FillService {
 			throw new IllegalArgumentException("Generations must be positive or 0");
 		}
 		
+		if (generations >= PARALLEL_GENERATIONS_THRESHOLD) {
+			return parallelGenerationsFromChild(generations, child, userName);
+		}
+		
 		// Iteratively create parents from the child, and add the new people to the array.
 		// For each generation...
 		
@@ -271,13 +305,13 @@ public class FillService {
 			"This year is " + thisYear + ". Father was born in " + fathersBirthYear + "."
 		);
 		
-		List<Person> allNewPersons = new ArrayList<>();
+		IdentifiedList<String, Person> allNewPersons = new IdentifiedList<>();
 		List<Event> allNewEvents = new ArrayList<>();
 		
 		List<Person> generation = new ArrayList<>(Collections.singletonList(child));
 		
 		if (generations == 0) {
-			allNewPersons.add(child);
+			allNewPersons.update(child);
 		}
 		
 		// Add the user's birth event
@@ -294,8 +328,8 @@ public class FillService {
 				Pair<List<Person>, List<Event>> family =
 					parentalGenerationFromChild(person, userName, fathersBirthYear);
 				for (Person newPerson : family.getFirst()) {
-					ArrayHelpers.updateElementInList(allNewPersons, newPerson);
-					ArrayHelpers.updateElementInList(allNewPersons, child);
+					allNewPersons.update(newPerson);
+					allNewPersons.update(child);
 				}
 				allNewEvents.addAll(family.getSecond());
 				newGeneration.addAll(family.getFirst());
@@ -304,7 +338,127 @@ public class FillService {
 			generation = newGeneration;
 		}
 		
-		return new Pair<>(allNewPersons, allNewEvents);
+		return new Pair<>(allNewPersons.toList(), allNewEvents);
+	}
+	
+	
+	/**
+	 * Creates the same family tree as <code>generationsFromChild</code>, but builds each
+	 * parent's ancestors as a separate task on the <code>generationPool</code>.
+	 *
+	 * @param generations The number of generations of events and people to generate.
+	 * @param child The root of the new family tree.
+	 * @param userName The ID of the user who owns the new records.
+	 *
+	 * @return A <code>Pair</code> of lists containing the new <code>Person</code> and
+	 * <code>Event</code> entries, respectively.
+	 * @throws IOException An exception if there was a problem accessing the bank of random names.
+	 */
+	private @NotNull Pair<List<Person>, List<Event>> parallelGenerationsFromChild(
+		int generations,
+		@NotNull Person child,
+		@NotNull String userName
+	) throws IOException {
+		int thisYear = this.thisYear();
+		int fathersBirthYear = thisYear - CHILD_CURRENT_AGE - DADDY_AGE;
+		
+		IdentifiedList<String, Person> allNewPersons = new IdentifiedList<>();
+		List<Event> allNewEvents = new ArrayList<>();
+		allNewPersons.update(child);
+		allNewEvents.add(newEvent(userName, child,
+			"birth", thisYear - CHILD_CURRENT_AGE, null));
+		
+		Pair<List<Person>, List<Event>> ancestry;
+		try {
+			ancestry = generationPool.invoke(new AncestryTask(
+				child,
+				userName,
+				generations,
+				fathersBirthYear - DADDY_AGE
+			));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		
+		allNewPersons.updateAll(ancestry.getFirst());
+		allNewEvents.addAll(ancestry.getSecond());
+		return new Pair<>(allNewPersons.toList(), allNewEvents);
+	}
+	
+	
+	/**
+	 * Creates the ancestors of one person, along with their events. Each parent's own
+	 * ancestors are built by a subtask.
+	 */
+	private final class AncestryTask extends RecursiveTask<Pair<List<Person>, List<Event>>> {
+		private final @NotNull Person child;
+		private final @NotNull String userName;
+		private final int generations;
+		private final int fathersBirthYear;
+		
+		/**
+		 * @param child The person whose ancestors to create.
+		 * @param userName The ID of the user who owns the new records.
+		 * @param generations The number of generations to create. Must be positive.
+		 * @param fathersBirthYear The approximate birth year of the child's parents.
+		 */
+		AncestryTask(
+			@NotNull Person child,
+			@NotNull String userName,
+			int generations,
+			int fathersBirthYear
+		) {
+			this.child = child;
+			this.userName = userName;
+			this.generations = generations;
+			this.fathersBirthYear = fathersBirthYear;
+		}
+		
+		@Override
+		protected Pair<List<Person>, List<Event>> compute() {
+			Pair<List<Person>, List<Event>> family;
+			try {
+				family = parentalGenerationFromChild(child, userName, fathersBirthYear);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (generations == 1) {
+				return family;
+			}
+			
+			List<Person> persons = new ArrayList<>(family.getFirst());
+			List<Event> events = new ArrayList<>(family.getSecond());
+			
+			AncestryTask fatherSide = new AncestryTask(
+				persons.get(0),
+				userName,
+				generations - 1,
+				fathersBirthYear - DADDY_AGE
+			);
+			AncestryTask motherSide = new AncestryTask(
+				persons.get(1),
+				userName,
+				generations - 1,
+				fathersBirthYear - DADDY_AGE
+			);
+			
+			Pair<List<Person>, List<Event>> fatherAncestry;
+			Pair<List<Person>, List<Event>> motherAncestry;
+			if (generations - 1 > SEQUENTIAL_SUBTREE_GENERATIONS) {
+				motherSide.fork();
+				fatherAncestry = fatherSide.compute();
+				motherAncestry = motherSide.join();
+			} else {
+				fatherAncestry = fatherSide.compute();
+				motherAncestry = motherSide.compute();
+			}
+			
+			persons.addAll(fatherAncestry.getFirst());
+			persons.addAll(motherAncestry.getFirst());
+			events.addAll(fatherAncestry.getSecond());
+			events.addAll(motherAncestry.getSecond());
+			return new Pair<>(persons, events);
+		}
 	}
 	
 	
@@ -439,7 +593,7 @@ public class FillService {
 			NameGenerator.newObjectIdentifier(),
 			associatedUsername,
 			NameGenerator.randomFirstName(gender),
-			NameGenerator.randomFirstName(gender),
+			NameGenerator.randomLastName(),
 			gender,
 			null,
 			null,
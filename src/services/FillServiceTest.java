@@ -18,7 +18,10 @@ import utilities.Pair;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
@@ -166,7 +169,9 @@ class FillServiceTest {
 			Arguments.of(1, 3, 5),
 			Arguments.of(2, 7, 11),
 			Arguments.of(3, 15, 35),
-			Arguments.of(4, 31, 63)
+			Arguments.of(4, 31, 63),
+			Arguments.of(6, 127, 379),
+			Arguments.of(8, 511, 1531)
 		);
 	}
 	
@@ -307,6 +312,16 @@ class FillServiceTest {
 		assertEquals(0, personCount());
 	}
 	
+	@Test
+	void testClearFormerData_changesDataVersion() throws DataAccessException {
+		setUpUserAndPerson();
+		String entityTag = DataVersions.forDatabase(db).getEntityTag(TEST_USER_ID);
+		
+		service.clearFormerData(TEST_USER_ID);
+		
+		assertNotEquals(entityTag, DataVersions.forDatabase(db).getEntityTag(TEST_USER_ID));
+	}
+	
 	
 	
 	// ** This Year
@@ -401,6 +416,46 @@ class FillServiceTest {
 			"Incorrect number of new Event entries");
 	}
 	
+	@Test
+	void testGenerationsFromChild_parallelTreeLinksEveryParent() throws DataAccessException, IOException {
+		Person child = setUpUserAndPerson();
+		FillService parallelService = new FillService(db, new ForkJoinPool(4));
+		int generations = FillService.PARALLEL_GENERATIONS_THRESHOLD + 1;
+		
+		Pair<List<Person>, List<Event>> result =
+			parallelService.generationsFromChild(generations, child, TEST_USER_ID);
+		
+		Map<String, Person> personsByID = new HashMap<>();
+		for (Person person : result.getFirst()) {
+			assertNull(personsByID.put(person.getId(), person), "Duplicate person " + person.getId());
+		}
+		Map<String, Integer> eventCounts = new HashMap<>();
+		for (Event event : result.getSecond()) {
+			assertTrue(personsByID.containsKey(event.getPersonID()));
+			eventCounts.merge(event.getPersonID(), 1, Integer::sum);
+		}
+		
+		int parentless = 0;
+		for (Person person : personsByID.values()) {
+			if (person.getFatherID() == null) {
+				assertNull(person.getMotherID());
+				parentless += 1;
+				continue;
+			}
+			Person father = personsByID.get(person.getFatherID());
+			Person mother = personsByID.get(person.getMotherID());
+			assertNotNull(father);
+			assertNotNull(mother);
+			assertEquals(Gender.MALE, father.getGender());
+			assertEquals(Gender.FEMALE, mother.getGender());
+			assertEquals(mother.getId(), father.getSpouseID());
+			assertEquals(father.getId(), mother.getSpouseID());
+			assertEquals(3, (int) eventCounts.get(father.getId()));
+			assertEquals(3, (int) eventCounts.get(mother.getId()));
+		}
+		assertEquals(1 << generations, parentless, "The oldest generation should be the only one without parents");
+	}
+	
 	@Test
 	void testGenerationsFromChild_parentsOlderThanChild() throws DataAccessException, IOException {
 		Person child = setUpUserAndPerson();
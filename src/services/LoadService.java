@@ -1,16 +1,24 @@
 package services;
 
 import dao.*;
+import com.google.gson.JsonParseException;
+import database.Dao;
 import database.DataAccessException;
 import database.Database;
 import model.Event;
+import model.ModelData;
 import model.Person;
 import model.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import requests.LoadRequestReader;
+import transport.MissingKeyException;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An object that serves a single clear-then-load request.
@@ -29,6 +37,9 @@ public class LoadService {
 	) throws DataAccessException {
 		// Clear everything
 		db.clearTables();
+		AuthTokenCache.forDatabase(db).invalidateAll();
+		DataVersions.forDatabase(db).changedAll();
+		FetchDataCache.forDatabase(db).invalidateAll();
 		
 		// Add new entries
 		AtomicInteger usersAdded = new AtomicInteger(0);
@@ -41,29 +52,19 @@ public class LoadService {
 			EventDao eventDao = new EventDao(conn);
 			
 			if (users != null) {
-				for (User user : users) {
-					if (userDao.insertIfNotExists(user)) {
-						usersAdded.addAndGet(1);
-					}
-				}
+				usersAdded.addAndGet(userDao.insertAllIfNotExists(users));
 			}
 			if (persons != null) {
-				for (Person person : persons) {
-					if (personDao.insertIfNotExists(person)) {
-						personsAdded.addAndGet(1);
-					}
-				}
+				personsAdded.addAndGet(personDao.insertAllIfNotExists(persons));
 			}
 			if (events != null) {
-				for (Event event : events) {
-					if (eventDao.insertIfNotExists(event)) {
-						eventsAdded.addAndGet(1);
-					}
-				}
+				eventsAdded.addAndGet(eventDao.insertAllIfNotExists(events));
 			}
 			
 			return true;
 		});
+		DataVersions.forDatabase(db).changedAll();
+		FetchDataCache.forDatabase(db).invalidateAll();
 		
 		return new LoadResult(
 			usersAdded.get(),
@@ -72,4 +73,94 @@ public class LoadService {
 		);
 	}
 	
+	/**
+	 * Clears the database, then writes the entries from the given reader in batches as they are
+	 * read. At most one batch of each type of entry is held in memory at a time.
+	 *
+	 * The clear and every write happen in one transaction, so if the payload turns out to be
+	 * malformed, the database is left as it was. The reader is read while that transaction
+	 * holds the database's only writer, so it should read from a local file, not from a client.
+	 *
+	 * @param reader The source of the entries to load.
+	 * @return The result of the operation.
+	 * @throws DataAccessException An exception if there was a problem accessing the database.
+	 * @throws IOException An exception if the payload could not be read.
+	 * @throws JsonParseException An exception if the payload is malformed.
+	 * @throws MissingKeyException An exception if an entry is missing a required value.
+	 */
+	public @NotNull LoadResult load(
+		@NotNull LoadRequestReader reader
+	) throws DataAccessException, IOException, JsonParseException, MissingKeyException {
+		AtomicReference<LoadResult> result = new AtomicReference<>(null);
+		AtomicReference<Exception> readFailure = new AtomicReference<>(null);
+		
+		db.runTransaction(conn -> {
+			UserDao userDao = new UserDao(conn);
+			PersonDao personDao = new PersonDao(conn);
+			EventDao eventDao = new EventDao(conn);
+			
+			// Clear everything
+			new AuthTokenDao(conn).clearAll();
+			userDao.clearAll();
+			personDao.clearAll();
+			eventDao.clearAll();
+			
+			List<User> users = new ArrayList<>();
+			List<Person> persons = new ArrayList<>();
+			List<Event> events = new ArrayList<>();
+			int usersAdded = 0;
+			int personsAdded = 0;
+			int eventsAdded = 0;
+			
+			try {
+				ModelData entry;
+				while ((entry = reader.next()) != null) {
+					if (entry instanceof User) {
+						users.add((User) entry);
+						if (users.size() == Dao.BATCH_SIZE) {
+							usersAdded += userDao.insertAllIfNotExists(users);
+							users.clear();
+						}
+					} else if (entry instanceof Person) {
+						persons.add((Person) entry);
+						if (persons.size() == Dao.BATCH_SIZE) {
+							personsAdded += personDao.insertAllIfNotExists(persons);
+							persons.clear();
+						}
+					} else if (entry instanceof Event) {
+						events.add((Event) entry);
+						if (events.size() == Dao.BATCH_SIZE) {
+							eventsAdded += eventDao.insertAllIfNotExists(events);
+							events.clear();
+						}
+					}
+				}
+				
+			} catch (IOException | MissingKeyException e) {
+				readFailure.set(e);
+				return false;
+			}
+			
+			usersAdded += userDao.insertAllIfNotExists(users);
+			personsAdded += personDao.insertAllIfNotExists(persons);
+			eventsAdded += eventDao.insertAllIfNotExists(events);
+			
+			result.set(new LoadResult(usersAdded, personsAdded, eventsAdded));
+			return true;
+		});
+		DataVersions.forDatabase(db).changedAll();
+		FetchDataCache.forDatabase(db).invalidateAll();
+		
+		Exception failure = readFailure.get();
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		if (failure instanceof MissingKeyException) {
+			throw (MissingKeyException) failure;
+		}
+		
+		AuthTokenCache.forDatabase(db).invalidateAll();
+		return result.get();
+	}
+	
 }
@@ -1,10 +1,13 @@
 package services;
 
+import com.google.gson.JsonParseException;
 import dao.*;
+import database.Dao;
 import database.DataAccessException;
 import database.Database;
 import transport.JSONSerialization;
 import requests.LoadRequest;
+import requests.LoadRequestReader;
 import transport.MissingKeyException;
 import model.Event;
 import model.Gender;
@@ -19,6 +22,7 @@ import utilities.FileHelpers;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -116,7 +120,7 @@ class LoadServiceTest {
 		assertEquals(0, eventCount(),
 			prefix + eventCount() + " events were found");
 	}
-
+	
 	@Test
 	void testLoad_doesNothingWithAllNullParameters() throws DataAccessException {
 		service.load(null, null, null);
@@ -279,4 +283,87 @@ class LoadServiceTest {
 			Assertions.fail("passoffFiles.LoadData.json was not suitable for testing");
 		}
 	}
+	
+	
+	
+	// ** Streaming
+	
+	private @NotNull LoadRequestReader readerFor(@NotNull String json) {
+		return new LoadRequestReader(new StringReader(json));
+	}
+	
+	@Test
+	void testLoadStream_matchesBufferedLoad() throws IOException, DataAccessException, MissingKeyException {
+		String rawRequest = FileHelpers.stringFromFile(
+			new File("test/driver/passoffFiles/LoadData.json").getAbsoluteFile()
+		);
+		LoadRequest loadRequest = JSONSerialization.fromJson(rawRequest, LoadRequest.class);
+		LoadResult res = service.load(readerFor(rawRequest));
+		
+		assertNotNull(loadRequest.getUsers());
+		assertNotNull(loadRequest.getPersons());
+		assertNotNull(loadRequest.getEvents());
+		assertEquals(loadRequest.getUsers().size(), res.getUserCount());
+		assertEquals(loadRequest.getPersons().size(), res.getPersonCount());
+		assertEquals(loadRequest.getEvents().size(), res.getEventCount());
+		assertEquals(loadRequest.getEvents().size(), eventCount());
+		assertEquals(loadRequest.getEvents().get(0), fetchEventWithID(loadRequest.getEvents().get(0).getId()));
+	}
+	
+	@Test
+	void testLoadStream_writesMoreThanOneBatch() throws IOException, DataAccessException, MissingKeyException {
+		StringBuilder json = new StringBuilder("{\"persons\": [");
+		int count = Dao.BATCH_SIZE * 2 + 1;
+		for (int idx = 0; idx < count; idx++) {
+			if (idx > 0) {
+				json.append(",");
+			}
+			json.append(new Person(
+				"person_" + idx,
+				TEST_USER_ID,
+				"Sam",
+				"Beckett",
+				Gender.MALE,
+				null,
+				null,
+				null
+			).toJson());
+		}
+		json.append("], \"unknown\": {\"ignored\": true}, \"users\": null}");
+		
+		LoadResult res = service.load(readerFor(json.toString()));
+		assertEquals(count, res.getPersonCount());
+		assertEquals(count, personCount());
+	}
+	
+	@Test
+	void testLoadStream_leavesDatabaseAloneWhenMalformed() throws DataAccessException {
+		service.load(null, null, Collections.singletonList(new Event(
+			"test_event",
+			TEST_USER_ID,
+			"test_person",
+			null,
+			null,
+			null,
+			null,
+			"birth",
+			2020
+		)));
+		
+		String user = new User(
+			TEST_USER_ID,
+			"password",
+			"user@example.com",
+			"Sam",
+			"Beckett",
+			Gender.MALE,
+			null
+		).toJson();
+		assertThrows(
+			JsonParseException.class,
+			() -> service.load(readerFor("{\"users\": [" + user + ","))
+		);
+		assertEquals(1, eventCount());
+		assertEquals(0, userCount());
+	}
 }
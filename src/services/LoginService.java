@@ -33,6 +33,8 @@ public class LoginService {
 	 */
 	public @NotNull LoginResult login(LoginRequest request) throws DataAccessException {
 		AtomicReference<LoginResult> result = new AtomicReference<>();
+		AuthTokenCache cache = AuthTokenCache.forDatabase(db);
+		long generation = cache.getGeneration();
 		
 		db.runTransaction(conn -> {
 			UserDao userDao = new UserDao(conn);
@@ -50,7 +52,7 @@ public class LoginService {
 			}
 			
 			AuthToken newToken = new AuthToken(
-				NameGenerator.newObjectIdentifier(),
+				NameGenerator.newAuthTokenIdentifier(),
 				user.getId(),
 				new Date(),
 				true
@@ -60,6 +62,11 @@ public class LoginService {
 			return true;
 		});
 		
-		return result.get();
+		LoginResult loginResult = result.get();
+		if (loginResult.getToken() != null) {
+			cache.put(loginResult.getToken(), generation);
+		}
+		
+		return loginResult;
 	}
 }
@@ -43,7 +43,7 @@ public class RegisterService {
 			null
 		);
 		AuthToken newToken = new AuthToken(
-			NameGenerator.newObjectIdentifier(),
+			NameGenerator.newAuthTokenIdentifier(),
 			request.getUserName(),
 			new Date(),
 			true
@@ -52,6 +52,7 @@ public class RegisterService {
 		AtomicReference<RegisterResult> result = new AtomicReference<>(null);
 		
 		try {
+			long generation = AuthTokenCache.forDatabase(db).getGeneration();
 			db.runTransaction(conn -> {
 				UserDao userDao = new UserDao(conn);
 				AuthTokenDao authTokenDao = new AuthTokenDao(conn);
@@ -61,11 +62,12 @@ public class RegisterService {
 				
 				return true;
 			});
+			AuthTokenCache.forDatabase(db).put(newToken, generation);
 			
 			FillService fillService = new FillService(db);
 			fillService.fill(request.getUserName(), 4);
 			
-			db.runTransaction(conn -> {
+			db.runReadTransaction(conn -> {
 				UserDao userDao = new UserDao(conn);
 				
 				User user = userDao.find(request.getUserName());
@@ -4,9 +4,10 @@ import model.Identifiable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 public class ArrayHelpers {
@@ -19,9 +20,8 @@ public class ArrayHelpers {
 	 * @return A random element of the list.
 	 */
 	public static <T> T randomElementFromList(@NotNull List<T> list) {
-		Random random = new Random();
 		return list.get(
-			random.nextInt(list.size())
+			ThreadLocalRandom.current().nextInt(list.size())
 		);
 	}
 	
@@ -91,6 +91,9 @@ public class ArrayHelpers {
 	 * the version in the list is removed and replaced with the provided object. If no such
 	 * object exists, then the given element is appended to the list.
 	 *
+	 * This searches the whole list, so calling it for each of many elements takes quadratic
+	 * time. Use an <code>IdentifiedList</code> (see <code>indexById</code>) instead.
+	 *
 	 * @param list The list to modify.
 	 * @param element The element to insert.
 	 * @param <S> The type of identifier that each element uses.
@@ -104,4 +107,19 @@ public class ArrayHelpers {
 		}
 		list.set(index, element);
 	}
+	
+	
+	/**
+	 * Creates an ID-indexed copy of the provided list. If several elements share an ID, the
+	 * copy keeps the last of them at the position of the first, just as calling
+	 * <code>updateElementInList</code> with each element would.
+	 *
+	 * @param list The elements to index.
+	 * @param <S> The type of identifier that each element uses.
+	 * @param <T> The type of element.
+	 * @return A new <code>IdentifiedList</code> containing the elements.
+	 */
+	public static <S, T extends Identifiable<S>> @NotNull IdentifiedList<S, T> indexById(@NotNull Collection<? extends T> list) {
+		return new IdentifiedList<>(list);
+	}
 }
@@ -14,18 +14,31 @@ public class FileHelpers {
 	public static final String UTILS_ROOT = "src/utilities/";
 	
 	public static @NotNull String stringFromFile(@NotNull File file) throws IOException {
-		BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
-		StringBuilder sb = new StringBuilder();
-		String line;
-		while ((line = bufferedReader.readLine()) != null)
-		{
-			sb.append(line);
+		try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
+			StringBuilder sb = new StringBuilder();
+			String line;
+			while ((line = bufferedReader.readLine()) != null)
+			{
+				sb.append(line);
+			}
+			return sb.toString();
 		}
-		return sb.toString();
 	}
 	
 	public static @NotNull List<String> stringsFromFile(@NotNull File file) throws IOException {
-		BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
+		try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
+			return stringsFromReader(bufferedReader);
+		}
+	}
+	
+	/**
+	 * Reads each non-empty line from the given reader. The reader is not closed.
+	 *
+	 * @param bufferedReader The reader to read.
+	 * @return The non-empty lines, in order.
+	 * @throws IOException An exception if there was a problem reading.
+	 */
+	public static @NotNull List<String> stringsFromReader(@NotNull BufferedReader bufferedReader) throws IOException {
 		List<String> list = new ArrayList<>();
 		String line;
 		while ((line = bufferedReader.readLine()) != null)
@@ -36,9 +49,4 @@ public class FileHelpers {
 		}
 		return list;
 	}
-	
-	public static @NotNull String randomStringFromFile(@NotNull String filename) throws IOException {
-		List<String> names = stringsFromFile(new File(UTILS_ROOT + filename).getAbsoluteFile());
-		return ArrayHelpers.randomElementFromList(names);
-	}
 }
@@ -0,0 +1,50 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * A strategy for creating unique object identifiers.
+ *
+ * Identifiers are written with the lowercase "base32hex" alphabet, whose characters sort in
+ * the same order as the values they encode.
+ */
+public interface IdGenerator {
+	/**
+	 * The characters used in identifiers, in ascending order.
+	 */
+	char[] ALPHABET = "0123456789abcdefghijklmnopqrstuv".toCharArray();
+	
+	/**
+	 * The number of bits that each character encodes.
+	 */
+	int BITS_PER_CHAR = 5;
+	
+	/**
+	 * @return A new identifier.
+	 */
+	@NotNull String newId();
+	
+	/**
+	 * Fills the given range of <code>chars</code> with random identifier characters. Each call
+	 * to <code>random.nextLong()</code> supplies twelve characters.
+	 *
+	 * @param chars The buffer to fill.
+	 * @param start The index of the first character to fill.
+	 * @param random The source of random bits.
+	 */
+	static void fillRandom(@NotNull char[] chars, int start, @NotNull Random random) {
+		long bits = 0;
+		int bitsLeft = 0;
+		for (int i = start; i < chars.length; i++) {
+			if (bitsLeft < BITS_PER_CHAR) {
+				bits = random.nextLong();
+				bitsLeft = Long.SIZE;
+			}
+			chars[i] = ALPHABET[(int) (bits & 0x1F)];
+			bits >>>= BITS_PER_CHAR;
+			bitsLeft -= BITS_PER_CHAR;
+		}
+	}
+}
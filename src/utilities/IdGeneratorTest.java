@@ -0,0 +1,60 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+	private static final String ALPHABET = new String(IdGenerator.ALPHABET);
+	
+	@ParameterizedTest
+	@EnumSource(IdStrategy.class)
+	void testNewId_usesTheRequestedLengthAndAlphabet(IdStrategy strategy) {
+		String id = strategy.newGenerator(NameGenerator.OBJECT_ID_LENGTH).newId();
+		assertEquals(NameGenerator.OBJECT_ID_LENGTH, id.length());
+		for (char c : id.toCharArray()) {
+			assertTrue(ALPHABET.indexOf(c) >= 0, "Unexpected character '" + c + "' in " + id);
+		}
+	}
+	
+	@ParameterizedTest
+	@EnumSource(IdStrategy.class)
+	void testNewId_doesNotRepeat(IdStrategy strategy) {
+		IdGenerator generator = strategy.newGenerator(NameGenerator.OBJECT_ID_LENGTH);
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(ids.add(generator.newId()));
+		}
+	}
+	
+	@Test
+	void testTimeOrderedNewId_sortsByCreationTime() throws InterruptedException {
+		IdGenerator generator = new TimeOrderedIdGenerator(NameGenerator.OBJECT_ID_LENGTH);
+		String first = generator.newId();
+		Thread.sleep(2);
+		String second = generator.newId();
+		assertTrue(first.compareTo(second) < 0, first + " should sort before " + second);
+	}
+	
+	@Test
+	void testInit_failsForUnusableLengths() {
+		assertThrows(IllegalArgumentException.class, () -> new RandomIdGenerator(0));
+		assertThrows(IllegalArgumentException.class, () -> new SecureIdGenerator(0));
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.TIMESTAMP_LENGTH)
+		);
+	}
+	
+	@Test
+	void testFromValue_parsesStrategyNames() {
+		assertEquals(IdStrategy.TIME_ORDERED, IdStrategy.fromValue("time-ordered"));
+		assertEquals(IdStrategy.SECURE, IdStrategy.fromValue("SECURE"));
+		assertNull(IdStrategy.fromValue("sequential"));
+	}
+}
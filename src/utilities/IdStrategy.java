@@ -0,0 +1,73 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The kinds of identifier that <code>NameGenerator</code> can create for new objects.
+ */
+public enum IdStrategy {
+	/**
+	 * Random identifiers from each thread's own random number generator.
+	 */
+	RANDOM("random"),
+	
+	/**
+	 * Identifiers that begin with the time they were made, so that new rows are written near
+	 * each other in the database's indexes.
+	 */
+	TIME_ORDERED("time-ordered"),
+	
+	/**
+	 * Random identifiers from a cryptographically strong random number generator.
+	 */
+	SECURE("secure");
+	
+	private final @NotNull String value;
+	
+	IdStrategy(@NotNull String value) {
+		this.value = value;
+	}
+	
+	/**
+	 * @return The name of the strategy as given on the command line.
+	 */
+	public @NotNull String getValue() {
+		return value;
+	}
+	
+	/**
+	 * Creates a generator that uses this strategy.
+	 *
+	 * @param length The number of characters in each identifier.
+	 * @return A new ID generator.
+	 */
+	public @NotNull IdGenerator newGenerator(int length) {
+		switch (this) {
+			case TIME_ORDERED:
+				return new TimeOrderedIdGenerator(length);
+			case SECURE:
+				return new SecureIdGenerator(length);
+			case RANDOM:
+			default:
+				return new RandomIdGenerator(length);
+		}
+	}
+	
+	/**
+	 * Attempts to create an <code>IdStrategy</code> object from the given <code>value</code> string.
+	 * @param value The strategy's name, such as <code>"random"</code>.
+	 * @return A new <code>IdStrategy</code> instance, or <code>null</code> if no strategy matched the given string.
+	 */
+	public static @Nullable IdStrategy fromValue(@Nullable String value) {
+		if (value == null) {
+			return null;
+		}
+		for (IdStrategy strategy : values()) {
+			if (strategy.getValue().equalsIgnoreCase(value)) {
+				return strategy;
+			}
+		}
+		return null;
+	}
+}
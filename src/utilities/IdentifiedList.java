@@ -0,0 +1,98 @@
+package utilities;
+
+import model.Identifiable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An insertion-ordered collection of identifiable objects that holds at most one object for
+ * each ID. Lookups and updates by ID take constant time.
+ *
+ * @param <S> The type of identifier that each element uses.
+ * @param <T> The type of element.
+ */
+public class IdentifiedList<S, T extends Identifiable<S>> extends AbstractCollection<T> {
+	private final @NotNull LinkedHashMap<S, T> elements = new LinkedHashMap<>();
+	
+	public IdentifiedList() {}
+	
+	/**
+	 * Creates an <code>IdentifiedList</code> containing the given elements, as though each
+	 * were passed to <code>update</code> in order.
+	 *
+	 * @param elements The elements to add.
+	 */
+	public IdentifiedList(@NotNull Collection<? extends T> elements) {
+		updateAll(elements);
+	}
+	
+	/**
+	 * If an object with the same ID as the provided element exists in the collection, then it
+	 * is replaced with the provided object at the same position. If no such object exists,
+	 * then the given element is appended to the collection.
+	 *
+	 * @param element The element to insert.
+	 * @return The element that was replaced, or <code>null</code> if the element was appended.
+	 */
+	public @Nullable T update(@NotNull T element) {
+		return elements.put(element.getId(), element);
+	}
+	
+	/**
+	 * Calls <code>update</code> with each of the given elements, in order.
+	 *
+	 * @param elements The elements to insert.
+	 */
+	public void updateAll(@NotNull Collection<? extends T> elements) {
+		for (T element : elements) {
+			update(element);
+		}
+	}
+	
+	/**
+	 * @param id The ID to look up.
+	 * @return The element with the given ID, or <code>null</code> if there is none.
+	 */
+	public @Nullable T get(@NotNull S id) {
+		return elements.get(id);
+	}
+	
+	/**
+	 * @param id The ID to look up.
+	 * @return <code>true</code> if the collection has an element with the given ID.
+	 */
+	public boolean containsId(@NotNull S id) {
+		return elements.containsKey(id);
+	}
+	
+	/**
+	 * Appends the given element if there is no element with the same ID already. Use
+	 * <code>update</code> to replace existing elements.
+	 *
+	 * @param element The element to add.
+	 * @return <code>true</code> if the element was added.
+	 */
+	@Override
+	public boolean add(@NotNull T element) {
+		return elements.putIfAbsent(element.getId(), element) == null;
+	}
+	
+	@Override
+	public @NotNull Iterator<T> iterator() {
+		return elements.values().iterator();
+	}
+	
+	@Override
+	public int size() {
+		return elements.size();
+	}
+	
+	/**
+	 * @return A new list of the elements, in order.
+	 */
+	public @NotNull List<T> toList() {
+		return new ArrayList<>(elements.values());
+	}
+}
@@ -0,0 +1,65 @@
+package utilities;
+
+import model.Gender;
+import model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentifiedListTest {
+	private Person personA;
+	private Person personB;
+	private Person renamedA;
+	
+	private static Person person(String id, String firstName) {
+		return new Person(id, "test_user", firstName, "User", Gender.FEMALE, null, null, null);
+	}
+	
+	@BeforeEach
+	void setUp() {
+		personA = person("person_a", "Ann");
+		personB = person("person_b", "Bea");
+		renamedA = person("person_a", "Anna");
+	}
+	
+	@Test
+	void testUpdate_appendsNewElements() {
+		IdentifiedList<String, Person> list = new IdentifiedList<>();
+		assertNull(list.update(personA));
+		assertNull(list.update(personB));
+		assertEquals(Arrays.asList(personA, personB), list.toList());
+	}
+	
+	@Test
+	void testUpdate_replacesElementInPlace() {
+		IdentifiedList<String, Person> list = new IdentifiedList<>(Arrays.asList(personA, personB));
+		assertSame(personA, list.update(renamedA));
+		assertEquals(2, list.size());
+		assertEquals(Arrays.asList(renamedA, personB), list.toList());
+		assertSame(renamedA, list.get(personA.getId()));
+	}
+	
+	@Test
+	void testAdd_keepsExistingElement() {
+		IdentifiedList<String, Person> list = new IdentifiedList<>(Arrays.asList(personA));
+		assertFalse(list.add(renamedA));
+		assertSame(personA, list.get(personA.getId()));
+		assertTrue(list.containsId(personA.getId()));
+		assertFalse(list.containsId(personB.getId()));
+	}
+	
+	@Test
+	void testIndexById_matchesUpdateElementInList() {
+		List<Person> elements = Arrays.asList(personA, personB, renamedA, personB);
+		List<Person> expected = new ArrayList<>();
+		for (Person person : elements) {
+			ArrayHelpers.updateElementInList(expected, person);
+		}
+		assertEquals(expected, ArrayHelpers.indexById(elements).toList());
+	}
+}
@@ -11,20 +11,27 @@ public class LocationGenerator {
 	
 	private static final String LOCATION_FILE_NAME = "locations.json";
 	
-	private static @Nullable LocationsList locationsCache = null;
+	private static volatile @Nullable LocationsList locationsCache = null;
 	
 	public static @NotNull LocationsList sampleLocations() throws IOException {
-		if (locationsCache == null) {
-			String root = FileHelpers.UTILS_ROOT;
-			String locationsJson = FileHelpers.stringFromFile(
-				new File(root + LOCATION_FILE_NAME).getAbsoluteFile()
-			);
-			
-			Gson gson=new Gson();
-			locationsCache = gson.fromJson(locationsJson, LocationsList.class);
+		LocationsList result = locationsCache;
+		if (result == null) {
+			synchronized (LocationGenerator.class) {
+				result = locationsCache;
+				if (result == null) {
+					String root = FileHelpers.UTILS_ROOT;
+					String locationsJson = FileHelpers.stringFromFile(
+						new File(root + LOCATION_FILE_NAME).getAbsoluteFile()
+					);
+					
+					Gson gson=new Gson();
+					result = gson.fromJson(locationsJson, LocationsList.class);
+					locationsCache = result;
+				}
+			}
 		}
 		
-		return locationsCache;
+		return result;
 	}
 	
 	public static @NotNull Location randomLocation() throws IOException {
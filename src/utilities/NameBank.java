@@ -0,0 +1,75 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable list of names, read once from a text file with one name per line.
+ */
+public final class NameBank {
+	private final @NotNull List<String> names;
+	
+	/**
+	 * Creates a <code>NameBank</code> object.
+	 *
+	 * @param names The names to choose from. Must not be empty.
+	 */
+	public NameBank(@NotNull List<String> names) {
+		if (names.isEmpty()) {
+			throw new IllegalArgumentException("A name bank needs at least one name");
+		}
+		this.names = Collections.unmodifiableList(new ArrayList<>(names));
+	}
+	
+	/**
+	 * Reads a name bank from the given file in the utilities directory. If there is no such
+	 * file on disk, the file is read from the classpath instead.
+	 *
+	 * @param filename The name of the file, relative to <code>FileHelpers.UTILS_ROOT</code>.
+	 * @return A new name bank containing each non-empty line of the file.
+	 * @throws IOException An exception if the file could not be found or read, or if it
+	 * contains no names.
+	 */
+	public static @NotNull NameBank load(@NotNull String filename) throws IOException {
+		List<String> names;
+		File file = new File(FileHelpers.UTILS_ROOT + filename).getAbsoluteFile();
+		if (file.isFile()) {
+			names = FileHelpers.stringsFromFile(file);
+		} else {
+			InputStream resource = NameBank.class.getResourceAsStream(filename);
+			if (resource == null) {
+				throw new FileNotFoundException("No name file found at " + file + " or on the classpath");
+			}
+			try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(resource, StandardCharsets.UTF_8)
+			)) {
+				names = FileHelpers.stringsFromReader(reader);
+			}
+		}
+		
+		if (names.isEmpty()) {
+			throw new IOException("The name file " + filename + " is empty");
+		}
+		return new NameBank(names);
+	}
+	
+	/**
+	 * @return A name chosen at random.
+	 */
+	public @NotNull String randomName() {
+		return names.get(ThreadLocalRandom.current().nextInt(names.size()));
+	}
+	
+	/**
+	 * @return The names in the bank.
+	 */
+	public @NotNull List<String> getNames() {
+		return names;
+	}
+}
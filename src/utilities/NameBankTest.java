@@ -0,0 +1,42 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameBankTest {
+	
+	@Test
+	void testLoad_readsEveryName() throws IOException {
+		NameBank bank = NameBank.load(NameGenerator.LAST_NAMES_FILE);
+		assertEquals(50, bank.getNames().size());
+		assertTrue(bank.getNames().contains(bank.randomName()));
+	}
+	
+	@Test
+	void testLoad_failsForMissingFile() {
+		assertThrows(FileNotFoundException.class, () -> NameBank.load("NoSuchNames.txt"));
+	}
+	
+	@Test
+	void testInit_failsWithoutNames() {
+		assertThrows(IllegalArgumentException.class, () -> new NameBank(Collections.emptyList()));
+	}
+	
+	@Test
+	void testGetNames_isImmutable() {
+		NameBank bank = new NameBank(Arrays.asList("Ann", "Bob"));
+		assertThrows(UnsupportedOperationException.class, () -> bank.getNames().add("Cal"));
+	}
+	
+	@Test
+	void testRandomLastName_usesLastNames() throws IOException {
+		NameBank lastNames = NameBank.load(NameGenerator.LAST_NAMES_FILE);
+		assertTrue(lastNames.getNames().contains(NameGenerator.randomLastName()));
+	}
+}
@@ -2,57 +2,110 @@ package utilities;
 
 import model.Gender;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class NameGenerator {
-	public static @NotNull String randomString(int targetStringLength) {
-		int leftLimit = 97; // letter 'a'
-		int rightLimit = 122; // letter 'z'
-		Random random = new Random();
-		StringBuilder buffer = new StringBuilder(targetStringLength);
-		
-		for (int i = 0; i < targetStringLength; i++) {
-			int randomLimitedInt = leftLimit + (int)
-				(random.nextFloat() * (rightLimit - leftLimit + 1));
-			buffer.append((char) randomLimitedInt);
-		}
-		
-		return buffer.toString();
+	public static final int OBJECT_ID_LENGTH = 32;
+	
+	private static volatile @NotNull IdGenerator objectIdGenerator =
+		IdStrategy.RANDOM.newGenerator(OBJECT_ID_LENGTH);
+	private static final @NotNull IdGenerator authTokenIdGenerator =
+		IdStrategy.SECURE.newGenerator(OBJECT_ID_LENGTH);
+	
+	/**
+	 * Sets the strategy used to create identifiers for new persons and events.
+	 *
+	 * @param strategy The strategy to use from now on.
+	 */
+	public static void setObjectIdStrategy(@NotNull IdStrategy strategy) {
+		objectIdGenerator = strategy.newGenerator(OBJECT_ID_LENGTH);
 	}
 	
-	public static final int OBJECT_ID_LENGTH = 32;
+	/**
+	 * @return A new identifier for a person or event.
+	 */
 	public static @NotNull String newObjectIdentifier() {
-		return randomString(OBJECT_ID_LENGTH);
+		return objectIdGenerator.newId();
+	}
+	
+	/**
+	 * @return A new, unguessable identifier for an auth token.
+	 */
+	public static @NotNull String newAuthTokenIdentifier() {
+		return authTokenIdGenerator.newId();
 	}
 	
 	public static final String FIRST_NAMES_MALE_FILE = "FirstNamesMale.txt";
 	public static final String FIRST_NAMES_FEMALE_FILE = "FirstNamesFemale.txt";
 	
+	public static final String LAST_NAMES_FILE = "LastNames.txt";
+	
+	/**
+	 * The name banks, read from disk the first time they are needed.
+	 */
+	private static final class NameBanks {
+		private final @NotNull NameBank maleFirstNames;
+		private final @NotNull NameBank femaleFirstNames;
+		private final @NotNull NameBank lastNames;
+		
+		private NameBanks() throws IOException {
+			this.maleFirstNames = NameBank.load(FIRST_NAMES_MALE_FILE);
+			this.femaleFirstNames = NameBank.load(FIRST_NAMES_FEMALE_FILE);
+			this.lastNames = NameBank.load(LAST_NAMES_FILE);
+		}
+	}
+	
+	private static volatile @Nullable NameBanks nameBanks = null;
+	
+	private static @NotNull NameBanks nameBanks() throws IOException {
+		NameBanks result = nameBanks;
+		if (result == null) {
+			synchronized (NameGenerator.class) {
+				result = nameBanks;
+				if (result == null) {
+					result = new NameBanks();
+					nameBanks = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Reads the name banks into memory, if they have not been read already. Call this at
+	 * startup to keep the first fill request from paying for the disk reads.
+	 *
+	 * @throws IOException An exception if a name file could not be read.
+	 */
+	public static void preloadNames() throws IOException {
+		nameBanks();
+	}
+	
 	public static @NotNull String randomFirstName(@NotNull Gender gender) throws IOException {
+		NameBanks banks = nameBanks();
 		switch (gender) {
 			case MALE:
 				// Pick a male name
-				return FileHelpers.randomStringFromFile(FIRST_NAMES_MALE_FILE);
-				
+				return banks.maleFirstNames.randomName();
+			
 			case FEMALE:
 				// Pick a female name
-				return FileHelpers.randomStringFromFile(FIRST_NAMES_FEMALE_FILE);
-				
+				return banks.femaleFirstNames.randomName();
+			
 			default:
 				// Pick a random gender and return that
-				Random random = new Random();
-				if (random.nextBoolean()) {
-					return FileHelpers.randomStringFromFile(FIRST_NAMES_MALE_FILE);
+				if (ThreadLocalRandom.current().nextBoolean()) {
+					return banks.maleFirstNames.randomName();
 				} else {
-					return FileHelpers.randomStringFromFile(FIRST_NAMES_FEMALE_FILE);
+					return banks.femaleFirstNames.randomName();
 				}
 		}
 	}
 	
-	public static final String LAST_NAMES_FILE = "LastNames.txt";
 	public static @NotNull String randomLastName() throws IOException {
-		return FileHelpers.randomStringFromFile(LAST_NAMES_FILE);
+		return nameBanks().lastNames.randomName();
 	}
 }
@@ -1,6 +1,6 @@
 package utilities;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class NumberHelpers {
 	/**
@@ -15,8 +15,7 @@ public class NumberHelpers {
 			throw new IllegalArgumentException("max must be greater than min");
 		}
 		
-		Random r = new Random();
-		return r.nextInt((max - min) + 1) + min;
+		return ThreadLocalRandom.current().nextInt(min, max + 1);
 	}
 	
 	/**
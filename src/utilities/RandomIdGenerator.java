@@ -0,0 +1,32 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates random identifiers using each thread's own random number generator, so concurrent
+ * callers never contend for a shared seed.
+ */
+public class RandomIdGenerator implements IdGenerator {
+	private final int length;
+	
+	/**
+	 * Creates a <code>RandomIdGenerator</code> object.
+	 *
+	 * @param length The number of characters in each identifier. Must be positive.
+	 */
+	public RandomIdGenerator(int length) {
+		if (length < 1) {
+			throw new IllegalArgumentException("ID length must be positive");
+		}
+		this.length = length;
+	}
+	
+	@Override
+	public @NotNull String newId() {
+		char[] chars = new char[length];
+		IdGenerator.fillRandom(chars, 0, ThreadLocalRandom.current());
+		return new String(chars);
+	}
+}
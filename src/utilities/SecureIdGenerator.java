@@ -0,0 +1,33 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.security.SecureRandom;
+
+/**
+ * Creates random identifiers from a cryptographically strong random number generator. Use
+ * this for identifiers that must not be guessable, such as auth tokens.
+ */
+public class SecureIdGenerator implements IdGenerator {
+	private final int length;
+	private final @NotNull SecureRandom random = new SecureRandom();
+	
+	/**
+	 * Creates a <code>SecureIdGenerator</code> object.
+	 *
+	 * @param length The number of characters in each identifier. Must be positive.
+	 */
+	public SecureIdGenerator(int length) {
+		if (length < 1) {
+			throw new IllegalArgumentException("ID length must be positive");
+		}
+		this.length = length;
+	}
+	
+	@Override
+	public @NotNull String newId() {
+		char[] chars = new char[length];
+		IdGenerator.fillRandom(chars, 0, random);
+		return new String(chars);
+	}
+}
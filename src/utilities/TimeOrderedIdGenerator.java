@@ -0,0 +1,45 @@
+package utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates identifiers that begin with the time they were made, followed by random characters.
+ * Identifiers made in different milliseconds sort in the order they were made, so new rows
+ * land near each other in the database's primary key index.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+	/**
+	 * The number of characters that encode the timestamp. Ten characters hold 50 bits of
+	 * milliseconds, which lasts well past the year 30000.
+	 */
+	public static final int TIMESTAMP_LENGTH = 10;
+	
+	private final int length;
+	
+	/**
+	 * Creates a <code>TimeOrderedIdGenerator</code> object.
+	 *
+	 * @param length The number of characters in each identifier. Must be greater than
+	 *               <code>TIMESTAMP_LENGTH</code>.
+	 */
+	public TimeOrderedIdGenerator(int length) {
+		if (length <= TIMESTAMP_LENGTH) {
+			throw new IllegalArgumentException("ID length must be greater than " + TIMESTAMP_LENGTH);
+		}
+		this.length = length;
+	}
+	
+	@Override
+	public @NotNull String newId() {
+		char[] chars = new char[length];
+		long millis = System.currentTimeMillis();
+		for (int i = TIMESTAMP_LENGTH - 1; i >= 0; i--) {
+			chars[i] = ALPHABET[(int) (millis & 0x1F)];
+			millis >>>= BITS_PER_CHAR;
+		}
+		IdGenerator.fillRandom(chars, TIMESTAMP_LENGTH, ThreadLocalRandom.current());
+		return new String(chars);
+	}
+}